@@ -0,0 +1,10 @@
+package ma.mundiapolis.apigateway.cache;
+
+/**
+ * Clé du cache : route, chemin, query string et rôle (un ADMIN et un USER ne partagent pas les entrées).
+ *
+ * @param collection true si le chemin correspond à un pattern sans variable (liste, recherche) ou à un
+ *                   dependent-path : ces entrées sont invalidées par toute écriture sur la route
+ */
+public record CacheKey(String routeId, String path, String query, String role, boolean collection) {
+}
@@ -0,0 +1,25 @@
+package ma.mundiapolis.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+/**
+ * Réponse 200 mise en cache par la gateway.
+ *
+ * @param headers      en-têtes du service rejoués avec le corps (Content-Type, ETag, Last-Modified,
+ *                     Cache-Control, Vary...), sans ceux propres à l'échange (Content-Length, Set-Cookie...)
+ * @param upstreamEtag true si l'ETag vient du service (on peut alors revalider avec If-None-Match),
+ *                     false s'il a été calculé par la gateway à partir du corps
+ */
+public record CachedResponse(byte[] body, HttpHeaders headers, String etag, boolean upstreamEtag,
+                             long storedAtNanos, Duration ttl) {
+
+    public boolean isFresh(long nowNanos) {
+        return nowNanos - storedAtNanos < ttl.toNanos();
+    }
+
+    public CachedResponse refreshed(long nowNanos) {
+        return new CachedResponse(body, headers, etag, upstreamEtag, nowNanos, ttl);
+    }
+}
@@ -0,0 +1,111 @@
+package ma.mundiapolis.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stockage des réponses en cache, borné en octets, avec les métriques associées
+ * (hits, misses, revalidations, octets économisés).
+ */
+@Component
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final Cache<CacheKey, CachedResponse> cache;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidations;
+    private final Counter bytesSaved;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        long revalidateWindowNanos = properties.getRevalidateWindow().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((CacheKey key, CachedResponse value) -> value.body().length)
+                .expireAfter(new Expiry<CacheKey, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(CacheKey key, CachedResponse value, long currentTime) {
+                        return value.ttl().toNanos() + revalidateWindowNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(CacheKey key, CachedResponse value, long currentTime,
+                                                  long currentDuration) {
+                        return value.ttl().toNanos() + revalidateWindowNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(CacheKey key, CachedResponse value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.hits = requestCounter(registry, "hit");
+        this.misses = requestCounter(registry, "miss");
+        this.revalidations = requestCounter(registry, "revalidated");
+        this.bytesSaved = Counter.builder("gateway.response-cache.bytes-saved")
+                .description("Octets servis depuis le cache au lieu d'être transférés par le service")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("gateway.response-cache.hit-ratio", this, c -> c.hitRatio())
+                .register(registry);
+        Gauge.builder("gateway.response-cache.size", cache, c -> c.policy().eviction()
+                        .map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public CachedResponse get(CacheKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(CacheKey key, CachedResponse response) {
+        if (response.body().length <= properties.getMaxEntrySize().toBytes()) {
+            cache.put(key, response);
+        }
+    }
+
+    /**
+     * Invalide les entrées touchées par une écriture réussie sur {@code path} :
+     * la ressource elle-même, ses sous-ressources, et toutes les listes/recherches et dependent-paths de la route.
+     */
+    public void invalidate(String routeId, String path) {
+        cache.asMap().keySet().removeIf(key -> key.routeId().equals(routeId)
+                && (key.collection() || key.path().equals(path) || key.path().startsWith(path + "/")));
+    }
+
+    public void recordHit(int bytes) {
+        hits.increment();
+        bytesSaved.increment(bytes);
+    }
+
+    public void recordRevalidated(int bytes) {
+        revalidations.increment();
+        bytesSaved.increment(bytes);
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + revalidations.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("gateway.response-cache.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,49 @@
+package ma.mundiapolis.apigateway.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Limites globales du cache de réponses (section gateway.response-cache).
+ * L'activation et la durée de fraîcheur se règlent par route avec le filtre ResponseCache.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    // Taille totale des corps en cache, toutes routes confondues
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // Au-delà, la réponse n'est pas mise en cache
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    // Durée pendant laquelle une entrée périmée est gardée pour être revalidée (If-None-Match)
+    private Duration revalidateWindow = Duration.ofMinutes(5);
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public Duration getRevalidateWindow() {
+        return revalidateWindow;
+    }
+
+    public void setRevalidateWindow(Duration revalidateWindow) {
+        this.revalidateWindow = revalidateWindow;
+    }
+}
@@ -0,0 +1,8 @@
+package ma.mundiapolis.apigateway.coalescing;
+
+/**
+ * Identifie les requêtes qui peuvent partager un même appel au service : même route, chemin, query, rôle
+ * et même If-None-Match (une requête conditionnelle ne doit pas recevoir le 304 d'une autre, ni l'inverse).
+ */
+public record FlightKey(String routeId, String method, String path, String query, String role, String ifNoneMatch) {
+}
@@ -0,0 +1,10 @@
+package ma.mundiapolis.apigateway.coalescing;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Réponse obtenue par la requête "leader", rejouée telle quelle pour les requêtes qui l'ont attendue.
+ */
+public record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+}
@@ -0,0 +1,110 @@
+package ma.mundiapolis.apigateway.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registre des appels en cours : la première requête d'une clé devient leader et part vers le service,
+ * les suivantes (jusqu'à maxFanIn) s'abonnent à son résultat au lieu de refaire l'appel.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter overflows;
+
+    public SingleFlight(MeterRegistry registry) {
+        this.leaders = requestCounter(registry, "leader");
+        this.followers = requestCounter(registry, "follower");
+        this.overflows = requestCounter(registry, "overflow");
+    }
+
+    /**
+     * Rejoint l'appel en cours pour {@code key} ou en démarre un.
+     * Retourne null si l'appel en cours a déjà atteint {@code maxFanIn} : la requête doit alors être
+     * transmise normalement, sans coalescence.
+     */
+    public Participation join(FlightKey key, int maxFanIn) {
+        while (true) {
+            Flight created = new Flight();
+            Flight flight = flights.putIfAbsent(key, created);
+            if (flight == null) {
+                leaders.increment();
+                return new Participation(created, true);
+            }
+            if (flight.expired()) {
+                // Le résultat précédent est sorti de la fenêtre : je le retire et je retente
+                flights.remove(key, flight);
+                continue;
+            }
+            if (flight.fanIn.incrementAndGet() > maxFanIn) {
+                overflows.increment();
+                return null;
+            }
+            followers.increment();
+            return new Participation(flight, false);
+        }
+    }
+
+    /**
+     * Publie la réponse du leader. Une réponse 2xx reste partageable pendant {@code window} après la fin
+     * de l'appel, les autres sont retirées tout de suite.
+     */
+    public void complete(FlightKey key, Flight flight, SharedResponse response, Duration window) {
+        flight.result.tryEmitValue(response);
+        if (response.status().is2xxSuccessful() && !window.isZero()) {
+            flight.expiresAtNanos = System.nanoTime() + window.toNanos();
+            flight.completed = true;
+            Mono.delay(window).subscribe(t -> flights.remove(key, flight));
+        } else {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Termine l'appel sans réponse (erreur, annulation) : les requêtes en attente repartent chacune vers le
+     * service. Sans effet si {@link #complete} a déjà été appelé.
+     */
+    public void abandon(FlightKey key, Flight flight) {
+        if (flight.result.tryEmitEmpty() == Sinks.EmitResult.OK) {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("Requêtes GET par rôle dans la coalescence (leader, follower, overflow)")
+                .tag("role", role)
+                .register(registry);
+    }
+
+    public static final class Flight {
+
+        private final Sinks.One<SharedResponse> result = Sinks.one();
+        private final AtomicInteger fanIn = new AtomicInteger();
+        private volatile long expiresAtNanos;
+        private volatile boolean completed;
+
+        public Mono<SharedResponse> result() {
+            return result.asMono();
+        }
+
+        private boolean expired() {
+            return completed && System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+
+    public record Participation(Flight flight, boolean leader) {
+    }
+}
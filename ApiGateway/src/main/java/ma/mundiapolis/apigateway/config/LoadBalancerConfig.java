@@ -0,0 +1,13 @@
+package ma.mundiapolis.apigateway.config;
+
+import ma.mundiapolis.apigateway.resilience.CircuitBreakerLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tous les services appelés via lb:// écartent les instances dont le circuit breaker est ouvert.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = CircuitBreakerLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
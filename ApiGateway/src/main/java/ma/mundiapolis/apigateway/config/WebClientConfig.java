@@ -0,0 +1,34 @@
+package ma.mundiapolis.apigateway.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.resolver.DefaultAddressResolverGroup;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * WebClient load-balancé (http://BOOKSERVICE/...) pour les appels que la gateway fait elle-même,
+ * comme l'agrégation du tableau de bord.
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder webClientBuilder(ObservationRegistry observationRegistry) {
+        HttpClient httpClient = HttpClient.create().resolver(DefaultAddressResolverGroup.INSTANCE);
+        // Builder créé à la main : je lui passe le registre pour que chaque appel ait son span
+        // et propage l'en-tête traceparent au service appelé
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationRegistry(observationRegistry);
+    }
+
+    @Bean
+    public WebClient webClient(WebClient.Builder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,36 @@
+package ma.mundiapolis.apigateway.dashboard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration du tableau de bord agrégé (section gateway.dashboard).
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.dashboard")
+public class DashboardProperties {
+
+    // Temps max accordé à chaque appel ; au-delà, la section est marquée dégradée et le reste est renvoyé
+    private Duration legTimeout = Duration.ofMillis(800);
+
+    // Nombre de livres les plus empruntés dont je résous le titre
+    private int topBorrowed = 6;
+
+    public Duration getLegTimeout() {
+        return legTimeout;
+    }
+
+    public void setLegTimeout(Duration legTimeout) {
+        this.legTimeout = legTimeout;
+    }
+
+    public int getTopBorrowed() {
+        return topBorrowed;
+    }
+
+    public void setTopBorrowed(int topBorrowed) {
+        this.topBorrowed = topBorrowed;
+    }
+}
@@ -0,0 +1,133 @@
+package ma.mundiapolis.apigateway.dashboard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import ma.mundiapolis.apigateway.security.AuthenticatedPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Construit la réponse de GET /api/dashboard en interrogeant BookService, EmpruntsService et UserService
+ * en parallèle. Chaque appel a son propre timeout : une section lente ou en erreur est omise et listée
+ * dans "degrades", les autres sont renvoyées normalement.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
+
+    private final WebClient webClient;
+    private final DashboardProperties properties;
+    private final MeterRegistry registry;
+
+    public DashboardService(WebClient webClient, DashboardProperties properties, MeterRegistry registry) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public Mono<ObjectNode> build(AuthenticatedPrincipal principal, String correlationId) {
+        Mono<Section> livres = section("livres", get("http://BOOKSERVICE/api/books/stats", correlationId));
+
+        Mono<Section> emprunts = section("emprunts", get("http://EMPRUNTSSERVICE/api/loans/stats", correlationId)
+                .flatMap(stats -> withTitles(stats, correlationId)));
+
+        // Le nombre d'utilisateurs n'est affiché qu'aux administrateurs
+        Mono<Section> utilisateurs = principal.hasRole("ADMIN")
+                ? section("utilisateurs", get("http://USERSERVICE/api/users/stats", correlationId))
+                : Mono.just(Section.skipped("utilisateurs"));
+
+        Mono<Section> mesEmprunts = principal.userId() != null
+                ? section("mesEmpruntsActifs",
+                        get("http://EMPRUNTSSERVICE/api/loans/user/" + principal.userId(), correlationId)
+                                .map(DashboardService::activeOnly))
+                : Mono.just(Section.skipped("mesEmpruntsActifs"));
+
+        return Mono.zip(livres, emprunts, utilisateurs, mesEmprunts)
+                .map(sections -> assemble(List.of(sections.getT1(), sections.getT2(), sections.getT3(),
+                        sections.getT4())));
+    }
+
+    private Mono<JsonNode> get(String uri, String correlationId) {
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (correlationId != null) {
+                        headers.set(CORRELATION_ID_HEADER, correlationId);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(properties.getLegTimeout());
+    }
+
+    private Mono<Section> section(String name, Mono<JsonNode> call) {
+        return call
+                .map(value -> new Section(name, value, false))
+                .onErrorResume(e -> {
+                    log.warn("Dashboard: section '{}' dégradée ({})", name, e.toString());
+                    registry.counter("gateway.dashboard.degraded", "section", name).increment();
+                    return Mono.just(new Section(name, null, true));
+                })
+                .defaultIfEmpty(new Section(name, null, true));
+    }
+
+    /**
+     * EmpruntsService ne connaît que les ids : je résous les titres des livres les plus empruntés en parallèle.
+     * Si BookService ne répond pas à temps, les entrées restent sans titre plutôt que de dégrader la section.
+     */
+    private Mono<JsonNode> withTitles(JsonNode stats, String correlationId) {
+        JsonNode top = stats.path("plusEmpruntes");
+        if (!top.isArray() || top.isEmpty()) {
+            return Mono.just(stats);
+        }
+        return Flux.fromIterable(top)
+                .take(properties.getTopBorrowed())
+                .flatMap(entry -> get("http://BOOKSERVICE/api/books/" + entry.path("livreId").asLong(), correlationId)
+                        .doOnNext(livre -> ((ObjectNode) entry).put("titre", livre.path("titre").asText()))
+                        .onErrorResume(e -> Mono.empty()))
+                .then(Mono.just(stats));
+    }
+
+    private static JsonNode activeOnly(JsonNode emprunts) {
+        ArrayNode actifs = JsonNodeFactory.instance.arrayNode();
+        for (JsonNode emprunt : emprunts) {
+            String statut = emprunt.path("statut").asText();
+            if ("ACTIF".equals(statut) || "EN_RETARD".equals(statut)) {
+                actifs.add(emprunt);
+            }
+        }
+        return actifs;
+    }
+
+    private static ObjectNode assemble(List<Section> sections) {
+        ObjectNode body = JsonNodeFactory.instance.objectNode();
+        ArrayNode degrades = body.putArray("degrades");
+        for (Section section : sections) {
+            if (section.degraded()) {
+                degrades.add(section.name());
+            } else if (section.value() != null) {
+                body.set(section.name(), section.value());
+            }
+        }
+        return body;
+    }
+
+    private record Section(String name, JsonNode value, boolean degraded) {
+
+        static Section skipped(String name) {
+            return new Section(name, null, false);
+        }
+    }
+}
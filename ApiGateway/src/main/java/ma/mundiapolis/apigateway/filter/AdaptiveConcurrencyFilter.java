@@ -0,0 +1,78 @@
+package ma.mundiapolis.apigateway.filter;
+
+import ma.mundiapolis.apigateway.resilience.AdaptiveLimitProperties;
+import ma.mundiapolis.apigateway.resilience.AdaptiveLimiters;
+import ma.mundiapolis.apigateway.resilience.VegasLimiter;
+import ma.mundiapolis.apigateway.resilience.Priority;
+import ma.mundiapolis.apigateway.resilience.PriorityResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+
+@Component
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private AdaptiveLimiters limiters;
+
+    @Autowired
+    private PriorityResolver priorityResolver;
+
+    @Autowired
+    private AdaptiveLimitProperties properties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Je ne limite que les appels qui partent vraiment vers un service lb:// (pas les hits du cache,
+        // ni les requêtes coalescées, ni le tableau de bord construit par la gateway)
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || url == null || route == null || !"lb".equals(url.getScheme())) {
+            return chain.filter(exchange);
+        }
+
+        VegasLimiter limiter = limiters.forRoute(route.getId());
+        Priority priority = priorityResolver.priorityOf(exchange);
+        if (!limiter.tryAcquire(priority)) {
+            // Rejet immédiat plutôt que d'empiler des requêtes sur un service déjà saturé
+            limiters.shed(route.getId(), priority);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return exchange.getResponse().setComplete();
+        }
+
+        int inflightAtStart = limiter.inflight();
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                        limiter.onDropped();
+                    } else if (signal == SignalType.CANCEL) {
+                        limiter.onIgnored();
+                    } else {
+                        limiter.onSuccess(System.nanoTime() - start, inflightAtStart);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // Juste avant le choix de l'instance : la latence mesurée est celle du service
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
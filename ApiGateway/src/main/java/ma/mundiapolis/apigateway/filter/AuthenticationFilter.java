@@ -1,6 +1,8 @@
 package ma.mundiapolis.apigateway.filter;
 
-import ma.mundiapolis.apigateway.util.JwtUtil;
+import ma.mundiapolis.apigateway.security.AuthenticatedPrincipal;
+import ma.mundiapolis.apigateway.security.RouteAccess;
+import ma.mundiapolis.apigateway.security.VerifiedClaimsCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,13 +20,12 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.util.Collections;
-import java.util.List;
 
 @Component
 public class AuthenticationFilter implements GlobalFilter, Ordered {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedClaimsCache verifiedClaimsCache;
 
     @Autowired
     private RouteValidator routeValidator;
@@ -37,13 +38,12 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         String path = request.getPath().value();
         String method = request.getMethod().toString();
 
-        log.info("=== AuthenticationFilter START === Path: {}, Method: {}", path, method);
+        log.debug("=== AuthenticationFilter START === Path: {}, Method: {}", path, method);
 
         // Je ne valide pas les endpoint public
-        boolean isSecured = routeValidator.isSecured.test(request);
-        log.debug("Route isSecured: {}", isSecured);
+        RouteAccess access = routeValidator.classify(exchange);
 
-        if (isSecured) {
+        if (access != RouteAccess.PUBLIC) {
             String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -54,35 +54,31 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
 
             String token = authHeader.substring(7);
 
-            try {
-                log.debug("Validating token (prefix): {}",
-                        token.length() > 20 ? token.substring(0, 20) + "..." : token);
+            log.debug("Validating token (prefix): {}",
+                    token.length() > 20 ? token.substring(0, 20) + "..." : token);
 
-                if (!jwtUtil.validateToken(token)) {
-                    log.warn("Token validation failed (invalid token)");
-                    exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-                    return exchange.getResponse().setComplete();
-                }
-
-                String username = jwtUtil.extractUsername(token);
-                String role = jwtUtil.extractRole(token);
+            // Je passe par le cache : le token n'est vérifié (HS512) qu'une fois pour toute sa durée de vie
+            AuthenticatedPrincipal principal = verifiedClaimsCache.resolve(token);
+            if (principal == null || principal.role() == null) {
+                log.warn("Token validation failed (invalid token)");
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                return exchange.getResponse().setComplete();
+            }
 
-                log.debug("Token valid for user='{}', role='{}'", username, role);
+            log.debug("Token valid for user='{}', role='{}'", principal.username(), principal.role());
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        username, null, Collections.singletonList(new SimpleGrantedAuthority(role)));
+            // Je garde le principal dans l'exchange pour que les filtres suivants ne reparsent pas le token
+            exchange.getAttributes().put(AuthenticatedPrincipal.EXCHANGE_ATTRIBUTE, principal);
 
-                return chain.filter(exchange)
-                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal.username(), null,
+                    Collections.singletonList(new SimpleGrantedAuthority(principal.role())));
 
-            } catch (Exception e) {
-                log.error("JWT validation error in AuthenticationFilter: {}", e.getMessage());
-                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-                return exchange.getResponse().setComplete();
-            }
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
         }
 
-        log.info("=== AuthenticationFilter: Route is PUBLIC, skipping validation ===");
+        log.debug("=== AuthenticationFilter: Route is PUBLIC, skipping validation ===");
         return chain.filter(exchange);
     }
 
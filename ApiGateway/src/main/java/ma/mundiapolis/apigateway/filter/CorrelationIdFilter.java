@@ -1,13 +1,18 @@
 package ma.mundiapolis.apigateway.filter;
 
+import io.micrometer.tracing.handler.TracingObservationHandler.TracingContext;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class CorrelationIdFilter implements GlobalFilter, Ordered {
@@ -18,20 +23,58 @@ public class CorrelationIdFilter implements GlobalFilter, Ordered {
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String correlationId = exchange.getRequest().getHeaders().getFirst(CORRELATION_ID_HEADER);
 
+        ServerWebExchange forwarded = exchange;
         if (correlationId == null || correlationId.isEmpty()) {
-            correlationId = UUID.randomUUID().toString();
+            // Par défaut l'ID de corrélation est l'ID de la trace : il suffit pour retrouver tous ses spans
+            // sur /internal/traces/{id}. Plus de UUID.randomUUID() (SecureRandom, partagé entre threads)
+            correlationId = currentTraceId(exchange);
+            if (correlationId == null) {
+                correlationId = randomId();
+            }
+            forwarded = exchange.mutate().request(withCorrelationId(exchange.getRequest(), correlationId)).build();
         }
 
         final String finalCorrelationId = correlationId;
 
-        // J'ajoute l'ID de corrélation aux en-têtes de réponse uniquement
-        // (les en-têtes de requête sont en lecture seule dans WebFlux)
+        // Renvoyé au client, et transmis au service appelé qui le propage ensuite comme baggage
         exchange.getResponse().getHeaders().add(CORRELATION_ID_HEADER, finalCorrelationId);
 
-        return chain.filter(exchange)
+        return chain.filter(forwarded)
                 .contextWrite(ctx -> ctx.put("correlationId", finalCorrelationId));
     }
 
+    private static String currentTraceId(ServerWebExchange exchange) {
+        return ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+                .map(context -> context.<TracingContext>get(TracingContext.class))
+                .map(TracingContext::getSpan)
+                .map(span -> span.context().traceId())
+                .orElse(null);
+    }
+
+    // 128 bits non cryptographiques, au format d'un trace ID W3C, quand le traçage est désactivé
+    private static String randomId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex16(random.nextLong()) + hex16(random.nextLong());
+    }
+
+    private static String hex16(long value) {
+        String hex = Long.toHexString(value);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static ServerHttpRequest withCorrelationId(ServerHttpRequest request, String correlationId) {
+        // Les en-têtes de la requête d'origine sont en lecture seule : je passe par une copie
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(request.getHeaders());
+        headers.set(CORRELATION_ID_HEADER, correlationId);
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
     @Override
     public int getOrder() {
         return -200; // Je l'exécute en premier pour ajouter l'ID de corrélation
@@ -0,0 +1,66 @@
+package ma.mundiapolis.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.mundiapolis.apigateway.dashboard.DashboardService;
+import ma.mundiapolis.apigateway.security.AuthenticatedPrincipal;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Répond directement à la requête avec le tableau de bord agrégé, sans la transmettre à un service.
+ * La route reste une route de la gateway : authentification, rate limiting et métriques s'appliquent.
+ * <pre>
+ * - id: dashboard
+ *   uri: no://op
+ *   predicates:
+ *     - Path=/api/dashboard
+ *   filters:
+ *     - Dashboard
+ * </pre>
+ */
+@Component
+public class DashboardGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    private static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
+
+    private final DashboardService dashboardService;
+    private final ObjectMapper objectMapper;
+
+    public DashboardGatewayFilterFactory(DashboardService dashboardService, ObjectMapper objectMapper) {
+        this.dashboardService = dashboardService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return (exchange, chain) -> {
+            ServerHttpResponse response = exchange.getResponse();
+            AuthenticatedPrincipal principal = exchange.getAttribute(AuthenticatedPrincipal.EXCHANGE_ATTRIBUTE);
+            if (principal == null) {
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return response.setComplete();
+            }
+
+            String correlationId = response.getHeaders().getFirst(CORRELATION_ID_HEADER);
+            return dashboardService.build(principal, correlationId)
+                    .flatMap(body -> {
+                        byte[] bytes;
+                        try {
+                            bytes = objectMapper.writeValueAsBytes(body);
+                        } catch (JsonProcessingException e) {
+                            return Mono.error(e);
+                        }
+                        response.setStatusCode(HttpStatus.OK);
+                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        response.getHeaders().setContentLength(bytes.length);
+                        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+                    });
+        };
+    }
+}
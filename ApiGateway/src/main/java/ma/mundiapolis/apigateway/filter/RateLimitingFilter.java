@@ -1,9 +1,12 @@
 package ma.mundiapolis.apigateway.filter;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
-import ma.mundiapolis.apigateway.util.JwtUtil;
+import io.github.bucket4j.ConsumptionProbe;
+import ma.mundiapolis.apigateway.ratelimit.BucketStore;
+import ma.mundiapolis.apigateway.ratelimit.ConcurrencyLimiter;
+import ma.mundiapolis.apigateway.ratelimit.RateLimitMetrics;
+import ma.mundiapolis.apigateway.ratelimit.RateLimitPolicyResolver;
+import ma.mundiapolis.apigateway.security.AuthenticatedPrincipal;
+import ma.mundiapolis.apigateway.security.VerifiedClaimsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -14,58 +17,80 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class RateLimitingFilter implements GlobalFilter, Ordered {
 
+    private static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+
+    @Autowired
+    private VerifiedClaimsCache verifiedClaimsCache;
+
+    @Autowired
+    private BucketStore bucketStore;
+
     @Autowired
-    private JwtUtil jwtUtil;
+    private RateLimitPolicyResolver policyResolver;
 
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private RateLimitMetrics metrics;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        String userId = "anonymous";
+        String userId = resolveUserId(exchange);
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            try {
-                if (jwtUtil.validateToken(token)) {
-                    userId = jwtUtil.extractUsername(token);
-                }
-            } catch (Exception e) {
-                // J'ignore l'exception et je considère l'utilisateur comme anonyme
-            }
-        } else {
-            // J'utilise l'adresse IP pour les utilisateurs anonymes
-            userId = exchange.getRequest().getRemoteAddress() != null
-                    ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
-                    : "unknown";
+        if (!concurrencyLimiter.tryAcquire(userId)) {
+            metrics.concurrencyRejected();
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, concurrencyLimiter.retryAfter().toSeconds())));
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            return exchange.getResponse().setComplete();
         }
 
-        Bucket bucket = resolveBucket(userId);
-        if (bucket.tryConsume(1)) {
-            return chain.filter(exchange);
-        } else {
+        // Les routes coûteuses (recherche...) consomment plus de jetons, cf. gateway.rate-limit.policies.
+        // Coût 0 : route non décomptée (suggestions de saisie), seule la limite de concurrence s'applique
+        long cost = policyResolver.costOf(exchange.getRequest());
+        if (cost == 0) {
+            return chain.filter(exchange)
+                    .doFinally(signal -> concurrencyLimiter.release(userId));
+        }
+        ConsumptionProbe probe = bucketStore.tryConsume(userId, cost);
+        if (!probe.isConsumed()) {
+            concurrencyLimiter.release(userId);
+            metrics.rateRejected();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
             exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
             return exchange.getResponse().setComplete();
         }
-    }
+        exchange.getResponse().getHeaders().set(REMAINING_HEADER, String.valueOf(probe.getRemainingTokens()));
 
-    private Bucket resolveBucket(String userId) {
-        return cache.computeIfAbsent(userId, this::createNewBucket);
+        return chain.filter(exchange)
+                .doFinally(signal -> concurrencyLimiter.release(userId));
     }
 
-    private Bucket createNewBucket(String userId) {
-        // Je limite à 20 requêtes par minute par utilisateur
-        Bandwidth limit = Bandwidth.classic(20, Refill.greedy(20, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    private String resolveUserId(ServerWebExchange exchange) {
+        // AuthenticationFilter a déjà vérifié le token sur les routes sécurisées : je réutilise son résultat
+        AuthenticatedPrincipal principal = exchange.getAttribute(AuthenticatedPrincipal.EXCHANGE_ATTRIBUTE);
+        if (principal != null) {
+            return principal.username();
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            // Route publique avec un token : je passe par le cache, sinon je considère l'utilisateur comme anonyme
+            principal = verifiedClaimsCache.resolve(authHeader.substring(7));
+            return principal != null ? principal.username() : "anonymous";
+        }
+
+        // J'utilise l'adresse IP pour les utilisateurs anonymes
+        return exchange.getRequest().getRemoteAddress() != null
+                ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
+                : "unknown";
     }
 
     @Override
@@ -0,0 +1,325 @@
+package ma.mundiapolis.apigateway.filter;
+
+import ma.mundiapolis.apigateway.cache.CacheKey;
+import ma.mundiapolis.apigateway.cache.CachedResponse;
+import ma.mundiapolis.apigateway.cache.ResponseCache;
+import ma.mundiapolis.apigateway.cache.ResponseCacheProperties;
+import ma.mundiapolis.apigateway.security.AuthenticatedPrincipal;
+import ma.mundiapolis.apigateway.util.BodyCaptureResponseDecorator;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cache de réponses opt-in, à déclarer sur une route :
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 30s
+ *       paths: [/api/books, /api/books/{id}, /api/books/isbn/{isbn}, /api/books/search]
+ *       dependent-paths: [/api/books/isbn/{isbn}]
+ *       bypass-params: [available]
+ * </pre>
+ * Les GET des chemins listés sont servis depuis le cache tant qu'ils sont frais, puis revalidés auprès du
+ * service avec If-None-Match. Toute écriture réussie (POST/PUT/DELETE) sur la route invalide les entrées
+ * concernées, sauf les POST des chemins {@code read-only-paths} (lectures dont les paramètres passent dans le corps).
+ * Les {@code dependent-paths} désignent la même ressource qu'un autre chemin (un livre par son ISBN) : comme
+ * les listes, ils sont invalidés par toute écriture sur la route. Les GET portant un des {@code bypass-params}
+ * ne sont pas mis en cache : leur réponse dépend d'écritures passées par une autre route (les emprunts).
+ * Le cache est local à chaque replica : une écriture passée par une autre gateway n'est vue ici qu'à
+ * l'expiration du ttl.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    // Avant NettyWriteResponseFilter pour pouvoir capturer le corps, mais après l'authentification,
+    // le rate limiting et le contrôle des rôles
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    // En-têtes propres à chaque échange, que je ne garde pas avec la réponse en cache
+    private static final Set<String> PER_EXCHANGE_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.SET_COOKIE.toLowerCase(),
+            CACHE_STATUS_HEADER.toLowerCase(),
+            "x-correlation-id");
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache responseCache, ResponseCacheProperties properties) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.properties = properties;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        PathPatternParser parser = new PathPatternParser();
+        List<PathPattern> patterns = config.getPaths().stream().map(parser::parse).toList();
+        List<PathPattern> readOnlyPatterns = config.getReadOnlyPaths().stream().map(parser::parse).toList();
+        List<PathPattern> dependentPatterns = config.getDependentPaths().stream().map(parser::parse).toList();
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "default";
+            String path = request.getPath().value();
+
+            if (request.getMethod() == HttpMethod.POST
+                    && match(readOnlyPatterns, request.getPath().pathWithinApplication()) != null) {
+                return chain.filter(exchange);
+            }
+            if (request.getMethod() == HttpMethod.POST || request.getMethod() == HttpMethod.PUT
+                    || request.getMethod() == HttpMethod.PATCH || request.getMethod() == HttpMethod.DELETE) {
+                return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        responseCache.invalidate(routeId, path);
+                    }
+                }));
+            }
+
+            if (request.getMethod() != HttpMethod.GET
+                    || config.getBypassParams().stream().anyMatch(request.getQueryParams()::containsKey)) {
+                return chain.filter(exchange);
+            }
+            PathPattern pattern = match(patterns, request.getPath().pathWithinApplication());
+            if (pattern == null) {
+                return chain.filter(exchange);
+            }
+
+            boolean collection = pattern.getPatternString().indexOf('{') < 0
+                    || match(dependentPatterns, request.getPath().pathWithinApplication()) != null;
+            CacheKey key = new CacheKey(routeId, path, request.getURI().getRawQuery(), roleOf(exchange), collection);
+            CachedResponse cached = responseCache.get(key);
+            long now = System.nanoTime();
+
+            if (cached != null && cached.isFresh(now)) {
+                responseCache.recordHit(cached.body().length);
+                return writeCached(exchange, cached, "HIT");
+            }
+            if (cached != null && cached.upstreamEtag()) {
+                return revalidate(exchange, chain, key, cached, config.getTtl());
+            }
+
+            responseCache.recordMiss();
+            return chain.filter(capture(exchange, key, config.getTtl()));
+        }, ORDER);
+    }
+
+    private Mono<Void> revalidate(ServerWebExchange exchange, GatewayFilterChain chain,
+                                  CacheKey key, CachedResponse cached, Duration ttl) {
+        HttpHeaders clientHeaders = exchange.getRequest().getHeaders();
+        // Les en-têtes de la requête d'origine sont en lecture seule : je passe par une copie. La condition
+        // porte sur notre copie, pas sur celle du client : son If-Modified-Since ne part pas au service
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.addAll(clientHeaders);
+        conditionalHeaders.remove(HttpHeaders.IF_MODIFIED_SINCE);
+        conditionalHeaders.set(HttpHeaders.IF_NONE_MATCH, cached.etag());
+        ServerHttpRequest conditional = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return conditionalHeaders;
+            }
+        };
+
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(exchange.getResponse(),
+                properties.getMaxEntrySize().toBytes(), (delegate, body) -> {
+                    if (delegate.getStatusCode() != null && delegate.getStatusCode().value() == 304) {
+                        // Le service confirme que notre copie est à jour : je la resers sans retransférer le corps
+                        responseCache.put(key, cached.refreshed(System.nanoTime()));
+                        responseCache.recordRevalidated(cached.body().length);
+                        applyHeaders(delegate, cached, "REVALIDATED");
+                        if (notModified(clientHeaders, cached)) {
+                            return new byte[0];
+                        }
+                        delegate.setStatusCode(HttpStatus.OK);
+                        return cached.body();
+                    }
+                    return store(delegate, key, ttl, body);
+                });
+        return chain.filter(exchange.mutate().request(conditional).response(response).build());
+    }
+
+    private ServerWebExchange capture(ServerWebExchange exchange, CacheKey key, Duration ttl) {
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(exchange.getResponse(),
+                properties.getMaxEntrySize().toBytes(), (delegate, body) -> store(delegate, key, ttl, body));
+        return exchange.mutate().response(response).build();
+    }
+
+    private byte[] store(ServerHttpResponse response, CacheKey key, Duration ttl, byte[] body) {
+        if (response.getStatusCode() == null || response.getStatusCode().value() != 200 || !isStorable(response)) {
+            return body;
+        }
+        HttpHeaders headers = response.getHeaders();
+        String etag = headers.getETag();
+        boolean upstreamEtag = etag != null;
+        if (!upstreamEtag) {
+            etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            headers.setETag(etag);
+        }
+        responseCache.put(key, new CachedResponse(body, storedHeaders(headers), etag, upstreamEtag,
+                System.nanoTime(), ttl));
+        headers.set(CACHE_STATUS_HEADER, "MISS");
+        return body;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        applyHeaders(response, cached, cacheStatus);
+        if (notModified(exchange.getRequest().getHeaders(), cached)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static void applyHeaders(ServerHttpResponse response, CachedResponse cached, String cacheStatus) {
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach(headers::put);
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+    }
+
+    private static HttpHeaders storedHeaders(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!PER_EXCHANGE_HEADERS.contains(name.toLowerCase())) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+
+    // If-None-Match l'emporte ; If-Modified-Since n'est regardé qu'en son absence (RFC 9110, 13.2.2)
+    private static boolean notModified(HttpHeaders request, CachedResponse cached) {
+        String clientEtag = request.getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (clientEtag != null) {
+            return cached.etag().equals(clientEtag);
+        }
+        long lastModified = cached.headers().getLastModified();
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getIfModifiedSince();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return lastModified >= 0 && ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean isStorable(ServerHttpResponse response) {
+        String cacheControl = response.getHeaders().getCacheControl();
+        return cacheControl == null
+                || !(cacheControl.contains(CacheControl.noStore().getHeaderValue())
+                || cacheControl.contains("private"));
+    }
+
+    private static PathPattern match(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+
+    private static String roleOf(ServerWebExchange exchange) {
+        AuthenticatedPrincipal principal = exchange.getAttribute(AuthenticatedPrincipal.EXCHANGE_ATTRIBUTE);
+        return principal != null ? principal.role() : "anonymous";
+    }
+
+    public static class Config {
+
+        // Durée pendant laquelle une réponse est servie sans contacter le service
+        private Duration ttl = Duration.ofSeconds(30);
+
+        // Patterns des GET à mettre en cache
+        private List<String> paths = new ArrayList<>();
+
+        // POST en lecture seule : ne pas invalider le cache après ces appels
+        private List<String> readOnlyPaths = new ArrayList<>();
+
+        // Autres chemins d'une même ressource : invalidés par toute écriture sur la route
+        private List<String> dependentPaths = new ArrayList<>();
+
+        // Paramètres de requête dont la réponse dépend d'une autre route : pas de cache
+        private List<String> bypassParams = new ArrayList<>();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public List<String> getReadOnlyPaths() {
+            return readOnlyPaths;
+        }
+
+        public void setReadOnlyPaths(List<String> readOnlyPaths) {
+            this.readOnlyPaths = readOnlyPaths;
+        }
+
+        public List<String> getDependentPaths() {
+            return dependentPaths;
+        }
+
+        public void setDependentPaths(List<String> dependentPaths) {
+            this.dependentPaths = dependentPaths;
+        }
+
+        public List<String> getBypassParams() {
+            return bypassParams;
+        }
+
+        public void setBypassParams(List<String> bypassParams) {
+            this.bypassParams = bypassParams;
+        }
+    }
+}
@@ -1,60 +1,41 @@
 package ma.mundiapolis.apigateway.filter;
 
+import ma.mundiapolis.apigateway.security.AuthenticatedPrincipal;
+import ma.mundiapolis.apigateway.security.RouteAccess;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Collection;
-
 @Component
 public class RoleAuthorizationFilter implements GlobalFilter, Ordered {
 
+    @Autowired
+    private RouteValidator routeValidator;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        String path = exchange.getRequest().getPath().value();
-        HttpMethod method = exchange.getRequest().getMethod();
-
-        return ReactiveSecurityContextHolder.getContext()
-                .map(ctx -> ctx.getAuthentication())
-                .flatMap(auth -> {
-                    if (auth != null) {
-                        boolean isAdmin = hasRole(auth.getAuthorities(), "ADMIN");
-
-                        // Je limite ces routes aux administrateurs pour les opérations de modification.
-                        // J'empêche ainsi les utilisateurs non‑administrateurs de créer, modifier ou
-                        // supprimer
-                        // les livres et les utilisateurs via ces endpoints.
-                        if ((path.startsWith("/api/books") || path.startsWith("/api/users"))
-                                && (method == HttpMethod.POST || method == HttpMethod.PUT
-                                        || method == HttpMethod.DELETE)) {
-                            if (!isAdmin && !path.contains("/login") && !path.contains("/register")) {
-                                exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
-                                return exchange.getResponse().setComplete();
-                            }
-                        }
-                    }
-                    return chain.filter(exchange);
-                })
-                .switchIfEmpty(chain.filter(exchange));
-    }
-
-    // Je vérifie si l'utilisateur possède le rôle demandé (j'accepte 'ROLE_<role>'
-    // ou '<role>').
-    private boolean hasRole(Collection<? extends GrantedAuthority> authorities, String role) {
-        return authorities.stream()
-                .anyMatch(a -> a.getAuthority().equals(role) || a.getAuthority().equals("ROLE_" + role));
+        // Je limite les opérations de modification (création, modification, suppression des livres et des
+        // utilisateurs) aux administrateurs. La classification a déjà été faite par AuthenticationFilter,
+        // qui a aussi garanti qu'un principal existe pour toute route non publique.
+        if (routeValidator.classify(exchange) == RouteAccess.ADMIN) {
+            AuthenticatedPrincipal principal = exchange.getAttribute(AuthenticatedPrincipal.EXCHANGE_ATTRIBUTE);
+            if (principal == null || !principal.hasRole("ADMIN")) {
+                exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+                return exchange.getResponse().setComplete();
+            }
+        }
+        return chain.filter(exchange);
     }
 
     @Override
     public int getOrder() {
-        return 0;
+        // Avant le cache de réponses (ResponseCacheGatewayFilterFactory.ORDER) : une réponse en cache
+        // ne doit jamais être servie à quelqu'un qui n'a pas le droit d'appeler la route
+        return -20;
     }
 }
@@ -1,31 +1,41 @@
 package ma.mundiapolis.apigateway.filter;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import ma.mundiapolis.apigateway.security.RouteAccess;
+import ma.mundiapolis.apigateway.security.RouteAccessTable;
+import ma.mundiapolis.apigateway.security.RouteSecurityProperties;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-
-import java.util.List;
-import java.util.function.Predicate;
+import org.springframework.web.server.ServerWebExchange;
 
 @Component
 public class RouteValidator {
 
-        private static final Logger log = LoggerFactory.getLogger(RouteValidator.class);
-
-        public static final List<String> openApiEndpoints = List.of(
-                        "/api/users/register",
-                        "/api/users/login",
-                        "/eureka",
-                        "/actuator");
-
-        public Predicate<ServerHttpRequest> isSecured = request -> {
-                String path = request.getURI().getPath();
-                boolean matchesPublic = openApiEndpoints.stream()
-                                .anyMatch(uri -> path.contains(uri));
-                boolean isSecured = !matchesPublic;
-                log.debug("RouteValidator: path='{}', matchesPublic={}, isSecured={}", path, matchesPublic, isSecured);
-                return isSecured;
-        };
+        // Je compile les règles une fois au démarrage (gateway.security dans application.yml)
+        private final RouteAccessTable accessTable;
+
+        public RouteValidator(RouteSecurityProperties properties) {
+                this.accessTable = RouteAccessTable.compile(properties);
+        }
+
+        /**
+         * Classe la requête (publique, authentifiée ou admin) une seule fois et garde le résultat
+         * dans les attributs de l'exchange : AuthenticationFilter et RoleAuthorizationFilter le relisent.
+         */
+        public RouteAccess classify(ServerWebExchange exchange) {
+                RouteAccess access = exchange.getAttribute(RouteAccess.EXCHANGE_ATTRIBUTE);
+                if (access == null) {
+                        access = classify(exchange.getRequest());
+                        exchange.getAttributes().put(RouteAccess.EXCHANGE_ATTRIBUTE, access);
+                }
+                return access;
+        }
+
+        public RouteAccess classify(ServerHttpRequest request) {
+                return accessTable.classify(request.getMethod(), request.getPath().value());
+        }
+
+        public boolean isSecured(ServerHttpRequest request) {
+                return classify(request) != RouteAccess.PUBLIC;
+        }
 
 }
@@ -0,0 +1,176 @@
+package ma.mundiapolis.apigateway.filter;
+
+import ma.mundiapolis.apigateway.coalescing.FlightKey;
+import ma.mundiapolis.apigateway.coalescing.SharedResponse;
+import ma.mundiapolis.apigateway.coalescing.SingleFlight;
+import ma.mundiapolis.apigateway.security.AuthenticatedPrincipal;
+import ma.mundiapolis.apigateway.util.BodyCaptureResponseDecorator;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Coalescence des GET identiques et simultanés (single-flight), à déclarer sur une route :
+ * <pre>
+ * filters:
+ *   - name: SingleFlight
+ *     args:
+ *       window: 20ms
+ *       max-fan-in: 500
+ * </pre>
+ * Tant qu'un appel est en cours pour une même route, chemin, query et rôle, les requêtes suivantes
+ * attendent sa réponse au lieu de repartir vers le service. Une réponse 2xx reste partagée pendant
+ * {@code window} après la fin de l'appel ; au-delà de {@code maxFanIn} requêtes en attente, les nouvelles
+ * sont transmises normalement. Une réponse plus grosse que {@code maxBodySize} n'est pas partagée : les requêtes
+ * en attente sont alors transmises au service.
+ */
+@Component
+public class SingleFlightGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<SingleFlightGatewayFilterFactory.Config> {
+
+    // Juste après le cache de réponses (un hit n'a pas besoin de coalescence) et avant NettyWriteResponseFilter
+    public static final int ORDER = ResponseCacheGatewayFilterFactory.ORDER + 1;
+
+    private static final String COALESCED_HEADER = "X-Coalesced";
+
+    // En-têtes propres à chaque échange, que je ne recopie pas du leader vers les autres requêtes
+    private static final Set<String> PER_EXCHANGE_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.SET_COOKIE.toLowerCase(),
+            "x-correlation-id");
+
+    private final SingleFlight singleFlight;
+
+    public SingleFlightGatewayFilterFactory(SingleFlight singleFlight) {
+        super(Config.class);
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("window", "maxFanIn");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD) {
+                return chain.filter(exchange);
+            }
+
+            FlightKey key = keyOf(exchange);
+            SingleFlight.Participation participation = singleFlight.join(key, config.getMaxFanIn());
+            if (participation == null) {
+                return chain.filter(exchange);
+            }
+            if (participation.leader()) {
+                return lead(exchange, chain, key, participation.flight(), config.getWindow(),
+                        config.getMaxBodySize());
+            }
+
+            // Si le leader échoue ou est annulé, je transmets la requête normalement
+            return participation.flight().result()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> shared.isPresent() ? replay(exchange, shared.get()) : chain.filter(exchange));
+        }, ORDER);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, FlightKey key,
+                            SingleFlight.Flight flight, Duration window, DataSize maxBodySize) {
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(exchange.getResponse(),
+                maxBodySize.toBytes(), (delegate, body) -> {
+                    singleFlight.complete(key, flight,
+                            new SharedResponse(delegate.getStatusCode(), shareableHeaders(delegate), body), window);
+                    return body;
+                });
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> singleFlight.abandon(key, flight));
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(shared.status());
+        response.getHeaders().addAll(shared.headers());
+        response.getHeaders().set(COALESCED_HEADER, "true");
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static HttpHeaders shareableHeaders(ServerHttpResponse response) {
+        HttpHeaders copy = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!PER_EXCHANGE_HEADERS.contains(name.toLowerCase())) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return copy;
+    }
+
+    private static FlightKey keyOf(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        AuthenticatedPrincipal principal = exchange.getAttribute(AuthenticatedPrincipal.EXCHANGE_ATTRIBUTE);
+        return new FlightKey(
+                route != null ? route.getId() : "default",
+                request.getMethod().name(),
+                request.getPath().value(),
+                request.getURI().getRawQuery(),
+                principal != null ? principal.role() : "anonymous",
+                request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    public static class Config {
+
+        // Durée pendant laquelle une réponse 2xx terminée est encore partagée avec les requêtes qui arrivent
+        private Duration window = Duration.ofMillis(20);
+
+        // Nombre maximum de requêtes qui attendent un même appel
+        private int maxFanIn = 500;
+
+        // Au-delà, la réponse du leader est transmise en flux sans être gardée pour les autres
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxFanIn() {
+            return maxFanIn;
+        }
+
+        public void setMaxFanIn(int maxFanIn) {
+            this.maxFanIn = maxFanIn;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+}
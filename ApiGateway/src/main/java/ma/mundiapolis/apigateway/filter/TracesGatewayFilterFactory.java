@@ -0,0 +1,63 @@
+package ma.mundiapolis.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.mundiapolis.apigateway.tracing.TraceQueryService;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Répond directement avec la trace reconstituée (gateway + services), sans la transmettre à un service :
+ * <pre>
+ * - id: traces
+ *   uri: no://op
+ *   predicates:
+ *     - Path=/internal/traces/{traceId}
+ *   filters:
+ *     - Traces
+ * </pre>
+ * L'ID de trace est celui renvoyé dans l'en-tête X-Correlation-ID de chaque réponse.
+ */
+@Component
+public class TracesGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    private final TraceQueryService traceQueryService;
+    private final ObjectMapper objectMapper;
+
+    public TracesGatewayFilterFactory(TraceQueryService traceQueryService, ObjectMapper objectMapper) {
+        this.traceQueryService = traceQueryService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return (exchange, chain) -> {
+            ServerHttpResponse response = exchange.getResponse();
+            String traceId = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("traceId");
+            if (traceId == null || traceId.isBlank()) {
+                response.setStatusCode(HttpStatus.BAD_REQUEST);
+                return response.setComplete();
+            }
+
+            return traceQueryService.find(traceId)
+                    .flatMap(trace -> {
+                        byte[] bytes;
+                        try {
+                            bytes = objectMapper.writeValueAsBytes(trace);
+                        } catch (JsonProcessingException e) {
+                            return Mono.error(e);
+                        }
+                        response.setStatusCode(trace.spans().isEmpty() ? HttpStatus.NOT_FOUND : HttpStatus.OK);
+                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        response.getHeaders().setContentLength(bytes.length);
+                        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+                    });
+        };
+    }
+}
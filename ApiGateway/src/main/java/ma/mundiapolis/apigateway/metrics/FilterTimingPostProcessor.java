@@ -0,0 +1,75 @@
+package ma.mundiapolis.apigateway.metrics;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enveloppe les filtres globaux du package {@code filter} (CorrelationIdFilter, AuthenticationFilter,
+ * RateLimitingFilter, RoleAuthorizationFilter) pour mesurer leur temps de traitement propre, sans toucher
+ * à leur code. L'ordre du filtre d'origine est conservé.
+ */
+@Component
+public class FilterTimingPostProcessor implements BeanPostProcessor {
+
+    private static final String TIMED_PACKAGE = "ma.mundiapolis.apigateway.filter";
+
+    // Résolu au premier appel : GatewayMetrics dépend du MeterRegistry, que je ne veux pas créer trop tôt
+    private final ObjectProvider<GatewayMetrics> metrics;
+
+    public FilterTimingPostProcessor(ObjectProvider<GatewayMetrics> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof GlobalFilter filter && bean instanceof Ordered
+                && bean.getClass().getPackageName().equals(TIMED_PACKAGE)) {
+            return new TimedGlobalFilter(filter, bean.getClass().getSimpleName());
+        }
+        return bean;
+    }
+
+    private final class TimedGlobalFilter implements GlobalFilter, Ordered {
+
+        private final GlobalFilter delegate;
+        private final String name;
+
+        private TimedGlobalFilter(GlobalFilter delegate, String name) {
+            this.delegate = delegate;
+            this.name = name;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            GatewayFilterChain timedChain = next -> {
+                // Le filtre passe la main : la suite n'est plus à son compte
+                if (recorded.compareAndSet(false, true)) {
+                    metrics.getObject().recordFilter(name, true, System.nanoTime() - start);
+                }
+                return chain.filter(next);
+            };
+            return delegate.filter(exchange, timedChain)
+                    .doFinally(signal -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            metrics.getObject().recordFilter(name, false, System.nanoTime() - start);
+                        }
+                    });
+        }
+
+        @Override
+        public int getOrder() {
+            return ((Ordered) delegate).getOrder();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ma.mundiapolis.apigateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métriques RED de la gateway : débit, erreurs et durée par route, temps passé dans chaque filtre et temps
+ * d'attente du service en aval. Les timers publient p50/p99/p999, calculés dans la gateway par les
+ * histogrammes HdrHistogram de Micrometer.
+ */
+@Component
+public class GatewayMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    // Fenêtre glissante des percentiles : ils reflètent les 2 dernières minutes, pas toute la vie du process
+    private static final Duration PERCENTILE_WINDOW = Duration.ofMinutes(2);
+
+    private final MeterRegistry registry;
+
+    public GatewayMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Requête complète, de l'entrée dans la gateway à la fin de la réponse.
+     */
+    public void recordRequest(String routeId, String method, String status, String outcome, long nanos) {
+        timer("gateway.requests", "Durée totale des requêtes traitées par la gateway",
+                "route", routeId, "method", method, "status", status, "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Attente du service en aval, de l'envoi de la requête à la réception des en-têtes de réponse.
+     */
+    public void recordUpstream(String routeId, String outcome, long nanos) {
+        timer("gateway.upstream", "Temps d'attente du service en aval",
+                "route", routeId, "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Part de la requête passée dans la gateway elle-même (durée totale moins l'attente du service).
+     */
+    public void recordOverhead(String routeId, long nanos) {
+        timer("gateway.overhead", "Temps passé dans la gateway, hors attente du service",
+                "route", routeId)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Traitement propre d'un filtre, jusqu'à ce qu'il passe la main à la suite de la chaîne
+     * (ou jusqu'à sa réponse s'il la court-circuite : 401, 403, 429...).
+     */
+    public void recordFilter(String filter, boolean forwarded, long nanos) {
+        timer("gateway.filter", "Temps de traitement propre à chaque filtre",
+                "filter", filter, "result", forwarded ? "forwarded" : "short-circuited")
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        // Micrometer retrouve le timer existant à partir du nom et des tags, sans le recréer
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(PERCENTILES)
+                .distributionStatisticExpiry(PERCENTILE_WINDOW)
+                .register(registry);
+    }
+}
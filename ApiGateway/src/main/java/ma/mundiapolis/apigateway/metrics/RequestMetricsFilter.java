@@ -0,0 +1,66 @@
+package ma.mundiapolis.apigateway.metrics;
+
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Mesure chaque requête routée, de l'entrée dans le premier filtre jusqu'à la fin de la réponse.
+ */
+@Component
+public class RequestMetricsFilter implements GlobalFilter, Ordered {
+
+    private final GatewayMetrics metrics;
+
+    public RequestMetricsFilter(GatewayMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, signal, System.nanoTime() - start));
+    }
+
+    private void record(ServerWebExchange exchange, SignalType signal, long nanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "none";
+
+        String status;
+        String outcome;
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.ON_ERROR) {
+            // L'erreur sera transformée en 500 par le gestionnaire d'erreurs, après ce filtre
+            status = "500";
+            outcome = Outcome.SERVER_ERROR.name();
+        } else if (signal == SignalType.CANCEL) {
+            status = statusCode != null ? String.valueOf(statusCode.value()) : "UNKNOWN";
+            outcome = "CANCELLED";
+        } else {
+            int code = statusCode != null ? statusCode.value() : 200;
+            status = String.valueOf(code);
+            outcome = Outcome.forStatus(code).name();
+        }
+        metrics.recordRequest(routeId, exchange.getRequest().getMethod().name(), status, outcome, nanos);
+
+        Long upstream = exchange.getAttribute(UpstreamTimingFilter.UPSTREAM_NANOS_ATTRIBUTE);
+        if (upstream != null) {
+            metrics.recordOverhead(routeId, Math.max(0, nanos - upstream));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // Avant CorrelationIdFilter (-200) : la mesure couvre tous les filtres de la gateway
+        return -300;
+    }
+}
@@ -0,0 +1,53 @@
+package ma.mundiapolis.apigateway.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Mesure l'attente du service en aval : placé juste après la résolution de l'instance par le load balancer,
+ * il ne reste après lui que l'appel HTTP (NettyRoutingFilter), qui se termine à la réception des en-têtes.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    public static final String UPSTREAM_NANOS_ATTRIBUTE = UpstreamTimingFilter.class.getName() + ".nanos";
+
+    private final GatewayMetrics metrics;
+
+    public UpstreamTimingFilter(GatewayMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    long nanos = System.nanoTime() - start;
+                    exchange.getAttributes().put(UPSTREAM_NANOS_ATTRIBUTE, nanos);
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    metrics.recordUpstream(route != null ? route.getId() : "none", outcomeOf(signal), nanos);
+                });
+    }
+
+    private static String outcomeOf(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "SUCCESS";
+            case CANCEL -> "CANCELLED";
+            default -> "ERROR";
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
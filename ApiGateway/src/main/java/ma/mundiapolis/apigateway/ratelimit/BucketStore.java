@@ -0,0 +1,13 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import io.github.bucket4j.ConsumptionProbe;
+
+/**
+ * Stockage des buckets Bucket4j par clé (username ou IP).
+ */
+public interface BucketStore {
+
+    ConsumptionProbe tryConsume(String key, long tokens);
+
+    long size();
+}
@@ -0,0 +1,72 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.grid.hazelcast.HazelcastProxyManager;
+
+/**
+ * Buckets partagés entre les replicas via une IMap Hazelcast.
+ * Avec max-unsynchronized-tokens > 0, chaque replica consomme localement un lot de jetons et ne se synchronise
+ * avec la grille qu'au bout de ce lot (ou du timeout) : le chemin chaud ne fait pas d'aller-retour réseau
+ * à chaque requête, au prix d'un dépassement borné par (replicas x lot).
+ */
+public class ClusterBucketStore implements BucketStore {
+
+    private final IMap<String, byte[]> map;
+    private final HazelcastProxyManager<String> proxyManager;
+    private final BucketConfiguration configuration;
+    private final RateLimitProperties.Cluster cluster;
+
+    // Je garde les proxies localement : c'est eux qui portent l'état de synchronisation différée
+    private final Cache<String, BucketProxy> proxies;
+
+    public ClusterBucketStore(IMap<String, byte[]> map, RateLimitProperties properties, RateLimitMetrics metrics) {
+        this.map = map;
+        this.proxyManager = new HazelcastProxyManager<>(map);
+        this.cluster = properties.getCluster();
+        this.configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(properties.getCapacity(),
+                        Refill.greedy(properties.getCapacity(), properties.getRefillPeriod())))
+                .build();
+        this.proxies = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+
+        // Les évictions côté grille sont comptées par le membre propriétaire de l'entrée
+        map.addLocalEntryListener((EntryEvictedListener<String, byte[]>) event -> metrics.bucketEvicted());
+        map.addLocalEntryListener((EntryExpiredListener<String, byte[]>) event -> metrics.bucketEvicted());
+        metrics.registerBucketCount(this::size);
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, long tokens) {
+        return proxies.get(key, this::createProxy).tryConsumeAndReturnRemaining(tokens);
+    }
+
+    @Override
+    public long size() {
+        // Entrées possédées par ce membre : la somme sur les replicas donne le total du cluster
+        return map.getLocalMapStats().getOwnedEntryCount();
+    }
+
+    private BucketProxy createProxy(String key) {
+        RemoteBucketBuilder<String> builder = proxyManager.builder();
+        if (cluster.getMaxUnsynchronizedTokens() > 0) {
+            builder = builder.withOptimization(Optimizations.delaying(new DelayParameters(
+                    cluster.getMaxUnsynchronizedTokens(), cluster.getMaxUnsynchronizedTimeout())));
+        }
+        return builder.build(key, configuration);
+    }
+}
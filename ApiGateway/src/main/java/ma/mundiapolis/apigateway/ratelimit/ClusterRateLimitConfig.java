@@ -0,0 +1,67 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import io.github.bucket4j.grid.hazelcast.HazelcastProxyManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Mode cluster : chaque gateway démarre un membre Hazelcast embarqué et les buckets vivent dans une IMap
+ * partagée. La limite est donc globale (20 req/min pour tout le cluster) quelle que soit la replica atteinte.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "mode", havingValue = "cluster")
+public class ClusterRateLimitConfig {
+
+    // Identifiant de base des sérialiseurs Bucket4j (doit être identique sur tous les membres)
+    private static final int BUCKET4J_SERIALIZER_TYPE_ID_BASE = 10_000;
+
+    @Bean(destroyMethod = "shutdown")
+    public HazelcastInstance rateLimitHazelcastInstance(RateLimitProperties properties) {
+        RateLimitProperties.Cluster cluster = properties.getCluster();
+
+        Config config = new Config();
+        config.setClusterName(cluster.getClusterName());
+        config.setInstanceName(cluster.getClusterName() + "-" + System.identityHashCode(config));
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.setProperty("hazelcast.logging.type", "slf4j");
+
+        config.getNetworkConfig().setPort(cluster.getPort()).setPortAutoIncrement(true);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getAutoDetectionConfig().setEnabled(false);
+        if (cluster.getMembers().isEmpty()) {
+            join.getMulticastConfig().setEnabled(true);
+        } else {
+            join.getMulticastConfig().setEnabled(false);
+            join.getTcpIpConfig().setEnabled(true).setMembers(cluster.getMembers());
+        }
+
+        // Même politique qu'en local : taille bornée et éviction des buckets inactifs
+        MapConfig mapConfig = new MapConfig(cluster.getMapName())
+                .setMaxIdleSeconds((int) properties.getIdleExpiry().toSeconds())
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(EvictionPolicy.LRU)
+                        .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                        .setSize((int) Math.min(Integer.MAX_VALUE, properties.getMaxBuckets())));
+        config.addMapConfig(mapConfig);
+
+        HazelcastProxyManager.addCustomSerializers(config.getSerializationConfig(), BUCKET4J_SERIALIZER_TYPE_ID_BASE);
+        return Hazelcast.newHazelcastInstance(config);
+    }
+
+    @Bean
+    public ClusterBucketStore clusterBucketStore(HazelcastInstance rateLimitHazelcastInstance,
+                                                 RateLimitProperties properties,
+                                                 RateLimitMetrics metrics) {
+        return new ClusterBucketStore(
+                rateLimitHazelcastInstance.getMap(properties.getCluster().getMapName()), properties, metrics);
+    }
+}
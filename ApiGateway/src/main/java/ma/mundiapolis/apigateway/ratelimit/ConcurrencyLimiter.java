@@ -0,0 +1,65 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limite le nombre de requêtes simultanées par utilisateur (ou IP).
+ * <p>
+ * Une clé n'est présente que tant qu'elle a des requêtes en cours : son compteur est retiré quand il
+ * revient à 0, jamais par expiration. Un compteur évincé pendant une longue requête repartirait de 0
+ * et laisserait passer plus que la limite.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private final int maxConcurrent;
+    private final Duration retryAfter;
+    private final Map<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(RateLimitProperties properties) {
+        this.maxConcurrent = properties.getMaxConcurrentPerUser();
+        this.retryAfter = properties.getConcurrencyRetryAfter();
+    }
+
+    /**
+     * Réserve une place pour la clé, à rendre avec {@link #release(String)}. Faux si la limite est atteinte.
+     */
+    public boolean tryAcquire(String key) {
+        if (maxConcurrent <= 0) {
+            return true;
+        }
+        boolean[] acquired = new boolean[1];
+        inFlight.compute(key, (k, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxConcurrent) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    public void release(String key) {
+        if (maxConcurrent <= 0) {
+            return;
+        }
+        inFlight.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Délai conseillé au client refusé : une place se libère dès qu'une de ses requêtes se termine.
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+
+    // Clés ayant au moins une requête en cours
+    int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,56 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buckets en mémoire, bornés en nombre et évincés après inactivité.
+ * Un bucket inactif depuis plus d'une période de recharge est de toute façon plein : l'évincer ne change rien
+ * pour l'utilisateur, ça évite juste qu'un scan depuis beaucoup d'IP fasse grossir le heap sans limite.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "mode", havingValue = "local", matchIfMissing = true)
+public class LocalBucketStore implements BucketStore {
+
+    private final RateLimitProperties properties;
+    private final Cache<String, Bucket> buckets;
+
+    public LocalBucketStore(RateLimitProperties properties, RateLimitMetrics metrics) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .removalListener((String key, Bucket bucket, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        metrics.bucketEvicted();
+                    }
+                })
+                .build();
+        metrics.registerBucketCount(this::size);
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, long tokens) {
+        return buckets.get(key, k -> createNewBucket()).tryConsumeAndReturnRemaining(tokens);
+    }
+
+    @Override
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    private Bucket createNewBucket() {
+        Bandwidth limit = Bandwidth.classic(properties.getCapacity(),
+                Refill.greedy(properties.getCapacity(), properties.getRefillPeriod()));
+        return Bucket.builder()
+                .addLimit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Métriques du rate limiting : nombre de buckets, évictions et rejets (par motif).
+ */
+@Component
+public class RateLimitMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter evictions;
+    private final Counter rateRejections;
+    private final Counter concurrencyRejections;
+
+    public RateLimitMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.evictions = Counter.builder("gateway.ratelimit.evictions")
+                .description("Buckets évincés (taille max ou inactivité)")
+                .register(registry);
+        this.rateRejections = Counter.builder("gateway.ratelimit.rejections")
+                .tag("reason", "rate")
+                .register(registry);
+        this.concurrencyRejections = Counter.builder("gateway.ratelimit.rejections")
+                .tag("reason", "concurrency")
+                .register(registry);
+    }
+
+    public void registerBucketCount(LongSupplier size) {
+        Gauge.builder("gateway.ratelimit.buckets", size, s -> (double) s.getAsLong())
+                .description("Buckets actuellement en mémoire")
+                .register(registry);
+    }
+
+    public void bucketEvicted() {
+        evictions.increment();
+    }
+
+    public void rateRejected() {
+        rateRejections.increment();
+    }
+
+    public void concurrencyRejected() {
+        concurrencyRejections.increment();
+    }
+}
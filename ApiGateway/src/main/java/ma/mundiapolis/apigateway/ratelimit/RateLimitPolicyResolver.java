@@ -0,0 +1,46 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Calcule le coût en jetons d'une requête à partir des policies configurées.
+ * Les patterns sont compilés une fois au démarrage.
+ */
+@Component
+public class RateLimitPolicyResolver {
+
+    private final List<CompiledPolicy> policies;
+
+    public RateLimitPolicyResolver(RateLimitProperties properties) {
+        PathPatternParser parser = new PathPatternParser();
+        this.policies = properties.getPolicies().stream()
+                .map(p -> new CompiledPolicy(
+                        parser.parse(p.getPath()),
+                        p.getMethods().stream().map(HttpMethod::valueOf).collect(Collectors.toUnmodifiableSet()),
+                        p.getCost()))
+                .toList();
+    }
+
+    public long costOf(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (CompiledPolicy policy : policies) {
+            if ((policy.methods().isEmpty() || policy.methods().contains(request.getMethod()))
+                    && policy.pattern().matches(path)) {
+                return policy.cost();
+            }
+        }
+        return 1;
+    }
+
+    private record CompiledPolicy(PathPattern pattern, Set<HttpMethod> methods, long cost) {
+    }
+}
@@ -0,0 +1,221 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration du rate limiting (section gateway.rate-limit de application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    // local : buckets propres à chaque instance ; cluster : buckets partagés entre les replicas de la gateway
+    private Mode mode = Mode.LOCAL;
+
+    // Jetons par utilisateur (ou IP) et par période de recharge
+    private long capacity = 20;
+    private Duration refillPeriod = Duration.ofMinutes(1);
+
+    // Taille max du store de buckets et durée d'inactivité avant éviction
+    private long maxBuckets = 100_000;
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    // Requêtes simultanées max par utilisateur (0 = pas de limite)
+    private int maxConcurrentPerUser = 8;
+
+    // Retry-After des refus pour requêtes simultanées
+    private Duration concurrencyRetryAfter = Duration.ofSeconds(1);
+
+    // Coût en jetons par route, la première règle qui correspond s'applique (coût 1 sinon)
+    private List<RoutePolicy> policies = new ArrayList<>();
+
+    private Cluster cluster = new Cluster();
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public Duration getRefillPeriod() {
+        return refillPeriod;
+    }
+
+    public void setRefillPeriod(Duration refillPeriod) {
+        this.refillPeriod = refillPeriod;
+    }
+
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Duration getIdleExpiry() {
+        return idleExpiry;
+    }
+
+    public void setIdleExpiry(Duration idleExpiry) {
+        this.idleExpiry = idleExpiry;
+    }
+
+    public int getMaxConcurrentPerUser() {
+        return maxConcurrentPerUser;
+    }
+
+    public void setMaxConcurrentPerUser(int maxConcurrentPerUser) {
+        this.maxConcurrentPerUser = maxConcurrentPerUser;
+    }
+
+    public Duration getConcurrencyRetryAfter() {
+        return concurrencyRetryAfter;
+    }
+
+    public void setConcurrencyRetryAfter(Duration concurrencyRetryAfter) {
+        this.concurrencyRetryAfter = concurrencyRetryAfter;
+    }
+
+    public List<RoutePolicy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<RoutePolicy> policies) {
+        this.policies = policies;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(Cluster cluster) {
+        this.cluster = cluster;
+    }
+
+    public enum Mode {
+        LOCAL,
+        CLUSTER
+    }
+
+    public static class RoutePolicy {
+
+        // Pattern Spring (ex: /api/books/{id}, /api/books/**)
+        private String path;
+
+        // Méthodes HTTP concernées (toutes si vide)
+        private List<String> methods = new ArrayList<>();
+
+        // 0 : requêtes non décomptées du quota
+        private long cost = 1;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+
+        public void setCost(long cost) {
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * Grille Hazelcast embarquée utilisée en mode cluster.
+     */
+    public static class Cluster {
+
+        private String clusterName = "api-gateway-ratelimit";
+
+        private String mapName = "gateway-rate-limit-buckets";
+
+        // Port Hazelcast (incrémenté automatiquement si déjà pris)
+        private int port = 5701;
+
+        // Membres à contacter (host ou host:port). Vide = découverte multicast.
+        private List<String> members = new ArrayList<>();
+
+        // Jetons consommés localement avant synchronisation avec la grille (0 = synchro à chaque requête)
+        private long maxUnsynchronizedTokens = 5;
+
+        // Délai max avant synchronisation des jetons consommés localement
+        private Duration maxUnsynchronizedTimeout = Duration.ofMillis(200);
+
+        public String getClusterName() {
+            return clusterName;
+        }
+
+        public void setClusterName(String clusterName) {
+            this.clusterName = clusterName;
+        }
+
+        public String getMapName() {
+            return mapName;
+        }
+
+        public void setMapName(String mapName) {
+            this.mapName = mapName;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public List<String> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<String> members) {
+            this.members = members;
+        }
+
+        public long getMaxUnsynchronizedTokens() {
+            return maxUnsynchronizedTokens;
+        }
+
+        public void setMaxUnsynchronizedTokens(long maxUnsynchronizedTokens) {
+            this.maxUnsynchronizedTokens = maxUnsynchronizedTokens;
+        }
+
+        public Duration getMaxUnsynchronizedTimeout() {
+            return maxUnsynchronizedTimeout;
+        }
+
+        public void setMaxUnsynchronizedTimeout(Duration maxUnsynchronizedTimeout) {
+            this.maxUnsynchronizedTimeout = maxUnsynchronizedTimeout;
+        }
+    }
+}
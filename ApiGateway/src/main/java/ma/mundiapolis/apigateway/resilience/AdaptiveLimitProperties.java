@@ -0,0 +1,164 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration du limiteur de concurrence adaptatif (section gateway.adaptive-limit).
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.adaptive-limit")
+public class AdaptiveLimitProperties {
+
+    private boolean enabled = true;
+
+    // Bornes de la limite de requêtes simultanées vers un service (par route)
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 500;
+
+    // Poids de la nouvelle valeur à chaque ajustement (0..1)
+    private double smoothing = 0.5;
+
+    // Nombre de réponses par fenêtre de mesure
+    private int windowSize = 20;
+
+    // Nombre de fenêtres entre deux réinitialisations de la latence à vide
+    private int probeInterval = 200;
+
+    // Part de la limite accessible à chaque voie : LOW est rejetée dès que lowShare est atteint
+    private double lowShare = 0.5;
+    private double normalShare = 0.8;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    // Priorité par route, la première règle qui correspond s'applique (NORMAL sinon, CRITICAL pour les routes admin)
+    private List<PriorityRule> priorities = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getProbeInterval() {
+        return probeInterval;
+    }
+
+    public void setProbeInterval(int probeInterval) {
+        this.probeInterval = probeInterval;
+    }
+
+    public double getLowShare() {
+        return lowShare;
+    }
+
+    public void setLowShare(double lowShare) {
+        this.lowShare = lowShare;
+    }
+
+    public double getNormalShare() {
+        return normalShare;
+    }
+
+    public void setNormalShare(double normalShare) {
+        this.normalShare = normalShare;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public List<PriorityRule> getPriorities() {
+        return priorities;
+    }
+
+    public void setPriorities(List<PriorityRule> priorities) {
+        this.priorities = priorities;
+    }
+
+    public static class PriorityRule {
+
+        // Pattern Spring (ex: /api/loans/{id}/return, /api/books/**)
+        private String path;
+
+        // Méthodes HTTP concernées (toutes si vide)
+        private List<String> methods = new ArrayList<>();
+
+        private Priority priority = Priority.NORMAL;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public void setPriority(Priority priority) {
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Un limiteur adaptatif par route, créé au premier appel, avec ses métriques :
+ * gateway.adaptive-limit.limit, gateway.adaptive-limit.inflight et gateway.adaptive-limit.shed{priority}.
+ */
+@Component
+public class AdaptiveLimiters {
+
+    private final AdaptiveLimitProperties properties;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, VegasLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveLimiters(AdaptiveLimitProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public VegasLimiter forRoute(String routeId) {
+        return limiters.computeIfAbsent(routeId, this::create);
+    }
+
+    public void shed(String routeId, Priority priority) {
+        registry.counter("gateway.adaptive-limit.shed", "route", routeId, "priority", priority.name()).increment();
+    }
+
+    private VegasLimiter create(String routeId) {
+        VegasLimiter limiter = new VegasLimiter(properties);
+        Gauge.builder("gateway.adaptive-limit.limit", limiter, VegasLimiter::limit)
+                .description("Limite actuelle de requêtes simultanées vers le service")
+                .tag("route", routeId)
+                .register(registry);
+        Gauge.builder("gateway.adaptive-limit.inflight", limiter, VegasLimiter::inflight)
+                .description("Requêtes en cours vers le service")
+                .tag("route", routeId)
+                .register(registry);
+        return limiter;
+    }
+}
@@ -0,0 +1,25 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuration des clients load-balancés (routes lb:// et WebClient @LoadBalanced) : liste Eureka
+ * mise en cache, puis filtrée par les circuit breakers à chaque choix d'instance.
+ * <p>
+ * Volontairement sans @Configuration : Spring Cloud LoadBalancer l'instancie dans le contexte de chaque
+ * service, elle ne doit pas être chargée dans le contexte principal.
+ */
+public class CircuitBreakerLoadBalancerConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier circuitBreakerServiceInstanceListSupplier(
+            ConfigurableApplicationContext context, InstanceCircuitBreakers breakers) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withCaching()
+                .with((ctx, delegate) -> new CircuitBreakerServiceInstanceListSupplier(delegate, breakers))
+                .build(context);
+    }
+}
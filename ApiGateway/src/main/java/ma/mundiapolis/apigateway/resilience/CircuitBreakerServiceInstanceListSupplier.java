@@ -0,0 +1,32 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Retire de la liste Eureka les instances dont le circuit est ouvert, avant le round-robin.
+ * Si toutes le sont, la liste est vide et la gateway répond 503 tout de suite.
+ */
+public class CircuitBreakerServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final InstanceCircuitBreakers breakers;
+
+    public CircuitBreakerServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+                                                     InstanceCircuitBreakers breakers) {
+        super(delegate);
+        this.breakers = breakers;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return getDelegate().get().map(this::available);
+    }
+
+    private List<ServiceInstance> available(List<ServiceInstance> instances) {
+        return instances.stream().filter(breakers::isAvailable).toList();
+    }
+}
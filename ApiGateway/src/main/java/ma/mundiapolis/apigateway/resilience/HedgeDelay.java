@@ -0,0 +1,88 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Délai avant d'envoyer une requête de couverture, dérivé du percentile de latence d'une route
+ * (p95 par défaut) : seules les ~5 % de requêtes les plus lentes sont doublées.
+ * <p>
+ * J'enregistre les latences dans un histogramme à buckets exponentiels (+15 % par bucket, de 100 µs
+ * à ~7 s) : un incrément atomique par réponse, sans verrou. Toutes les refreshInterval, le percentile
+ * est recalculé sur la période écoulée puis l'histogramme repart à zéro. Tant qu'il y a trop peu
+ * d'échantillons, je garde le délai précédent (maxDelay au démarrage).
+ */
+public class HedgeDelay {
+
+    private static final double BASE_MICROS = 100;
+    private static final double GROWTH = 1.15;
+    private static final int BUCKETS = 80;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+    private final long refreshNanos;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong nextRefresh;
+    private volatile long delayNanos;
+
+    public HedgeDelay(UpstreamResilienceProperties.Hedge properties) {
+        this.percentile = properties.getPercentile();
+        this.minDelayNanos = properties.getMinDelay().toNanos();
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+        this.minSamples = properties.getMinSamples();
+        this.refreshNanos = properties.getRefreshInterval().toNanos();
+        this.nextRefresh = new AtomicLong(System.nanoTime() + refreshNanos);
+        this.delayNanos = maxDelayNanos;
+    }
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+    }
+
+    public Duration current() {
+        long now = System.nanoTime();
+        long next = nextRefresh.get();
+        if (now - next >= 0 && nextRefresh.compareAndSet(next, now + refreshNanos)) {
+            refresh();
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private void refresh() {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.getAndSet(i, 0);
+            total += snapshot[i];
+        }
+        if (total < minSamples) {
+            return;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, upperBoundNanos(i)));
+                return;
+            }
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        double micros = nanos / 1_000.0;
+        if (micros <= BASE_MICROS) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log(micros / BASE_MICROS) / Math.log(GROWTH));
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long upperBoundNanos(int bucket) {
+        return (long) (BASE_MICROS * Math.pow(GROWTH, bucket) * 1_000);
+    }
+}
@@ -0,0 +1,111 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Un circuit breaker par instance de service (host:port), et non par route : une instance malade
+ * est écartée du load balancing pendant que les autres continuent à servir.
+ * <p>
+ * Les résultats sont enregistrés par la gateway après chaque appel (5xx, erreur réseau et timeout
+ * comptent comme échecs). Le choix des instances passe par {@link CircuitBreakerServiceInstanceListSupplier}
+ * et chaque appel est réservé par {@link #tryAcquire} : en demi-ouvert, seuls quelques appels d'essai passent.
+ * État exposé dans gateway.resilience.breaker.state{service,instance} (0 fermé, 1 ouvert, 2 demi-ouvert).
+ */
+@Component
+public class InstanceCircuitBreakers {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceCircuitBreakers.class);
+
+    private final CircuitBreakerRegistry registry;
+    private final MeterRegistry meterRegistry;
+
+    public InstanceCircuitBreakers(UpstreamResilienceProperties properties, MeterRegistry meterRegistry) {
+        UpstreamResilienceProperties.CircuitBreaker cb = properties.getCircuitBreaker();
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(cb.getSlidingWindowSize())
+                .minimumNumberOfCalls(cb.getMinimumNumberOfCalls())
+                .failureRateThreshold(cb.getFailureRateThreshold())
+                .slowCallRateThreshold(cb.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(cb.getSlowCallDuration())
+                .waitDurationInOpenState(cb.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(cb.getPermittedCallsInHalfOpenState())
+                // Sans ce passage automatique, une instance écartée du choix ne serait jamais réessayée
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+        this.registry = CircuitBreakerRegistry.of(config);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Vrai si l'instance peut recevoir des requêtes (circuit fermé ou demi-ouvert).
+     */
+    public boolean isAvailable(ServiceInstance instance) {
+        CircuitBreaker.State state = breaker(instance).getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    /**
+     * Réserve un appel vers l'instance : toujours accordé circuit fermé, limité aux appels d'essai en
+     * demi-ouvert. Un appel accordé se termine par {@link #onSuccess}, {@link #onFailure} ou {@link #release}.
+     */
+    public boolean tryAcquire(ServiceInstance instance) {
+        return breaker(instance).tryAcquirePermission();
+    }
+
+    /**
+     * Rend un appel accordé mais abandonné avant sa réponse (hedge perdant, client parti).
+     */
+    public void release(ServiceInstance instance) {
+        breaker(instance).releasePermission();
+    }
+
+    public void onSuccess(ServiceInstance instance, long nanos) {
+        breaker(instance).onSuccess(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void onFailure(ServiceInstance instance, long nanos, Throwable cause) {
+        breaker(instance).onError(nanos, TimeUnit.NANOSECONDS, cause);
+    }
+
+    private CircuitBreaker breaker(ServiceInstance instance) {
+        String name = keyOf(instance);
+        return registry.find(name).orElseGet(() -> create(name, instance));
+    }
+
+    private synchronized CircuitBreaker create(String name, ServiceInstance instance) {
+        return registry.find(name).orElseGet(() -> {
+            CircuitBreaker breaker = registry.circuitBreaker(name);
+            breaker.getEventPublisher().onStateTransition(event ->
+                    log.warn("Circuit breaker {} : {}", name, event.getStateTransition()));
+            Gauge.builder("gateway.resilience.breaker.state", breaker, InstanceCircuitBreakers::stateValue)
+                    .description("État du circuit breaker de l'instance (0 fermé, 1 ouvert, 2 demi-ouvert)")
+                    .tag("service", instance.getServiceId().toLowerCase())
+                    .tag("instance", instance.getHost() + ":" + instance.getPort())
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    private static double stateValue(CircuitBreaker breaker) {
+        return switch (breaker.getState()) {
+            case CLOSED, DISABLED, METRICS_ONLY -> 0;
+            case OPEN, FORCED_OPEN -> 1;
+            case HALF_OPEN -> 2;
+        };
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getServiceId().toLowerCase() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+}
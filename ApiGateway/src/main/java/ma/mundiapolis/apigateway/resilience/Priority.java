@@ -0,0 +1,11 @@
+package ma.mundiapolis.apigateway.resilience;
+
+/**
+ * Voie de priorité d'une requête face au limiteur adaptatif : en cas de saturation, LOW est rejetée en
+ * premier, CRITICAL en dernier.
+ */
+public enum Priority {
+    LOW,
+    NORMAL,
+    CRITICAL
+}
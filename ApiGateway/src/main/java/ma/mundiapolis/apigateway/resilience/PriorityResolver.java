@@ -0,0 +1,53 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import ma.mundiapolis.apigateway.filter.RouteValidator;
+import ma.mundiapolis.apigateway.security.RouteAccess;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Détermine la voie de priorité d'une requête. Les écritures admin (déjà classées par RouteValidator) sont
+ * toujours CRITICAL ; les autres suivent les règles gateway.adaptive-limit.priorities, compilées au démarrage.
+ */
+@Component
+public class PriorityResolver {
+
+    private final RouteValidator routeValidator;
+    private final List<CompiledRule> rules;
+
+    public PriorityResolver(RouteValidator routeValidator, AdaptiveLimitProperties properties) {
+        this.routeValidator = routeValidator;
+        PathPatternParser parser = new PathPatternParser();
+        this.rules = properties.getPriorities().stream()
+                .map(r -> new CompiledRule(
+                        parser.parse(r.getPath()),
+                        r.getMethods().stream().map(HttpMethod::valueOf).collect(Collectors.toUnmodifiableSet()),
+                        r.getPriority()))
+                .toList();
+    }
+
+    public Priority priorityOf(ServerWebExchange exchange) {
+        if (routeValidator.classify(exchange) == RouteAccess.ADMIN) {
+            return Priority.CRITICAL;
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        HttpMethod method = exchange.getRequest().getMethod();
+        for (CompiledRule rule : rules) {
+            if ((rule.methods().isEmpty() || rule.methods().contains(method)) && rule.pattern().matches(path)) {
+                return rule.priority();
+            }
+        }
+        return Priority.NORMAL;
+    }
+
+    private record CompiledRule(PathPattern pattern, Set<HttpMethod> methods, Priority priority) {
+    }
+}
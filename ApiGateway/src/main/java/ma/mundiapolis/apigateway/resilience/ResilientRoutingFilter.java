@@ -0,0 +1,408 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Routage résilient des routes lb://, à la place de NettyRoutingFilter pour les méthodes idempotentes :
+ * <ul>
+ *   <li>retry vers une autre instance après une erreur réseau, un timeout ou un 502/503/504, dans la
+ *   limite du budget de la route ;</li>
+ *   <li>pour les GET, requête de couverture (hedge) vers une autre instance si la réponse tarde au-delà
+ *   du p95 de la route : la première réponse gagne, l'autre appel est annulé ;</li>
+ *   <li>chaque appel réservé auprès du circuit breaker de l'instance (en demi-ouvert, seuls les appels
+ *   d'essai passent, les autres vont vers une autre instance) et son résultat enregistré.</li>
+ * </ul>
+ * POST/PUT/DELETE ne sont jamais rejoués (un emprunt ou un retour ne doit pas être pris deux fois) :
+ * ils passent par NettyRoutingFilter et seul leur résultat alimente le circuit breaker.
+ * <p>
+ * Les réponses rejouables jusqu'à gateway.resilience.max-buffered-size (d'après leur Content-Length) sont
+ * lues en entier avant d'être renvoyées au client : c'est ce qui permet de changer d'instance tant que rien
+ * n'a été écrit. Les plus grandes, ou sans Content-Length, sont transmises en flux dès leurs en-têtes :
+ * retry et hedge ne couvrent alors que l'attente des en-têtes.
+ */
+@Component
+public class ResilientRoutingFilter implements GlobalFilter, Ordered {
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+
+    private final HttpClient httpClient;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final LoadBalancerClientFactory clientFactory;
+    private final InstanceCircuitBreakers breakers;
+    private final UpstreamResilience resilience;
+    private final UpstreamResilienceProperties properties;
+
+    public ResilientRoutingFilter(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                  LoadBalancerClientFactory clientFactory, InstanceCircuitBreakers breakers,
+                                  UpstreamResilience resilience, UpstreamResilienceProperties properties) {
+        this.httpClient = httpClient;
+        this.headersFilters = headersFilters;
+        this.clientFactory = clientFactory;
+        this.breakers = breakers;
+        this.resilience = resilience;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (!properties.isEnabled() || ServerWebExchangeUtils.isAlreadyRouted(exchange) || route == null
+                || url == null || !"lb".equals(route.getUri().getScheme()) || chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = chosen.getServer();
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (properties.getStreamingRoutes().contains(route.getId())) {
+            // Un téléchargement long passerait pour un appel lent et ferait ouvrir le circuit
+            return chain.filter(exchange);
+        }
+        if (!properties.getIdempotentMethods().contains(method.name())) {
+            return recordOutcome(exchange, chain, instance);
+        }
+
+        Attempts attempts = new Attempts(route.getId(), method, url, instance, requestHeaders(exchange));
+        resilience.budget(route.getId()).deposit();
+        Mono<UpstreamResponse> first = method == HttpMethod.GET && properties.getHedge().isEnabled()
+                ? hedged(attempts)
+                : call(attempts, instance);
+
+        return withRetries(attempts, properties.getRetry().getMaxRetries(), first)
+                .onErrorResume(RetryableStatusException.class, e -> Mono.just(e.response))
+                .onErrorMap(TimeoutException.class,
+                        e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e))
+                .onErrorMap(NotPermittedException.class,
+                        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e))
+                .flatMap(response -> write(exchange, response));
+    }
+
+    private Mono<UpstreamResponse> withRetries(Attempts attempts, int retriesLeft, Mono<UpstreamResponse> attempt) {
+        return attempt.onErrorResume(error -> {
+            if (retriesLeft <= 0) {
+                return Mono.error(error);
+            }
+            // Un appel refusé par le circuit breaker n'est jamais parti : il ne coûte rien au budget
+            if (!(error instanceof NotPermittedException) && !resilience.budget(attempts.routeId).tryWithdraw()) {
+                resilience.retry(attempts.routeId, "budget_exhausted");
+                return Mono.error(error);
+            }
+            resilience.retry(attempts.routeId, "sent");
+            return withRetries(attempts, retriesLeft - 1,
+                    nextInstance(attempts).flatMap(next -> call(attempts, next)));
+        });
+    }
+
+    private Mono<UpstreamResponse> hedged(Attempts attempts) {
+        Duration delay = resilience.hedgeDelay(attempts.routeId).current();
+        AtomicBoolean hedgeSent = new AtomicBoolean();
+        AtomicReference<Throwable> primaryError = new AtomicReference<>();
+        // Si l'appel principal échoue avant le délai, c'est au retry de prendre le relais, pas au hedge
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+
+        Mono<Hedged> primary = call(attempts, attempts.primary)
+                .doOnError(error -> {
+                    primaryError.set(error);
+                    primaryFailed.tryEmitEmpty();
+                })
+                .map(response -> new Hedged(response, false));
+        Mono<Hedged> hedge = Mono.delay(delay)
+                .takeUntilOther(primaryFailed.asMono())
+                .flatMap(tick -> {
+                    if (!resilience.budget(attempts.routeId).tryWithdraw()) {
+                        resilience.hedge(attempts.routeId, "budget_exhausted");
+                        return Mono.empty();
+                    }
+                    hedgeSent.set(true);
+                    resilience.hedge(attempts.routeId, "sent");
+                    return nextInstance(attempts).flatMap(next -> call(attempts, next));
+                })
+                .map(response -> new Hedged(response, true));
+
+        return Mono.firstWithValue(primary, hedge)
+                .doOnNext(winner -> {
+                    if (winner.hedge) {
+                        resilience.hedge(attempts.routeId, "won");
+                    } else if (hedgeSent.get()) {
+                        resilience.hedge(attempts.routeId, "lost");
+                    }
+                })
+                .map(Hedged::response)
+                // Réponse en flux arrivée en même temps que celle du gagnant : sa connexion est fermée
+                .doOnDiscard(Hedged.class, loser -> loser.response.discard())
+                // firstWithValue ne renvoie qu'un NoSuchElementException : je remonte l'erreur de l'appel principal
+                .onErrorMap(error -> primaryError.get() != null ? primaryError.get() : error);
+    }
+
+    private Mono<UpstreamResponse> call(Attempts attempts, ServiceInstance instance) {
+        return Mono.defer(() -> {
+            if (!breakers.tryAcquire(instance)) {
+                attempts.tried.add(instance);
+                return Mono.error(new NotPermittedException(instance));
+            }
+            URI uri = instance == attempts.primary ? attempts.url : reconstruct(attempts.url, instance);
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return httpClient
+                    .headers(headers -> attempts.headers.forEach(headers::set))
+                    .request(io.netty.handler.codec.http.HttpMethod.valueOf(attempts.method.name()))
+                    .uri(uri)
+                    .responseConnection((response, connection) -> read(attempts.method, response, connection))
+                    .single()
+                    .timeout(properties.getAttemptTimeout())
+                    .doOnSuccess(response -> {
+                        recorded.set(true);
+                        long nanos = System.nanoTime() - start;
+                        attempts.tried.add(instance);
+                        if (response.status >= 500) {
+                            breakers.onFailure(instance, nanos, new IllegalStateException("HTTP " + response.status));
+                        } else {
+                            breakers.onSuccess(instance, nanos);
+                            resilience.hedgeDelay(attempts.routeId).record(nanos);
+                        }
+                    })
+                    .doOnError(error -> {
+                        recorded.set(true);
+                        attempts.tried.add(instance);
+                        breakers.onFailure(instance, System.nanoTime() - start, error);
+                    })
+                    // Le perdant d'un hedge est annulé : ni succès ni échec pour son instance, juste l'appel rendu
+                    // (un cancel peut aussi suivre la réponse, l'appel est alors déjà compté)
+                    .doOnCancel(() -> {
+                        if (!recorded.getAndSet(true)) {
+                            breakers.release(instance);
+                        }
+                    })
+                    .flatMap(response -> RETRYABLE_STATUSES.contains(response.status)
+                            ? Mono.error(new RetryableStatusException(response))
+                            : Mono.just(response));
+        });
+    }
+
+    // Corps lu en entier s'il est assez petit, sinon laissé sur la connexion pour être transmis en flux
+    private Mono<UpstreamResponse> read(HttpMethod method, HttpClientResponse response, Connection connection) {
+        HttpHeaders headers = new HttpHeaders();
+        response.responseHeaders().forEach(h -> headers.add(h.getKey(), h.getValue()));
+        int status = response.status().code();
+        long length = headers.getContentLength();
+        if (method == HttpMethod.HEAD || (length >= 0 && length <= properties.getMaxBufferedSize().toBytes())) {
+            return connection.inbound().receive().aggregate().asByteArray()
+                    .defaultIfEmpty(EMPTY)
+                    .map(bytes -> new UpstreamResponse(status, headers, bytes, null));
+        }
+        if (RETRYABLE_STATUSES.contains(status)) {
+            // Page d'erreur trop grande pour être gardée : seul le statut sert, pour le retry ou le client
+            connection.dispose();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return Mono.just(new UpstreamResponse(status, headers, EMPTY, null));
+        }
+        return Mono.just(new UpstreamResponse(status, headers, null, connection));
+    }
+
+    /**
+     * Une autre instance disponible que celles déjà essayées, ou à défaut l'instance d'origine.
+     */
+    private Mono<ServiceInstance> nextInstance(Attempts attempts) {
+        return nextInstance(attempts.primary, attempts.tried);
+    }
+
+    private Mono<ServiceInstance> nextInstance(ServiceInstance primary, Set<ServiceInstance> alreadyTried) {
+        ServiceInstanceListSupplier supplier = clientFactory
+                .getLazyProvider(primary.getServiceId(), ServiceInstanceListSupplier.class)
+                .getIfAvailable();
+        if (supplier == null) {
+            return Mono.just(primary);
+        }
+        return supplier.get().next()
+                .map(instances -> {
+                    List<ServiceInstance> candidates = instances.stream()
+                            .filter(candidate -> alreadyTried.stream().noneMatch(tried -> sameInstance(tried, candidate)))
+                            .filter(candidate -> !sameInstance(candidate, primary))
+                            .toList();
+                    return candidates.isEmpty()
+                            ? primary
+                            : candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+                })
+                .defaultIfEmpty(primary);
+    }
+
+    private Mono<Void> recordOutcome(ServerWebExchange exchange, GatewayFilterChain chain, ServiceInstance instance) {
+        if (breakers.tryAcquire(instance)) {
+            return forward(exchange, chain, instance);
+        }
+        // Instance en demi-ouvert dont les appels d'essai sont partis : rien n'a été envoyé, une autre peut la servir
+        return nextInstance(instance, Set.of(instance)).flatMap(next -> {
+            if (sameInstance(next, instance) || !breakers.tryAcquire(next)) {
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        new NotPermittedException(instance).getMessage()));
+            }
+            URI url = exchange.getRequiredAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, reconstruct(url, next));
+            return forward(exchange, chain, next);
+        });
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, ServiceInstance instance) {
+        long start = System.nanoTime();
+        AtomicBoolean recorded = new AtomicBoolean();
+        return chain.filter(exchange)
+                .doOnSuccess(done -> {
+                    recorded.set(true);
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    long nanos = System.nanoTime() - start;
+                    if (status != null && status.is5xxServerError()) {
+                        breakers.onFailure(instance, nanos, new IllegalStateException("HTTP " + status.value()));
+                    } else {
+                        breakers.onSuccess(instance, nanos);
+                    }
+                })
+                .doOnError(error -> {
+                    recorded.set(true);
+                    breakers.onFailure(instance, System.nanoTime() - start, error);
+                })
+                .doOnCancel(() -> {
+                    if (!recorded.getAndSet(true)) {
+                        breakers.release(instance);
+                    }
+                });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, UpstreamResponse upstream) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters.getIfAvailable(), upstream.headers,
+                exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(filtered);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.setStatusCode(HttpStatusCode.valueOf(upstream.status));
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return response.setComplete();
+        }
+        if (upstream.connection != null) {
+            Connection connection = upstream.connection;
+            return response.writeWith(connection.inbound().receive().asByteArray()
+                            .map(bytes -> response.bufferFactory().wrap(bytes)))
+                    .doFinally(signal -> {
+                        if (signal != SignalType.ON_COMPLETE) {
+                            connection.dispose();
+                        }
+                    });
+        }
+        response.getHeaders().setContentLength(upstream.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(upstream.body)));
+    }
+
+    private HttpHeaders requestHeaders(ServerWebExchange exchange) {
+        HttpHeaders filtered = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange);
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(filtered);
+        // Le Host est celui de l'instance appelée, pas celui de la gateway
+        headers.remove(HttpHeaders.HOST);
+        return headers;
+    }
+
+    private static URI reconstruct(URI url, ServiceInstance instance) {
+        return UriComponentsBuilder.fromUri(url)
+                .scheme(instance.isSecure() ? "https" : "http")
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return a.getHost().equals(b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    @Override
+    public int getOrder() {
+        // Juste avant NettyRoutingFilter, une fois l'instance choisie par le load balancer
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    // body si la réponse a été lue en entier, connection si elle est transmise en flux
+    private record UpstreamResponse(int status, HttpHeaders headers, byte[] body, Connection connection) {
+
+        private void discard() {
+            if (connection != null) {
+                connection.dispose();
+            }
+        }
+    }
+
+    private record Hedged(UpstreamResponse response, boolean hedge) {
+    }
+
+    private static final class Attempts {
+
+        private final String routeId;
+        private final HttpMethod method;
+        private final URI url;
+        private final ServiceInstance primary;
+        private final HttpHeaders headers;
+        private final Set<ServiceInstance> tried = ConcurrentHashMap.newKeySet();
+
+        private Attempts(String routeId, HttpMethod method, URI url, ServiceInstance primary, HttpHeaders headers) {
+            this.routeId = routeId;
+            this.method = method;
+            this.url = url;
+            this.primary = primary;
+            this.headers = headers;
+        }
+    }
+
+    private static final class NotPermittedException extends RuntimeException {
+
+        private NotPermittedException(ServiceInstance instance) {
+            super("Circuit demi-ouvert pour " + instance.getServiceId().toLowerCase() + "/" + instance.getHost() + ":"
+                    + instance.getPort() + " : appels d'essai déjà en cours", null, false, false);
+        }
+    }
+
+    private static final class RetryableStatusException extends RuntimeException {
+
+        private final UpstreamResponse response;
+
+        private RetryableStatusException(UpstreamResponse response) {
+            super("HTTP " + response.status, null, false, false);
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget de retries d'une route (inspiré de Finagle) : chaque requête crédite budgetRatio de retry,
+ * chaque retry ou hedge en consomme un. Quand un service tombe, les retries s'arrêtent d'eux-mêmes
+ * au lieu de multiplier la charge sur lui. En plus, minRetriesPerSecond retries par seconde sont
+ * toujours permis pour que les routes peu sollicitées puissent aussi rejouer.
+ */
+public class RetryBudget {
+
+    // Je compte en millièmes de jeton pour rester sur un AtomicLong
+    private static final long TOKEN = 1_000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final int minPerSecond;
+
+    private final AtomicLong balance = new AtomicLong();
+    private final AtomicLong reserve = new AtomicLong();
+    private volatile long reserveSecond;
+
+    public RetryBudget(UpstreamResilienceProperties.Retry properties) {
+        this.depositPerRequest = Math.round(properties.getBudgetRatio() * TOKEN);
+        this.minPerSecond = properties.getMinRetriesPerSecond();
+        // Plafond : pas de réserve accumulée pendant une période calme puis dépensée d'un coup
+        this.maxBalance = Math.max(TOKEN, 100 * depositPerRequest);
+    }
+
+    public void deposit() {
+        balance.getAndUpdate(b -> Math.min(maxBalance, b + depositPerRequest));
+    }
+
+    public boolean tryWithdraw() {
+        if (tryReserve()) {
+            return true;
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private boolean tryReserve() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        if (second != reserveSecond) {
+            synchronized (this) {
+                if (second != reserveSecond) {
+                    reserve.set(0);
+                    reserveSecond = second;
+                }
+            }
+        }
+        return reserve.incrementAndGet() <= minPerSecond;
+    }
+}
@@ -0,0 +1,43 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * État de résilience par route (budget de retries, délai de hedging) et ses métriques :
+ * gateway.resilience.retries{route,result=sent|budget_exhausted} et
+ * gateway.resilience.hedges{route,result=sent|won|lost|budget_exhausted}.
+ * Le taux de hedges gagnés (won / sent) indique si le délai de couverture est bien réglé.
+ */
+@Component
+public class UpstreamResilience {
+
+    private final UpstreamResilienceProperties properties;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HedgeDelay> delays = new ConcurrentHashMap<>();
+
+    public UpstreamResilience(UpstreamResilienceProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public RetryBudget budget(String routeId) {
+        return budgets.computeIfAbsent(routeId, id -> new RetryBudget(properties.getRetry()));
+    }
+
+    public HedgeDelay hedgeDelay(String routeId) {
+        return delays.computeIfAbsent(routeId, id -> new HedgeDelay(properties.getHedge()));
+    }
+
+    public void retry(String routeId, String result) {
+        registry.counter("gateway.resilience.retries", "route", routeId, "result", result).increment();
+    }
+
+    public void hedge(String routeId, String result) {
+        registry.counter("gateway.resilience.hedges", "route", routeId, "result", result).increment();
+    }
+}
@@ -0,0 +1,274 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration de la résilience des appels lb:// (section gateway.resilience) :
+ * circuit breaker par instance, retries sous budget et requêtes de couverture (hedging).
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.resilience")
+public class UpstreamResilienceProperties {
+
+    private boolean enabled = true;
+
+    // Timeout de chaque tentative (la requête d'origine comme ses retries et hedges)
+    private Duration attemptTimeout = Duration.ofSeconds(5);
+
+    // Méthodes rejouables : un second envoi ne change rien côté service
+    private List<String> idempotentMethods = new ArrayList<>(List.of("GET", "HEAD", "OPTIONS"));
+
+    // Routes dont les réponses sont transmises en flux (téléchargements) : ni retry ni hedge,
+    // qui imposent de garder tout le corps en mémoire, et pas de timeout par tentative
+    private List<String> streamingRoutes = new ArrayList<>();
+
+    // Réponses rejouables gardées en mémoire jusqu'à cette taille (Content-Length) ; au-delà ou sans
+    // Content-Length, elles sont transmises en flux dès les en-têtes, sans retry ni hedge possible ensuite
+    private DataSize maxBufferedSize = DataSize.ofKilobytes(256);
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Retry retry = new Retry();
+    private Hedge hedge = new Hedge();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getAttemptTimeout() {
+        return attemptTimeout;
+    }
+
+    public void setAttemptTimeout(Duration attemptTimeout) {
+        this.attemptTimeout = attemptTimeout;
+    }
+
+    public List<String> getIdempotentMethods() {
+        return idempotentMethods;
+    }
+
+    public void setIdempotentMethods(List<String> idempotentMethods) {
+        this.idempotentMethods = idempotentMethods;
+    }
+
+    public List<String> getStreamingRoutes() {
+        return streamingRoutes;
+    }
+
+    public void setStreamingRoutes(List<String> streamingRoutes) {
+        this.streamingRoutes = streamingRoutes;
+    }
+
+    public DataSize getMaxBufferedSize() {
+        return maxBufferedSize;
+    }
+
+    public void setMaxBufferedSize(DataSize maxBufferedSize) {
+        this.maxBufferedSize = maxBufferedSize;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public void setRetry(Retry retry) {
+        this.retry = retry;
+    }
+
+    public Hedge getHedge() {
+        return hedge;
+    }
+
+    public void setHedge(Hedge hedge) {
+        this.hedge = hedge;
+    }
+
+    public static class CircuitBreaker {
+
+        // Fenêtre glissante des derniers appels vers une instance
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+
+        // Ouverture au-delà de ce taux d'échecs (5xx, erreurs réseau, timeouts) ou d'appels lents, en %
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        // Durée pendant laquelle l'instance est écartée avant quelques appels d'essai
+        private Duration waitInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 3;
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+
+        public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public Duration getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        public void setSlowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+        }
+
+        public Duration getWaitInOpenState() {
+            return waitInOpenState;
+        }
+
+        public void setWaitInOpenState(Duration waitInOpenState) {
+            this.waitInOpenState = waitInOpenState;
+        }
+
+        public int getPermittedCallsInHalfOpenState() {
+            return permittedCallsInHalfOpenState;
+        }
+
+        public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+            this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+        }
+    }
+
+    public static class Retry {
+
+        // Nombre max de nouvelles tentatives par requête
+        private int maxRetries = 1;
+
+        // Chaque requête crédite le budget de cette fraction de retry : au plus ~20 % de trafic en plus
+        private double budgetRatio = 0.2;
+
+        // Retries toujours permis par seconde et par route, même à faible trafic
+        private int minRetriesPerSecond = 5;
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+    }
+
+    public static class Hedge {
+
+        private boolean enabled = true;
+
+        // Une copie du GET part vers une autre instance quand la réponse dépasse ce percentile de latence
+        private double percentile = 0.95;
+
+        // Bornes du délai, et échantillons nécessaires avant de s'y fier
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private int minSamples = 50;
+
+        // Fréquence de recalcul du percentile (sur les latences de la période écoulée)
+        private Duration refreshInterval = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+    }
+}
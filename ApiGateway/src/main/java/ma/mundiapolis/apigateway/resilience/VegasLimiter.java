@@ -0,0 +1,163 @@
+package ma.mundiapolis.apigateway.resilience;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite adaptative de requêtes simultanées vers un service, inspirée de TCP Vegas
+ * (Netflix concurrency-limits).
+ * <p>
+ * Je compare la latence moyenne de chaque fenêtre d'échantillons (rtt) à la latence "à vide" du service
+ * (rttNoLoad, la plus petite observée). L'écart donne une estimation du nombre de requêtes qui attendent
+ * dans la file du service : queue = limite x (1 - rttNoLoad / rtt). Tant que cette file reste courte
+ * la limite monte, quand elle s'allonge (MySQL ralentit, pool Tomcat saturé) la limite descend d'au moins
+ * la moitié de la file estimée.
+ * Les erreurs et timeouts la réduisent de 10 % immédiatement.
+ * <p>
+ * rttNoLoad est réévaluée régulièrement pour suivre un changement durable de la latence normale.
+ * Chaque voie de priorité n'a accès qu'à une part de la limite : LOW est rejetée la première.
+ */
+public class VegasLimiter {
+
+    private static final double DROP_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int windowSize;
+    private final int probeInterval;
+    private final double lowShare;
+    private final double normalShare;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+
+    // Fenêtre en cours et état de l'algorithme, protégés par "this"
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInflight;
+    private double rttNoLoad;
+    private int windowsUntilProbe;
+
+    public VegasLimiter(AdaptiveLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.windowSize = properties.getWindowSize();
+        this.probeInterval = properties.getProbeInterval();
+        this.lowShare = properties.getLowShare();
+        this.normalShare = properties.getNormalShare();
+        this.limit = properties.getInitialLimit();
+        this.windowsUntilProbe = nextProbe();
+    }
+
+    /**
+     * Réserve une place pour une requête, ou retourne false si la voie {@code priority} est saturée.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int max = (int) Math.max(1, limit * share(priority));
+        while (true) {
+            int current = inflight.get();
+            if (current >= max) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Réponse reçue normalement : la latence alimente l'ajustement de la limite.
+     */
+    public void onSuccess(long rttNanos, int inflightAtStart) {
+        inflight.decrementAndGet();
+        synchronized (this) {
+            windowRttSum += rttNanos;
+            windowCount++;
+            windowMaxInflight = Math.max(windowMaxInflight, inflightAtStart);
+            if (windowCount >= windowSize) {
+                adjust((double) windowRttSum / windowCount, windowMaxInflight);
+                windowRttSum = 0;
+                windowCount = 0;
+                windowMaxInflight = 0;
+            }
+        }
+    }
+
+    /**
+     * Erreur, timeout ou 5xx : signe de surcharge, je réduis la limite sans attendre la fin de la fenêtre.
+     */
+    public void onDropped() {
+        inflight.decrementAndGet();
+        synchronized (this) {
+            limit = Math.max(minLimit, limit * DROP_FACTOR);
+        }
+    }
+
+    /**
+     * Requête annulée (client parti) : ni la latence ni l'échec ne sont significatifs.
+     */
+    public void onIgnored() {
+        inflight.decrementAndGet();
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    public double limit() {
+        return limit;
+    }
+
+    private void adjust(double rtt, int maxInflight) {
+        if (--windowsUntilProbe <= 0) {
+            // Je laisse la latence à vide remonter (au plus x2 par sonde) : elle a pu changer durablement
+            // (volume de données, nouvelle instance...). Sans ce plafond, une sonde pendant une surcharge
+            // prendrait la latence de la surcharge comme nouvelle référence.
+            windowsUntilProbe = nextProbe();
+            rttNoLoad = Math.min(rtt, rttNoLoad * 2);
+            return;
+        }
+        if (rttNoLoad == 0 || rtt < rttNoLoad) {
+            rttNoLoad = rtt;
+            return;
+        }
+
+        double current = limit;
+        double log = Math.max(1, Math.log10(current));
+        double queue = Math.ceil(current * (1 - rttNoLoad / rtt));
+
+        double newLimit;
+        if (queue <= log) {
+            newLimit = current + 6 * log;
+        } else if (queue < 3 * log) {
+            newLimit = current + log;
+        } else if (queue > 6 * log) {
+            // File trop longue : je retire la moitié des requêtes en attente estimées
+            newLimit = current - Math.max(log, queue / 2);
+        } else {
+            return;
+        }
+
+        // Pas d'augmentation si la limite actuelle n'est même pas à moitié utilisée
+        if (newLimit > current && maxInflight * 2 < current) {
+            return;
+        }
+        newLimit = current * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    private int nextProbe() {
+        // Un peu d'aléa pour que les routes (et les replicas) ne sondent pas toutes en même temps
+        return probeInterval + ThreadLocalRandom.current().nextInt(Math.max(1, probeInterval / 2));
+    }
+
+    private double share(Priority priority) {
+        return switch (priority) {
+            case LOW -> lowShare;
+            case NORMAL -> normalShare;
+            case CRITICAL -> 1.0;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package ma.mundiapolis.apigateway.security;
+
+import java.time.Instant;
+
+/**
+ * Identité extraite d'un JWT déjà vérifié.
+ * Je la stocke dans les attributs de l'exchange pour que les filtres suivants ne reparsent pas le token.
+ */
+public record AuthenticatedPrincipal(String username, String role, Long userId, Instant expiresAt) {
+
+    public static final String EXCHANGE_ATTRIBUTE = AuthenticatedPrincipal.class.getName();
+
+    public boolean hasRole(String expected) {
+        return role != null && (role.equals(expected) || role.equals("ROLE_" + expected));
+    }
+}
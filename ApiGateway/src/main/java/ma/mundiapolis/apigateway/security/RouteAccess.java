@@ -0,0 +1,12 @@
+package ma.mundiapolis.apigateway.security;
+
+/**
+ * Niveau d'accès exigé par une route, calculé une seule fois par requête par RouteValidator.
+ */
+public enum RouteAccess {
+    PUBLIC,
+    AUTHENTICATED,
+    ADMIN;
+
+    public static final String EXCHANGE_ATTRIBUTE = RouteAccess.class.getName();
+}
@@ -0,0 +1,173 @@
+package ma.mundiapolis.apigateway.security;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Table de classification compilée au démarrage : un trie par segment de chemin.
+ * La recherche parcourt le chemin caractère par caractère et compare les segments en place
+ * (regionMatches), sans découper la chaîne : aucune allocation par requête.
+ * La règle la plus spécifique gagne (segment exact > "*" > "**" d'un niveau moins profond).
+ */
+public final class RouteAccessTable {
+
+    private static final int METHOD_COUNT = 8;
+    private static final int ANY_METHOD = -1;
+
+    private final Node root = new Node("");
+    private final RouteAccess defaultAccess;
+
+    public RouteAccessTable(RouteAccess defaultAccess) {
+        this.defaultAccess = defaultAccess;
+    }
+
+    public static RouteAccessTable compile(RouteSecurityProperties properties) {
+        RouteAccessTable table = new RouteAccessTable(RouteAccess.AUTHENTICATED);
+        // Les règles admin d'abord : une exemption publique sur le même pattern l'emporte
+        properties.getAdminRules().forEach(rule -> table.add(rule.getPath(), rule.getMethods(), RouteAccess.ADMIN));
+        properties.getAuthenticatedRules().forEach(rule -> table.add(rule.getPath(), rule.getMethods(), RouteAccess.AUTHENTICATED));
+        properties.getPublicRules().forEach(rule -> table.add(rule.getPath(), rule.getMethods(), RouteAccess.PUBLIC));
+        return table;
+    }
+
+    public void add(String pattern, List<String> methods, RouteAccess access) {
+        String[] segments = Arrays.stream(pattern.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+        Node node = root;
+        boolean subtree = false;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if ("**".equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' n'est autorisé qu'en fin de pattern : " + pattern);
+                }
+                subtree = true;
+                break;
+            }
+            node = node.child(segment);
+        }
+
+        RouteAccess[] slots = subtree ? node.subtreeAccess() : node.exactAccess();
+        if (methods == null || methods.isEmpty()) {
+            Arrays.fill(slots, access);
+        } else {
+            for (String method : methods) {
+                int index = methodIndex(HttpMethod.valueOf(method.toUpperCase()));
+                if (index == ANY_METHOD) {
+                    throw new IllegalArgumentException("Méthode non supportée : " + method);
+                }
+                slots[index] = access;
+            }
+        }
+    }
+
+    public RouteAccess classify(HttpMethod method, String path) {
+        int methodIndex = methodIndex(method);
+        if (methodIndex == ANY_METHOD) {
+            return defaultAccess;
+        }
+
+        RouteAccess best = accessAt(root.subtree, methodIndex);
+        Node node = root;
+        int length = path.length();
+        int start = 0;
+        while (node != null) {
+            while (start < length && path.charAt(start) == '/') {
+                start++;
+            }
+            if (start >= length) {
+                RouteAccess exact = accessAt(node.exact, methodIndex);
+                return exact != null ? exact : best != null ? best : defaultAccess;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.find(path, start, end - start);
+            if (node != null) {
+                RouteAccess subtree = accessAt(node.subtree, methodIndex);
+                if (subtree != null) {
+                    best = subtree;
+                }
+            }
+            start = end;
+        }
+        return best != null ? best : defaultAccess;
+    }
+
+    private static RouteAccess accessAt(RouteAccess[] slots, int methodIndex) {
+        return slots == null ? null : slots[methodIndex];
+    }
+
+    private static int methodIndex(HttpMethod method) {
+        if (method == null) {
+            return ANY_METHOD;
+        }
+        return switch (method.name()) {
+            case "GET" -> 0;
+            case "HEAD" -> 1;
+            case "POST" -> 2;
+            case "PUT" -> 3;
+            case "PATCH" -> 4;
+            case "DELETE" -> 5;
+            case "OPTIONS" -> 6;
+            case "TRACE" -> 7;
+            default -> ANY_METHOD;
+        };
+    }
+
+    private static final class Node {
+
+        private final String segment;
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        private RouteAccess[] exact;
+        private RouteAccess[] subtree;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String name) {
+            if ("*".equals(name)) {
+                if (wildcard == null) {
+                    wildcard = new Node(name);
+                }
+                return wildcard;
+            }
+            for (Node child : children) {
+                if (child.segment.equals(name)) {
+                    return child;
+                }
+            }
+            Node child = new Node(name);
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+            return child;
+        }
+
+        private Node find(String path, int offset, int length) {
+            for (Node child : children) {
+                if (child.segment.length() == length && path.regionMatches(offset, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+            return wildcard;
+        }
+
+        private RouteAccess[] exactAccess() {
+            if (exact == null) {
+                exact = new RouteAccess[METHOD_COUNT];
+            }
+            return exact;
+        }
+
+        private RouteAccess[] subtreeAccess() {
+            if (subtree == null) {
+                subtree = new RouteAccess[METHOD_COUNT];
+            }
+            return subtree;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ma.mundiapolis.apigateway.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Règles d'accès par chemin (section gateway.security de application.yml).
+ * Syntaxe des chemins : segments exacts, "*" pour un segment, "**" en fin de pattern pour tout le sous-arbre.
+ * Tout chemin qui ne correspond à aucune règle exige un utilisateur authentifié ; les règles
+ * "authenticated" servent à rouvrir à tous les utilisateurs un chemin précis d'un sous-arbre admin.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.security")
+public class RouteSecurityProperties {
+
+    private List<Rule> publicRules = new ArrayList<>(List.of(
+            new Rule("/api/users/register"),
+            new Rule("/api/users/login"),
+            new Rule("/eureka/**")));
+
+    private List<Rule> adminRules = new ArrayList<>(List.of(
+            new Rule("/api/books/**", List.of("POST", "PUT", "DELETE")),
+            new Rule("/api/users/**", List.of("POST", "PUT", "DELETE"))));
+
+    private List<Rule> authenticatedRules = new ArrayList<>(List.of(
+            new Rule("/api/books/availability", List.of("POST"))));
+
+    public List<Rule> getPublicRules() {
+        return publicRules;
+    }
+
+    public void setPublicRules(List<Rule> publicRules) {
+        this.publicRules = publicRules;
+    }
+
+    public List<Rule> getAdminRules() {
+        return adminRules;
+    }
+
+    public void setAdminRules(List<Rule> adminRules) {
+        this.adminRules = adminRules;
+    }
+
+    public List<Rule> getAuthenticatedRules() {
+        return authenticatedRules;
+    }
+
+    public void setAuthenticatedRules(List<Rule> authenticatedRules) {
+        this.authenticatedRules = authenticatedRules;
+    }
+
+    public static class Rule {
+
+        private String path;
+
+        // Méthodes HTTP concernées (toutes si vide)
+        private List<String> methods = new ArrayList<>();
+
+        public Rule() {
+        }
+
+        public Rule(String path) {
+            this.path = path;
+        }
+
+        public Rule(String path, List<String> methods) {
+            this.path = path;
+            this.methods = new ArrayList<>(methods);
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+    }
+}
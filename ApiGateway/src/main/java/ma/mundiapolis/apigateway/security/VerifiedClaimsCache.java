@@ -0,0 +1,127 @@
+package ma.mundiapolis.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import ma.mundiapolis.apigateway.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Cache borné token -> principal vérifié.
+ * La clé est un condensé SHA-256 (128 premiers bits) du token : je ne garde pas les tokens bruts en mémoire
+ * et chaque entrée expire exactement au moment du claim "exp" du token.
+ */
+@Component
+public class VerifiedClaimsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedClaimsCache.class);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    });
+
+    private final JwtUtil jwtUtil;
+    private final Duration maxTtl;
+    private final Cache<TokenHash, AuthenticatedPrincipal> cache;
+
+    public VerifiedClaimsCache(JwtUtil jwtUtil,
+                               @Value("${jwt.cache.max-size:10000}") long maxSize,
+                               @Value("${jwt.cache.max-ttl:PT1H}") Duration maxTtl) {
+        this.jwtUtil = jwtUtil;
+        this.maxTtl = maxTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<TokenHash, AuthenticatedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(TokenHash key, AuthenticatedPrincipal value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenHash key, AuthenticatedPrincipal value, long currentTime,
+                                                  long currentDuration) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenHash key, AuthenticatedPrincipal value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Retourne le principal du token s'il est valide (signature + expiration), sinon null.
+     * Un token invalide n'est jamais mis en cache.
+     */
+    public AuthenticatedPrincipal resolve(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        TokenHash key = TokenHash.of(token);
+        AuthenticatedPrincipal cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        AuthenticatedPrincipal principal;
+        try {
+            principal = toPrincipal(jwtUtil.extractAllClaims(token));
+        } catch (Exception e) {
+            log.debug("JWT rejected: {}", e.getMessage());
+            return null;
+        }
+        cache.put(key, principal);
+        return principal;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private AuthenticatedPrincipal toPrincipal(Claims claims) {
+        Date expiration = claims.getExpiration();
+        Instant expiresAt = expiration != null ? expiration.toInstant() : Instant.now().plus(maxTtl);
+        return new AuthenticatedPrincipal(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("userId", Long.class),
+                expiresAt);
+    }
+
+    private long remainingNanos(AuthenticatedPrincipal principal) {
+        long remaining = Duration.between(Instant.now(), principal.expiresAt()).toNanos();
+        return Math.max(0, Math.min(remaining, maxTtl.toNanos()));
+    }
+
+    /**
+     * 128 bits du SHA-256 du token : suffisant contre les collisions, et comparaison sans allocation.
+     */
+    record TokenHash(long high, long low) {
+
+        static TokenHash of(String token) {
+            MessageDigest digest = SHA_256.get();
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new TokenHash(buffer.getLong(), buffer.getLong());
+        }
+    }
+}
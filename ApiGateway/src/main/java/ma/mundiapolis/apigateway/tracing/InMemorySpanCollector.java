@@ -0,0 +1,83 @@
+package ma.mundiapolis.apigateway.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Garde en mémoire les spans terminés de la gateway pour les dernières traces (pas de Zipkin à déployer).
+ * GET /internal/traces/{traceId} les fusionne avec ceux des services. Au-delà de max-traces, les plus
+ * anciennes sont oubliées.
+ */
+@Component
+public class InMemorySpanCollector extends SpanHandler {
+
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+
+    private final Map<String, List<SpanView>> traces = new ConcurrentHashMap<>();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public InMemorySpanCollector(@Value("${gateway.tracing.collector.max-traces:2000}") int maxTraces,
+                                 @Value("${gateway.tracing.collector.max-spans-per-trace:200}") int maxSpansPerTrace) {
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        List<SpanView> spans = traces.computeIfAbsent(span.traceId(), traceId -> {
+            order.add(traceId);
+            size.incrementAndGet();
+            return new ArrayList<>();
+        });
+        synchronized (spans) {
+            if (spans.size() < maxSpansPerTrace) {
+                spans.add(toView(span));
+            }
+        }
+        while (size.get() > maxTraces) {
+            String oldest = order.poll();
+            if (oldest == null) {
+                break;
+            }
+            traces.remove(oldest);
+            size.decrementAndGet();
+        }
+        return true;
+    }
+
+    public List<SpanView> find(String traceId) {
+        List<SpanView> spans = traces.get(traceId);
+        if (spans == null) {
+            return List.of();
+        }
+        synchronized (spans) {
+            List<SpanView> copy = new ArrayList<>(spans);
+            copy.sort(Comparator.comparingLong(SpanView::startMicros));
+            return copy;
+        }
+    }
+
+    private static SpanView toView(MutableSpan span) {
+        String error = span.error() != null ? span.error().toString() : span.tag("error");
+        return new SpanView(span.traceId(), span.id(), span.parentId(), span.localServiceName(), span.name(),
+                span.kind() != null ? span.kind().name() : null, span.startTimestamp(),
+                span.finishTimestamp() - span.startTimestamp(), Map.copyOf(span.tags()), error);
+    }
+}
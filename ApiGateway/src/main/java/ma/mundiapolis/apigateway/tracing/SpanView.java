@@ -0,0 +1,11 @@
+package ma.mundiapolis.apigateway.tracing;
+
+import java.util.Map;
+
+/**
+ * Span terminé (gateway ou service), tel que renvoyé par GET /internal/traces/{traceId}.
+ * Les horodatages sont en microsecondes.
+ */
+public record SpanView(String traceId, String spanId, String parentId, String service, String name, String kind,
+                       long startMicros, long durationMicros, Map<String, String> tags, String error) {
+}
@@ -0,0 +1,69 @@
+package ma.mundiapolis.apigateway.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reconstitue une trace complète : spans de la gateway plus ceux que chaque service a gardés en mémoire
+ * (GET http://SERVICE/internal/traces/{traceId}, en parallèle). Un service qui ne répond pas est listé
+ * dans "degrades" et la trace est renvoyée sans ses spans.
+ */
+@Service
+public class TraceQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceQueryService.class);
+
+    private final InMemorySpanCollector collector;
+    private final WebClient webClient;
+    private final List<String> services;
+    private final Duration timeout;
+
+    public TraceQueryService(InMemorySpanCollector collector, WebClient webClient,
+                             @Value("${gateway.tracing.services:BOOKSERVICE,EMPRUNTSSERVICE,USERSERVICE}") List<String> services,
+                             @Value("${gateway.tracing.query-timeout:1s}") Duration timeout) {
+        this.collector = collector;
+        this.webClient = webClient;
+        this.services = services;
+        this.timeout = timeout;
+    }
+
+    public Mono<TraceView> find(String traceId) {
+        List<String> degrades = new ArrayList<>();
+        return Flux.fromIterable(services)
+                .flatMap(service -> webClient.get()
+                        .uri("http://" + service + "/internal/traces/{traceId}", traceId)
+                        .retrieve()
+                        .bodyToFlux(SpanView.class)
+                        .timeout(timeout)
+                        .onErrorResume(e -> {
+                            log.warn("Trace {} : spans de {} indisponibles ({})", traceId, service, e.toString());
+                            synchronized (degrades) {
+                                degrades.add(service);
+                            }
+                            return Flux.empty();
+                        }))
+                .concatWith(Flux.fromIterable(collector.find(traceId)))
+                .sort(Comparator.comparingLong(SpanView::startMicros))
+                .collectList()
+                .map(spans -> new TraceView(traceId, durationOf(spans), spans, List.copyOf(degrades)));
+    }
+
+    private static long durationOf(List<SpanView> spans) {
+        long start = spans.stream().mapToLong(SpanView::startMicros).min().orElse(0);
+        long end = spans.stream().mapToLong(span -> span.startMicros() + span.durationMicros()).max().orElse(0);
+        return end - start;
+    }
+
+    public record TraceView(String traceId, long durationMicros, List<SpanView> spans, List<String> degrades) {
+    }
+}
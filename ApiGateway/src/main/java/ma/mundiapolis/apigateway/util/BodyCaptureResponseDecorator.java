@@ -0,0 +1,78 @@
+package ma.mundiapolis.apigateway.util;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Décorateur de réponse qui agrège le corps renvoyé par le service en un byte[] avant de l'écrire.
+ * Le handler reçoit la réponse (statut et en-têtes encore modifiables) et le corps, et retourne les octets
+ * à envoyer réellement au client.
+ * Au-delà de {@code maxCapturedBytes} (d'après le Content-Length, ou en cours de lecture s'il est absent),
+ * le corps est transmis en flux tel quel et le handler n'est pas appelé.
+ * Attention : pour intercepter l'écriture faite par NettyWriteResponseFilter, le filtre qui installe ce
+ * décorateur doit avoir un ordre inférieur à NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER.
+ */
+public class BodyCaptureResponseDecorator extends ServerHttpResponseDecorator {
+
+    @FunctionalInterface
+    public interface BodyHandler {
+        byte[] onBody(ServerHttpResponse response, byte[] body);
+    }
+
+    private final long maxCapturedBytes;
+    private final BodyHandler handler;
+
+    public BodyCaptureResponseDecorator(ServerHttpResponse delegate, long maxCapturedBytes, BodyHandler handler) {
+        super(delegate);
+        this.maxCapturedBytes = maxCapturedBytes;
+        this.handler = handler;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (getDelegate().getHeaders().getContentLength() > maxCapturedBytes) {
+            return getDelegate().writeWith(body);
+        }
+        // Je garde les buffers jusqu'au premier qui fait dépasser la limite : s'il arrive, ce qui est déjà lu
+        // puis la suite partent en flux ; sinon le premier lot est le corps complet
+        AtomicLong taille = new AtomicLong();
+        return Flux.<DataBuffer>from(body)
+                .bufferUntil(buffer -> taille.addAndGet(buffer.readableByteCount()) > maxCapturedBytes)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .switchOnFirst((first, lots) -> {
+                    Flux<DataBuffer> buffers = lots.flatMapIterable(Function.<List<DataBuffer>>identity());
+                    return taille.get() > maxCapturedBytes ? getDelegate().writeWith(buffers) : capture(buffers);
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWith(Flux.from(body).flatMapSequential(p -> p));
+    }
+
+    private Mono<Void> capture(Flux<DataBuffer> buffers) {
+        return DataBufferUtils.join(buffers)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> {
+                    byte[] out = handler.onBody(getDelegate(), bytes);
+                    getDelegate().getHeaders().setContentLength(out.length);
+                    return getDelegate().writeWith(Mono.just(getDelegate().bufferFactory().wrap(out)));
+                });
+    }
+}
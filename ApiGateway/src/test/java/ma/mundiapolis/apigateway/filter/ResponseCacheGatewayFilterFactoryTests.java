@@ -0,0 +1,94 @@
+package ma.mundiapolis.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.mundiapolis.apigateway.cache.ResponseCache;
+import ma.mundiapolis.apigateway.cache.ResponseCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheGatewayFilterFactoryTests {
+
+    private static final ZonedDateTime LAST_MODIFIED = ZonedDateTime.parse("2026-10-01T10:00:00Z");
+
+    private final AtomicInteger appels = new AtomicInteger();
+    private GatewayFilter filter;
+
+    // Service simulé : un livre avec Last-Modified, Cache-Control et Vary, sans ETag
+    private final GatewayFilterChain service = exchange -> {
+        appels.incrementAndGet();
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setLastModified(LAST_MODIFIED);
+        headers.setCacheControl("max-age=60");
+        headers.setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+        headers.add(HttpHeaders.SET_COOKIE, "session=1");
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+    };
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheGatewayFilterFactory factory = new ResponseCacheGatewayFilterFactory(
+                new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry()),
+                new ResponseCacheProperties());
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofMinutes(1));
+        config.setPaths(List.of("/api/books/{id}"));
+        filter = factory.apply(config);
+    }
+
+    @Test
+    void hitRejoueLesEnTetesDuService() {
+        filter.filter(get(MockServerHttpRequest.get("/api/books/1")), service).block();
+
+        MockServerWebExchange hit = get(MockServerHttpRequest.get("/api/books/1"));
+        filter.filter(hit, service).block();
+
+        HttpHeaders headers = hit.getResponse().getHeaders();
+        assertThat(appels).hasValue(1);
+        assertThat(headers.getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(headers.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(headers.getLastModified()).isEqualTo(LAST_MODIFIED.toInstant().toEpochMilli());
+        assertThat(headers.getCacheControl()).isEqualTo("max-age=60");
+        assertThat(headers.getVary()).containsExactly(HttpHeaders.ACCEPT_LANGUAGE);
+        assertThat(headers.get(HttpHeaders.SET_COOKIE)).isNull();
+        assertThat(hit.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void ifModifiedSinceSurUnHitRepond304() {
+        filter.filter(get(MockServerHttpRequest.get("/api/books/1")), service).block();
+
+        MockServerWebExchange inchange = get(MockServerHttpRequest.get("/api/books/1")
+                .ifModifiedSince(LAST_MODIFIED.toInstant().toEpochMilli()));
+        filter.filter(inchange, service).block();
+        MockServerWebExchange perime = get(MockServerHttpRequest.get("/api/books/1")
+                .ifModifiedSince(LAST_MODIFIED.minusDays(1).toInstant().toEpochMilli()));
+        filter.filter(perime, service).block();
+
+        assertThat(inchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(perime.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(appels).hasValue(1);
+    }
+
+    private static MockServerWebExchange get(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
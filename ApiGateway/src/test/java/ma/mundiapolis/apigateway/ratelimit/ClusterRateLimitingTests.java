@@ -0,0 +1,89 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import com.hazelcast.core.HazelcastInstance;
+import ma.mundiapolis.apigateway.ApiGatewayApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deux gateways dans la même JVM, reliées par la grille Hazelcast embarquée :
+ * le quota est global, peu importe la replica qui reçoit la requête.
+ */
+class ClusterRateLimitingTests {
+
+    private static final int CAPACITY = 4;
+
+    private ConfigurableApplicationContext gatewayA;
+    private ConfigurableApplicationContext gatewayB;
+
+    @BeforeEach
+    void startTwoGateways() throws InterruptedException {
+        String clusterName = "ratelimit-test-" + UUID.randomUUID();
+        gatewayA = startGateway(clusterName);
+        gatewayB = startGateway(clusterName);
+
+        HazelcastInstance hazelcast = gatewayA.getBean(HazelcastInstance.class);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (hazelcast.getCluster().getMembers().size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(hazelcast.getCluster().getMembers()).hasSize(2);
+    }
+
+    @AfterEach
+    void stopGateways() {
+        if (gatewayB != null) {
+            gatewayB.close();
+        }
+        if (gatewayA != null) {
+            gatewayA.close();
+        }
+    }
+
+    @Test
+    void quotaIsSharedAcrossReplicas() {
+        WebTestClient clientA = clientFor(gatewayA);
+        WebTestClient clientB = clientFor(gatewayB);
+
+        // J'alterne les replicas : en mode local chacune accepterait CAPACITY requêtes (2 x CAPACITY au total)
+        for (int i = 0; i < CAPACITY; i++) {
+            WebTestClient client = i % 2 == 0 ? clientA : clientB;
+            HttpStatus status = HttpStatus.valueOf(client.post().uri("/api/users/login")
+                    .exchange().returnResult(Void.class).getStatus().value());
+            assertThat(status).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        }
+
+        clientA.post().uri("/api/users/login").exchange().expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        clientB.post().uri("/api/users/login").exchange().expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private static ConfigurableApplicationContext startGateway(String clusterName) {
+        // Arguments de ligne de commande : ils priment sur application.yml (server.port=8080)
+        return new SpringApplicationBuilder(ApiGatewayApplication.class)
+                .run("--server.port=0",
+                        "--management.server.port=0",
+                        "--eureka.client.enabled=false",
+                        "--gateway.rate-limit.mode=cluster",
+                        "--gateway.rate-limit.capacity=" + CAPACITY,
+                        "--gateway.rate-limit.cluster.cluster-name=" + clusterName,
+                        "--gateway.rate-limit.cluster.port=5901",
+                        "--gateway.rate-limit.cluster.members=127.0.0.1",
+                        // Synchronisation à chaque requête pour un résultat déterministe
+                        "--gateway.rate-limit.cluster.max-unsynchronized-tokens=0");
+    }
+
+    private static WebTestClient clientFor(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+}
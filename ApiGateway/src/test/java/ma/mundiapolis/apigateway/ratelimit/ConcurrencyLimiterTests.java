@@ -0,0 +1,94 @@
+package ma.mundiapolis.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTests {
+
+    @Test
+    void refuseAuDelaDeLaLimitePuisLibereLaPlace() {
+        ConcurrencyLimiter limiter = limiter(2);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+        assertThat(limiter.tryAcquire("bob")).isTrue();
+
+        limiter.release("alice");
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+    }
+
+    @Test
+    void uneCleSansRequeteEnCoursEstRetiree() {
+        ConcurrencyLimiter limiter = limiter(2);
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("bob");
+
+        limiter.release("alice");
+        limiter.release("bob");
+        assertThat(limiter.size()).isEqualTo(1);
+
+        limiter.release("alice");
+        assertThat(limiter.size()).isZero();
+        // Un release de trop ne recrée pas de compteur négatif
+        limiter.release("alice");
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void jamaisPlusQueLaLimiteEnParallele() throws Exception {
+        ConcurrencyLimiter limiter = limiter(3);
+        AtomicInteger enCours = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        CountDownLatch depart = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> taches = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            taches.add(pool.submit(() -> {
+                depart.await();
+                for (int i = 0; i < 10_000; i++) {
+                    if (limiter.tryAcquire("alice")) {
+                        max.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+                        enCours.decrementAndGet();
+                        limiter.release("alice");
+                    }
+                }
+                return null;
+            }));
+        }
+        depart.countDown();
+        for (Future<?> tache : taches) {
+            tache.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(max.get()).isLessThanOrEqualTo(3);
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void sansLimite() {
+        ConcurrencyLimiter limiter = limiter(0);
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire("alice")).isTrue();
+        }
+        assertThat(limiter.size()).isZero();
+    }
+
+    private static ConcurrencyLimiter limiter(int max) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxConcurrentPerUser(max);
+        return new ConcurrencyLimiter(properties);
+    }
+}
@@ -0,0 +1,81 @@
+package ma.mundiapolis.apigateway.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodyCaptureResponseDecoratorTests {
+
+    @Test
+    void corpsSousLaLimiteCaptureEtReecrit() {
+        MockServerHttpResponse delegate = new MockServerHttpResponse();
+        AtomicReference<String> capture = new AtomicReference<>();
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(delegate, 10, (r, body) -> {
+            capture.set(new String(body, StandardCharsets.UTF_8));
+            return "remplace".getBytes(StandardCharsets.UTF_8);
+        });
+
+        response.writeWith(buffers("abc", "def")).block();
+
+        assertThat(capture.get()).isEqualTo("abcdef");
+        assertThat(delegate.getBodyAsString().block()).isEqualTo("remplace");
+        assertThat(delegate.getHeaders().getContentLength()).isEqualTo(8);
+    }
+
+    @Test
+    void corpsQuiDepasseEnCoursDeLectureTransmisSansCapture() {
+        MockServerHttpResponse delegate = new MockServerHttpResponse();
+        AtomicReference<byte[]> capture = new AtomicReference<>();
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(delegate, 5, (r, body) -> {
+            capture.set(body);
+            return body;
+        });
+
+        response.writeWith(buffers("abc", "def", "ghi")).block();
+
+        assertThat(capture.get()).isNull();
+        assertThat(delegate.getBodyAsString().block()).isEqualTo("abcdefghi");
+    }
+
+    @Test
+    void contentLengthTropGrandTransmisSansCapture() {
+        MockServerHttpResponse delegate = new MockServerHttpResponse();
+        delegate.getHeaders().setContentLength(100);
+        AtomicReference<byte[]> capture = new AtomicReference<>();
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(delegate, 5, (r, body) -> {
+            capture.set(body);
+            return body;
+        });
+
+        response.writeWith(buffers("abc")).block();
+
+        assertThat(capture.get()).isNull();
+        assertThat(delegate.getBodyAsString().block()).isEqualTo("abc");
+    }
+
+    @Test
+    void corpsVideCapture() {
+        MockServerHttpResponse delegate = new MockServerHttpResponse();
+        AtomicReference<byte[]> capture = new AtomicReference<>();
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(delegate, 5, (r, body) -> {
+            capture.set(body);
+            return body;
+        });
+
+        response.writeWith(Flux.empty()).block();
+
+        assertThat(capture.get()).isEmpty();
+    }
+
+    private static Flux<DataBuffer> buffers(String... morceaux) {
+        return Flux.fromArray(morceaux)
+                .map(m -> DefaultDataBufferFactory.sharedInstance.wrap(m.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,223 @@
+package ma.mundiapolis.bookservice.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.dto.BulkImportLigneResponse;
+import ma.mundiapolis.bookservice.dto.BulkImportResponse;
+import ma.mundiapolis.bookservice.dto.LivreRequest;
+import ma.mundiapolis.bookservice.event.LivresImportesEvent;
+import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+import ma.mundiapolis.bookservice.isbn.Isbns;
+import ma.mundiapolis.bookservice.model.Livre;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Import en masse de livres (NDJSON ou CSV) : le fichier est lu au fil de l'eau et inséré par lots JDBC.
+ * <p>
+ * Chaque ligne est validée comme un {@code POST /api/books}. Les doublons d'ISBN (comparés sous leur forme
+ * ISBN-13 canonique) sont cherchés par lot (une requête IN par lot, au lieu d'un existsByIsbn13 par livre)
+ * et dans le fichier lui-même. Un lot est
+ * une transaction : une erreur sur un lot n'annule pas les lots déjà importés.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO livre (titre, auteur, categorie, isbn, isbn13, date_creation, date_modification) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Avec rewriteBatchedStatements=true, Connector/J envoie chaque lot en un seul INSERT multi-lignes
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    public BulkImportResponse importLivres(InputStream body, String contentType) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        LivreRecordReader records = recordReader(reader, contentType);
+
+        List<BulkImportLigneResponse> lignes = new ArrayList<>();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        Set<String> isbnsDuFichier = new HashSet<>();
+        BulkRow row;
+        while ((row = records.next()) != null) {
+            BulkImportLigneResponse result = BulkImportLigneResponse.builder().ligne(row.ligne()).build();
+            lignes.add(result);
+            if (row.erreur() != null) {
+                reject(result, List.of(row.erreur()));
+                continue;
+            }
+            LivreRequest livre = row.livre();
+            result.setIsbn(livre.getIsbn());
+            List<String> erreurs = validate(livre);
+            if (!erreurs.isEmpty()) {
+                reject(result, erreurs);
+                continue;
+            }
+            String isbn13 = Isbns.versIsbn13(livre.getIsbn());
+            if (!isbnsDuFichier.add(isbn13)) {
+                reject(result, List.of("ISBN en double dans le fichier"));
+                continue;
+            }
+            batch.add(new Pending(livre, isbn13, result));
+            if (batch.size() == batchSize) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+
+        long importes = lignes.stream().filter(l -> "IMPORTE".equals(l.getStatut())).count();
+        long dureeMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Import en masse : {} lignes lues, {} livres importés en {} ms", lignes.size(), importes, dureeMs);
+        return BulkImportResponse.builder()
+                .lignesLues(lignes.size())
+                .importes(importes)
+                .rejetes(lignes.size() - importes)
+                .dureeMs(dureeMs)
+                .lignes(lignes)
+                .build();
+    }
+
+    private LivreRecordReader recordReader(BufferedReader reader, String contentType) throws IOException {
+        MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : null;
+        if (mediaType != null && mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return new NdjsonLivreReader(reader, objectMapper);
+        }
+        if (mediaType != null && mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            return new CsvLivreReader(reader);
+        }
+        throw new BusinessRuleException("Format d'import non supporté : " + contentType
+                + " (application/x-ndjson ou text/csv)");
+    }
+
+    private List<String> validate(LivreRequest livre) {
+        Set<ConstraintViolation<LivreRequest>> violations = validator.validate(livre);
+        if (violations.isEmpty()) {
+            return List.of();
+        }
+        List<String> erreurs = new ArrayList<>();
+        violations.forEach(v -> erreurs.add(v.getMessage()));
+        Collections.sort(erreurs);
+        return erreurs;
+    }
+
+    private void flush(List<Pending> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (RuntimeException e) {
+            log.warn("Lot de {} livres non importé : {}", batch.size(), e.getMessage());
+            batch.forEach(p -> reject(p.result, List.of("Lot non importé : " + e.getMessage())));
+        }
+    }
+
+    private void insert(List<Pending> batch) {
+        Set<String> existants = existingIsbns(batch);
+        List<Pending> nouveaux = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (existants.contains(pending.isbn13)) {
+                reject(pending.result, List.of("Un livre avec cet ISBN existe déjà"));
+            } else {
+                nouveaux.add(pending);
+            }
+        }
+        if (nouveaux.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        LivreRequest livre = nouveaux.get(i).livre;
+                        ps.setString(1, livre.getTitre());
+                        ps.setString(2, livre.getAuteur());
+                        ps.setString(3, livre.getCategorie());
+                        ps.setString(4, livre.getIsbn());
+                        ps.setString(5, nouveaux.get(i).isbn13);
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return nouveaux.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Livre> livres = new ArrayList<>(nouveaux.size());
+        for (int i = 0; i < nouveaux.size(); i++) {
+            Pending pending = nouveaux.get(i);
+            // MySQL renvoie la clé sous GENERATED_KEY, H2 sous ID : seule la valeur compte
+            Long id = ((Number) generated.get(i).values().iterator().next()).longValue();
+            pending.result.setStatut("IMPORTE");
+            pending.result.setId(id);
+            livres.add(Livre.builder()
+                    .id(id)
+                    .titre(pending.livre.getTitre())
+                    .auteur(pending.livre.getAuteur())
+                    .categorie(pending.livre.getCategorie())
+                    .isbn(pending.livre.getIsbn())
+                    .isbn13(pending.isbn13)
+                    .dateCreation(now.toLocalDateTime())
+                    .dateModification(now.toLocalDateTime())
+                    .build());
+        }
+        eventPublisher.publishEvent(new LivresImportesEvent(livres));
+    }
+
+    private Set<String> existingIsbns(List<Pending> batch) {
+        String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+        Object[] isbns = batch.stream().map(p -> p.isbn13).toArray();
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT isbn13 FROM livre WHERE isbn13 IN (" + placeholders + ")", String.class, isbns));
+    }
+
+    private static void reject(BulkImportLigneResponse result, List<String> erreurs) {
+        result.setStatut("REJETE");
+        result.setId(null);
+        result.setErreurs(erreurs);
+    }
+
+    private record Pending(LivreRequest livre, String isbn13, BulkImportLigneResponse result) {
+    }
+}
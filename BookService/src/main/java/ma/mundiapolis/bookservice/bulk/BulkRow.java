@@ -0,0 +1,21 @@
+package ma.mundiapolis.bookservice.bulk;
+
+import ma.mundiapolis.bookservice.dto.LivreRequest;
+
+/**
+ * Un enregistrement lu dans le fichier importé.
+ *
+ * @param ligne  numéro de ligne dans le fichier (première ligne de l'enregistrement pour un CSV multiligne)
+ * @param livre  null si l'enregistrement n'a pas pu être lu
+ * @param erreur raison de l'échec de lecture, null sinon
+ */
+record BulkRow(long ligne, LivreRequest livre, String erreur) {
+
+    static BulkRow of(long ligne, LivreRequest livre) {
+        return new BulkRow(ligne, livre, null);
+    }
+
+    static BulkRow invalid(long ligne, String erreur) {
+        return new BulkRow(ligne, null, erreur);
+    }
+}
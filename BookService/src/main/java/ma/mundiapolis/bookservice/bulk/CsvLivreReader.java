@@ -0,0 +1,136 @@
+package ma.mundiapolis.bookservice.bulk;
+
+import ma.mundiapolis.bookservice.dto.LivreRequest;
+import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CSV (RFC 4180) avec une ligne d'en-tête contenant au moins titre, auteur, categorie et isbn, dans
+ * n'importe quel ordre. Les autres colonnes sont ignorées : un export du catalogue se réimporte tel quel.
+ */
+class CsvLivreReader implements LivreRecordReader {
+
+    private static final List<String> COLUMNS = List.of("titre", "auteur", "categorie", "isbn");
+
+    private final Reader reader;
+    private final int[] positions = new int[COLUMNS.size()];
+    private final StringBuilder field = new StringBuilder();
+    private long ligne = 1;
+    private int pending = -2; // caractère relu d'avance (-2 : aucun)
+
+    CsvLivreReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BusinessRuleException("Fichier CSV vide : la ligne d'en-tête est obligatoire");
+        }
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            positions[i] = indexOf(header, COLUMNS.get(i));
+            if (positions[i] < 0) {
+                throw new BusinessRuleException("Colonne manquante dans l'en-tête CSV : " + COLUMNS.get(i)
+                        + " (attendues : " + String.join(", ", COLUMNS) + ")");
+            }
+        }
+    }
+
+    @Override
+    public BulkRow next() throws IOException {
+        List<String> record;
+        long start;
+        do {
+            start = ligne;
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        if (record.size() <= max(positions)) {
+            return BulkRow.invalid(start, "Nombre de colonnes insuffisant : " + record.size());
+        }
+        return BulkRow.of(start, LivreRequest.builder()
+                .titre(record.get(positions[0]))
+                .auteur(record.get(positions[1]))
+                .categorie(record.get(positions[2]))
+                .isbn(record.get(positions[3]))
+                .build());
+    }
+
+    // Un enregistrement complet : les champs entre guillemets peuvent contenir virgules, "" et sauts de ligne
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    break;
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        pending = following;
+                    }
+                } else {
+                    if (c == '\n') {
+                        ligne++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    ligne++;
+                }
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static int indexOf(List<String> header, String column) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT).equals(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int max(int[] values) {
+        int max = 0;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,14 @@
+package ma.mundiapolis.bookservice.bulk;
+
+import java.io.IOException;
+
+/**
+ * Lit les livres d'un fichier d'import un par un, sans charger le fichier en mémoire.
+ */
+interface LivreRecordReader {
+
+    /**
+     * L'enregistrement suivant, ou null à la fin du fichier.
+     */
+    BulkRow next() throws IOException;
+}
@@ -0,0 +1,42 @@
+package ma.mundiapolis.bookservice.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ma.mundiapolis.bookservice.dto.LivreRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * NDJSON : un objet {@link LivreRequest} par ligne, lignes vides ignorées.
+ */
+class NdjsonLivreReader implements LivreRecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long ligne;
+
+    NdjsonLivreReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectReader = objectMapper.readerFor(LivreRequest.class);
+    }
+
+    @Override
+    public BulkRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            ligne++;
+        } while (line.isBlank());
+
+        try {
+            return BulkRow.of(ligne, objectReader.readValue(line));
+        } catch (JsonProcessingException e) {
+            return BulkRow.invalid(ligne, "JSON invalide : " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ma.mundiapolis.bookservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.event.LivreEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Après le commit d'une modification ou d'une suppression : invalide le livre dans le cache local, puis
+ * envoie l'invalidation aux autres instances de BookService connues d'Eureka
+ * (POST /internal/cache/livres/invalidate). L'envoi n'attend pas les réponses ; une instance qui ne
+ * le reçoit pas se corrige à l'expiration de son entrée ({@code livre.cache.ttl}).
+ */
+@Component
+@Slf4j
+public class LivreCacheInvalidator {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+    private final LivreNearCache cache;
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final String serviceId;
+    // Client sans load balancing : chaque instance est appelée à son adresse
+    private final WebClient webClient = WebClient.builder().build();
+
+    public LivreCacheInvalidator(LivreNearCache cache, DiscoveryClient discoveryClient,
+                                 ObjectProvider<Registration> registration,
+                                 @Value("${livre.cache.service-id:BOOKSERVICE}") String serviceId) {
+        this.cache = cache;
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.serviceId = serviceId;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLivreEvent(LivreEvent event) {
+        List<Long> ids = List.of(event.livreId());
+        cache.invalidate(ids);
+        broadcast(ids);
+    }
+
+    private void broadcast(List<Long> ids) {
+        Registration self = registration.getIfAvailable();
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+            if (self != null && Objects.equals(self.getHost(), instance.getHost()) && self.getPort() == instance.getPort()) {
+                continue;
+            }
+            webClient.post()
+                    .uri(instance.getUri().resolve("/internal/cache/livres/invalidate"))
+                    .bodyValue(ids)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(TIMEOUT)
+                    .subscribe(ok -> { }, e -> log.warn("Invalidation du cache non reçue par {}:{} : {}",
+                            instance.getHost(), instance.getPort(), e.getMessage()));
+        }
+    }
+}
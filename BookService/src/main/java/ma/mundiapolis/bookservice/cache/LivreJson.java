@@ -0,0 +1,27 @@
+package ma.mundiapolis.bookservice.cache;
+
+import ma.mundiapolis.bookservice.dto.LivreResponse;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Un livre déjà sérialisé en JSON (UTF-8), avec ses validateurs HTTP.
+ *
+ * @param etag         ETag fort : ID et date de dernière modification, qui change à chaque écriture du livre
+ * @param lastModified date de dernière modification (création à défaut), null si inconnue
+ */
+public record LivreJson(byte[] octets, String etag, Instant lastModified) {
+
+    static LivreJson of(LivreResponse livre, byte[] octets) {
+        LocalDateTime modification = livre.getDateModification() != null
+                ? livre.getDateModification() : livre.getDateCreation();
+        // Les dates sont écrites par Hibernate dans le fuseau de la JVM
+        Instant lastModified = modification != null ? modification.atZone(ZoneId.systemDefault()).toInstant() : null;
+        String version = lastModified != null
+                ? String.format("%d.%09d", lastModified.getEpochSecond(), lastModified.getNano())
+                : "0";
+        return new LivreJson(octets, "\"" + livre.getId() + "-" + version + "\"", lastModified);
+    }
+}
@@ -0,0 +1,145 @@
+package ma.mundiapolis.bookservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ma.mundiapolis.bookservice.dto.LivreResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache local des livres par ID, et des ID par ISBN, devant MySQL.
+ * <p>
+ * Les livres les plus lus sont aussi gardés déjà sérialisés ({@link LivreJson}, au plus
+ * {@code livre.cache.json-max-bytes} octets) : GET /api/books/{id} renvoie ces octets sans repasser par Jackson.
+ * <p>
+ * Une modification ou une suppression invalide l'entrée ici et sur les autres instances
+ * ({@link LivreCacheInvalidator}). Si une instance manque ce message, l'expiration après écriture
+ * ({@code livre.cache.ttl}) borne la durée pendant laquelle elle peut servir l'ancienne version.
+ * Statistiques : /internal/cache/livres et les métriques cache.gets / cache.evictions{cache=livres.*}.
+ */
+@Component
+public class LivreNearCache {
+
+    private final Cache<Long, LivreResponse> parId;
+    private final Cache<String, Long> idParIsbn;
+    private final Cache<Long, LivreJson> jsonParId;
+    private final ObjectMapper objectMapper;
+
+    public LivreNearCache(@Value("${livre.cache.max-size:10000}") long maxSize,
+                          @Value("${livre.cache.ttl:PT30S}") Duration ttl,
+                          @Value("${livre.cache.json-max-bytes:16777216}") long jsonMaxBytes,
+                          ObjectMapper objectMapper,
+                          MeterRegistry registry) {
+        this.parId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idParIsbn = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Borné en octets et non en entrées : la taille d'un livre sérialisé varie avec ses champs
+        this.jsonParId = Caffeine.newBuilder()
+                .maximumWeight(jsonMaxBytes)
+                .weigher((Long id, LivreJson json) -> json.octets().length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Le mapper de Spring MVC : mêmes octets que si le contrôleur sérialisait lui-même LivreResponse
+        this.objectMapper = objectMapper;
+        CaffeineCacheMetrics.monitor(registry, parId, "livres.par-id");
+        CaffeineCacheMetrics.monitor(registry, idParIsbn, "livres.par-isbn");
+        CaffeineCacheMetrics.monitor(registry, jsonParId, "livres.json");
+    }
+
+    /**
+     * Le livre en cache, sinon chargé par {@code loader}. Un livre absent n'est pas mis en cache.
+     * Une invalidation reçue pendant le chargement attend sa fin puis retire la valeur chargée :
+     * une lecture concurrente d'une modification ne peut pas laisser l'ancienne version en cache.
+     */
+    public Optional<LivreResponse> get(Long id, Function<Long, Optional<LivreResponse>> loader) {
+        return Optional.ofNullable(parId.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Le livre portant cet ISBN-13 canonique : ISBN → ID en cache ({@code idLookup} sinon), puis le livre par ID.
+     * L'ISBN du livre trouvé est revérifié à chaque lecture : si le livre a changé d'ISBN ou a été
+     * supprimé, l'association est oubliée et recherchée à nouveau.
+     */
+    public Optional<LivreResponse> getByIsbn(String isbn, Function<String, Optional<Long>> idLookup,
+                                             Function<Long, Optional<LivreResponse>> loader) {
+        Long id = idParIsbn.get(isbn, key -> idLookup.apply(key).orElse(null));
+        Optional<LivreResponse> livre = id != null ? get(id, loader).filter(l -> isbn.equals(l.getIsbn13())) : Optional.empty();
+        if (livre.isPresent() || id == null) {
+            return livre;
+        }
+        idParIsbn.invalidate(isbn);
+        Long actuel = idParIsbn.get(isbn, key -> idLookup.apply(key).orElse(null));
+        return actuel != null ? get(actuel, loader).filter(l -> isbn.equals(l.getIsbn13())) : Optional.empty();
+    }
+
+    /**
+     * Le livre sérialisé, en cache ou construit à partir de {@link #get}. Comme pour {@link #get}, une
+     * invalidation reçue pendant la sérialisation attend sa fin puis retire les octets produits.
+     */
+    public Optional<LivreJson> getJson(Long id, Function<Long, Optional<LivreResponse>> loader) {
+        return Optional.ofNullable(jsonParId.get(id, key -> get(key, loader).map(this::serialize).orElse(null)));
+    }
+
+    /**
+     * Le livre sérialisé s'il est en cache, sans le construire ni compter de hit ou de miss.
+     */
+    public Optional<LivreJson> getJsonIfPresent(Long id) {
+        return Optional.ofNullable(jsonParId.asMap().get(id));
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        // parId d'abord : une sérialisation en cours ne peut plus relire l'ancienne version
+        parId.invalidateAll(ids);
+        jsonParId.invalidateAll(ids);
+    }
+
+    private LivreJson serialize(LivreResponse livre) {
+        try {
+            return LivreJson.of(livre, objectMapper.writeValueAsBytes(livre));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation du livre " + livre.getId() + " impossible", e);
+        }
+    }
+
+    public CacheStats statsParId() {
+        return parId.stats();
+    }
+
+    public CacheStats statsParIsbn() {
+        return idParIsbn.stats();
+    }
+
+    public long tailleParId() {
+        return parId.estimatedSize();
+    }
+
+    public long tailleParIsbn() {
+        return idParIsbn.estimatedSize();
+    }
+
+    public CacheStats statsJson() {
+        return jsonParId.stats();
+    }
+
+    public long tailleJson() {
+        return jsonParId.estimatedSize();
+    }
+}
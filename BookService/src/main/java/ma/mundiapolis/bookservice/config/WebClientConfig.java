@@ -1,5 +1,6 @@
 package ma.mundiapolis.bookservice.config;
 
+import io.micrometer.observation.ObservationRegistry;
 import io.netty.resolver.DefaultAddressResolverGroup;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
@@ -13,10 +14,13 @@ public class WebClientConfig {
 
     @Bean
     @LoadBalanced
-    public WebClient.Builder webClientBuilder() {
+    public WebClient.Builder webClientBuilder(ObservationRegistry observationRegistry) {
         HttpClient httpClient = HttpClient.create().resolver(DefaultAddressResolverGroup.INSTANCE);
+        // Builder créé à la main : je lui passe le registre pour que chaque appel ait son span
+        // et propage l'en-tête traceparent au service appelé
         return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient));
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationRegistry(observationRegistry);
     }
 
     @Bean
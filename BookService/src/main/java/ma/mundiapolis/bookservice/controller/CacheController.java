@@ -0,0 +1,48 @@
+package ma.mundiapolis.bookservice.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import ma.mundiapolis.bookservice.cache.LivreNearCache;
+import ma.mundiapolis.bookservice.dto.CacheStatsResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Cache local des livres : statistiques, et invalidations envoyées par les autres instances
+ * (pas exposé aux clients par la gateway).
+ */
+@RestController
+@RequestMapping("/internal/cache/livres")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final LivreNearCache cache;
+
+    @GetMapping
+    public ResponseEntity<List<CacheStatsResponse>> getStats() {
+        return ResponseEntity.ok(List.of(
+                toResponse("livres.par-id", cache.tailleParId(), cache.statsParId()),
+                toResponse("livres.par-isbn", cache.tailleParIsbn(), cache.statsParIsbn()),
+                toResponse("livres.json", cache.tailleJson(), cache.statsJson())));
+    }
+
+    @PostMapping("/invalidate")
+    public ResponseEntity<Void> invalidate(@RequestBody List<Long> ids) {
+        cache.invalidate(ids);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static CacheStatsResponse toResponse(String name, long taille, CacheStats stats) {
+        return CacheStatsResponse.builder()
+                .cache(name)
+                .taille(taille)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .tauxHits(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .chargements(stats.loadCount())
+                .build();
+    }
+}
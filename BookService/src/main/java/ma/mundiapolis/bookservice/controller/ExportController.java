@@ -0,0 +1,107 @@
+package ma.mundiapolis.bookservice.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import ma.mundiapolis.bookservice.dto.ExportJobResponse;
+import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+import ma.mundiapolis.bookservice.export.ExportJob;
+import ma.mundiapolis.bookservice.export.ExportJobService;
+import ma.mundiapolis.bookservice.export.ExportStatus;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Exports du catalogue (CSV gzip) : lancement, suivi et téléchargement.
+ */
+@RestController
+@RequestMapping("/api/books/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final String FORMAT = "csv.gz";
+
+    // Attributs de requête de Tomcat pour envoyer un fichier avec sendfile()
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping
+    public ResponseEntity<ExportJobResponse> startExport(@RequestParam(defaultValue = FORMAT) String format) {
+        if (!FORMAT.equals(format)) {
+            throw new BusinessRuleException("Format d'export non supporté : " + format + " (disponible : " + FORMAT + ")");
+        }
+        ExportJob job = exportJobService.start();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/books/exports/" + job.getId()))
+                .body(toResponse(job));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ExportJobResponse>> listExports() {
+        return ResponseEntity.ok(exportJobService.list().stream().map(ExportController::toResponse).toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobResponse> getExport(@PathVariable String id) {
+        return ResponseEntity.ok(toResponse(exportJobService.get(id)));
+    }
+
+    @GetMapping("/{id}/file")
+    public void downloadExport(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = exportJobService.file(id);
+        long size = Files.size(file);
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString());
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat (connecteur NIO) envoie le fichier après le retour de la méthode, du cache disque
+            // vers la socket sans copie dans le heap
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        // Sans sendfile : copie par blocs, mémoire constante
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.transferTo(0, size, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private static ExportJobResponse toResponse(ExportJob job) {
+        long total = job.getTotalRows();
+        long exported = job.getExportedRows();
+        int progression = job.getStatus() == ExportStatus.TERMINE ? 100
+                : total > 0 ? (int) Math.min(99, exported * 100 / total) : 0;
+        return ExportJobResponse.builder()
+                .id(job.getId())
+                .statut(job.getStatus().name())
+                .format(FORMAT)
+                .lignesExportees(exported)
+                .lignesTotales(total)
+                .progression(progression)
+                .tailleOctets(job.getSizeBytes())
+                .creeLe(job.getCreatedAt())
+                .termineLe(job.getFinishedAt())
+                .erreur(job.getError())
+                .fichier(job.getStatus() == ExportStatus.TERMINE ? "/api/books/exports/" + job.getId() + "/file" : null)
+                .build();
+    }
+}
@@ -2,14 +2,32 @@ package ma.mundiapolis.bookservice.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import ma.mundiapolis.bookservice.bulk.BulkImportService;
+import ma.mundiapolis.bookservice.dto.BulkImportResponse;
+import ma.mundiapolis.bookservice.dto.LivreChangesResponse;
+import ma.mundiapolis.bookservice.dto.LivreFacetsResponse;
+import ma.mundiapolis.bookservice.dto.LivrePageResponse;
 import ma.mundiapolis.bookservice.dto.LivreRequest;
 import ma.mundiapolis.bookservice.dto.LivreResponse;
+import ma.mundiapolis.bookservice.dto.LivreSearchResponse;
+import ma.mundiapolis.bookservice.dto.LivreStatsResponse;
+import ma.mundiapolis.bookservice.dto.SuggestionResponse;
+import ma.mundiapolis.bookservice.facet.LivreFiltre;
 import ma.mundiapolis.bookservice.service.ILivreService;
+import ma.mundiapolis.bookservice.service.LivreChangeService;
+import ma.mundiapolis.bookservice.service.LivreReactiveService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/books")
@@ -17,30 +35,118 @@ import java.util.List;
 public class LivreController {
 
     private final ILivreService livreService;
+    // Livre, liste, recherche et disponibilité : sur le thread Tomcat ou non selon livre.reactive.enabled
+    private final LivreReactiveService livreReactiveService;
+    private final BulkImportService bulkImportService;
+    private final LivreChangeService livreChangeService;
 
     @PostMapping
     public ResponseEntity<LivreResponse> createLivre(@Valid @RequestBody LivreRequest livreRequest) {
         return new ResponseEntity<>(livreService.createLivre(livreRequest), HttpStatus.CREATED);
     }
 
+    // Corps NDJSON (application/x-ndjson) ou CSV (text/csv), lu au fil de l'eau
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkImportResponse> importLivres(@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                           InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importLivres(body, contentType));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<LivreResponse> updateLivre(@PathVariable Long id, @Valid @RequestBody LivreRequest livreRequest) {
         return ResponseEntity.ok(livreService.updateLivre(id, livreRequest));
     }
 
+    // Octets JSON gardés en cache : pas de Jackson pour un livre déjà lu. ETag fort (ID et date de
+    // modification) et Last-Modified : Spring répond 304 si If-None-Match ou If-Modified-Since correspond
     @GetMapping("/{id}")
-    public ResponseEntity<LivreResponse> getLivreById(@PathVariable Long id) {
-        return ResponseEntity.ok(livreService.getLivreById(id));
+    public Mono<ResponseEntity<byte[]>> getLivreById(@PathVariable Long id) {
+        return livreReactiveService.getLivreJsonById(id).map(json -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(json.etag());
+            if (json.lastModified() != null) {
+                response.lastModified(json.lastModified());
+            }
+            return response.body(json.octets());
+        });
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<LivreResponse> getLivreByIsbn(@PathVariable String isbn) {
+        return ResponseEntity.ok(livreService.getLivreByIsbn(isbn));
     }
 
     @GetMapping
-    public ResponseEntity<List<LivreResponse>> getAllLivres() {
-        return ResponseEntity.ok(livreService.getAllLivres());
+    public Mono<ResponseEntity<LivrePageResponse>> getLivres(@RequestParam(required = false) String sort,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int size,
+                                                       @RequestParam(required = false) String categorie,
+                                                       @RequestParam(required = false) String auteur,
+                                                       @RequestParam(required = false) Boolean available,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LivreFiltre filtre = new LivreFiltre(categorie, auteur, available);
+        if (filtre.disponible() != null) {
+            // La disponibilité change avec les emprunts, pas avec la version du catalogue : pas d'ETag
+            return livreReactiveService.getLivres(sort, cursor, size, filtre).map(ResponseEntity::ok);
+        }
+        // Version lue avant la page : une écriture commitée entre les deux donne une page plus récente que
+        // son ETag, jamais l'inverse
+        return livreReactiveService.getCatalogueVersion().flatMap(version -> {
+            String etag = catalogueEtag(version);
+            if (correspond(ifNoneMatch, etag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<LivrePageResponse>build());
+            }
+            return livreReactiveService.getLivres(sort, cursor, size, filtre)
+                    .map(page -> ResponseEntity.ok().eTag(etag).body(page));
+        });
+    }
+
+    // Ancien format (tout le catalogue dans une liste), gardé pour les clients pas encore migrés
+    @GetMapping(params = "unpaged=true")
+    public ResponseEntity<List<LivreResponse>> getAllLivres(WebRequest request) {
+        String etag = catalogueEtag(livreService.getCatalogueVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(livreService.getAllLivres());
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<LivreResponse>> searchLivres(@RequestParam String query) {
-        return ResponseEntity.ok(livreService.searchLivres(query));
+    public Mono<ResponseEntity<LivreSearchResponse>> searchLivres(@RequestParam String query,
+                                                            @RequestParam(required = false) String sort,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size,
+                                                            @RequestParam(required = false) String categorie,
+                                                            @RequestParam(required = false) String auteur,
+                                                            @RequestParam(required = false) Boolean available) {
+        return livreReactiveService.searchLivres(query, sort, cursor, size, new LivreFiltre(categorie, auteur, available))
+                .map(ResponseEntity::ok);
+    }
+
+    // Saisie semi-automatique : un appel par frappe, sans requête SQL
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(@RequestParam String prefix,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(livreService.suggest(prefix, limit));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<LivreFacetsResponse> getFacets() {
+        return ResponseEntity.ok(livreService.getFacets());
+    }
+
+    // Synchronisation d'une copie locale : livres enregistrés ou supprimés après la version since
+    // (0 : tout le catalogue). 410 si des suppressions ont été purgées depuis
+    @GetMapping("/changes")
+    public ResponseEntity<LivreChangesResponse> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                           @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(livreChangeService.getChanges(since, limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<LivreStatsResponse> getStats() {
+        return ResponseEntity.ok(livreService.getStats());
     }
 
     @DeleteMapping("/{id}")
@@ -50,7 +156,34 @@ public class LivreController {
     }
 
     @GetMapping("/{id}/availability")
-    public ResponseEntity<Boolean> checkAvailability(@PathVariable Long id) {
-        return ResponseEntity.ok(livreService.checkAvailability(id));
+    public Mono<ResponseEntity<Boolean>> checkAvailability(@PathVariable Long id) {
+        return livreReactiveService.checkAvailability(id).map(ResponseEntity::ok);
+    }
+
+    // Disponibilité de toute une page du catalogue en un appel : corps [1, 2, 3], réponse {"1": true, ...}
+    @PostMapping("/availability")
+    public Mono<ResponseEntity<Map<Long, Boolean>>> checkAvailability(@RequestBody List<Long> ids) {
+        return livreReactiveService.checkAvailability(ids).map(ResponseEntity::ok);
+    }
+
+    private static String catalogueEtag(long version) {
+        return "\"catalogue-" + version + "\"";
+    }
+
+    // Comparaison faible, comme l'exige If-None-Match : « W/ » ignoré, « * » correspond à tout
+    private static boolean correspond(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidat : ifNoneMatch.split(",")) {
+            String valeur = candidat.strip();
+            if (valeur.startsWith("W/")) {
+                valeur = valeur.substring(2);
+            }
+            if (valeur.equals("*") || valeur.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,126 @@
+package ma.mundiapolis.bookservice.disponibilite;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.dto.EmpruntChangeResponse;
+import ma.mundiapolis.bookservice.dto.EmpruntsActifsResponse;
+import ma.mundiapolis.bookservice.event.LivresEmpruntesEvent;
+import ma.mundiapolis.bookservice.repository.DisponibiliteLivreRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Disponibilité des livres tenue en local à partir du flux des emprunts : une vérification est une
+ * lecture par clé primaire, sans appel à EmpruntsService.
+ * <p>
+ * Chaque ligne garde la séquence du dernier changement appliqué, et chaque écriture est un UPDATE conditionné
+ * par cette séquence, pas une lecture suivie d'une sauvegarde. Rejouer un changement, ou en recevoir un plus
+ * ancien (autre instance de BookService, réconciliation), ne revient donc jamais en arrière, même quand
+ * deux instances écrivent la même ligne en même temps.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DisponibiliteProjection {
+
+    private final DisponibiliteLivreRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Faux tant qu'aucune réconciliation n'a abouti depuis le démarrage
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isDisponible(Long livreId) {
+        return repository.findById(livreId).map(d -> !d.isEmprunte()).orElse(true);
+    }
+
+    /**
+     * Parmi ces livres, ceux qui sont empruntés : une seule requête quel que soit leur nombre.
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> empruntes(Collection<Long> livreIds) {
+        return repository.findLivresEmpruntes(livreIds);
+    }
+
+    /**
+     * Tous les livres empruntés (filtre de disponibilité de la recherche) : autant que d'emprunts en cours.
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> empruntes() {
+        return repository.findTousLivresEmpruntes();
+    }
+
+    @Transactional
+    public void apply(List<EmpruntChangeResponse> changes) {
+        creerLignesAbsentes(changes.stream().map(EmpruntChangeResponse::getLivreId).collect(Collectors.toSet()));
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> empruntes = new ArrayList<>();
+        for (EmpruntChangeResponse change : changes) {
+            boolean emprunte = "EMPRUNTE".equals(change.getType());
+            int modifiees = repository.appliquer(change.getLivreId(), emprunte,
+                    emprunte ? change.getEmpruntId() : null, change.getSequence(), now);
+            if (emprunte && modifiees > 0) {
+                empruntes.add(change.getLivreId());
+            }
+        }
+        if (!empruntes.isEmpty()) {
+            eventPublisher.publishEvent(new LivresEmpruntesEvent(empruntes));
+        }
+    }
+
+    /**
+     * Aligne la projection sur l'état complet d'EmpruntsService et rattrape les changements manqués
+     * (perdus pendant une panne, ou commités dans le désordre et sautés par le curseur).
+     *
+     * @return nombre de livres corrigés
+     */
+    @Transactional
+    public int reconcile(EmpruntsActifsResponse snapshot) {
+        long sequence = snapshot.getSequence();
+        Map<Long, Long> actifs = snapshot.getEmprunts().stream()
+                .collect(Collectors.toMap(EmpruntsActifsResponse.EmpruntActif::getLivreId,
+                        EmpruntsActifsResponse.EmpruntActif::getEmpruntId, (a, b) -> Math.max(a, b)));
+        LocalDateTime now = LocalDateTime.now();
+        int corriges = 0;
+
+        // Livres marqués empruntés ici mais rendus là-bas. La lecture ne sert qu'à choisir les lignes :
+        // chaque correction revérifie la séquence au moment de l'écriture
+        for (Long livreId : repository.findTousLivresEmpruntes()) {
+            if (!actifs.containsKey(livreId)) {
+                corriges += repository.corrigerRendu(livreId, sequence, now);
+            }
+        }
+        // Livres empruntés là-bas mais absents ou disponibles ici
+        creerLignesAbsentes(actifs.keySet());
+        for (Map.Entry<Long, Long> actif : actifs.entrySet()) {
+            corriges += repository.corrigerEmprunte(actif.getKey(), actif.getValue(), sequence, now);
+        }
+        ready = true;
+        return corriges;
+    }
+
+    private void creerLignesAbsentes(Set<Long> livreIds) {
+        if (livreIds.isEmpty()) {
+            return;
+        }
+        Set<Long> connus = repository.findLivresConnus(livreIds);
+        for (Long livreId : livreIds) {
+            if (!connus.contains(livreId)) {
+                repository.creerSiAbsente(livreId);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ma.mundiapolis.bookservice.disponibilite;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.dto.EmpruntChangesResponse;
+import ma.mundiapolis.bookservice.dto.EmpruntsActifsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Suit le flux des emprunts d'EmpruntsService pour {@link DisponibiliteProjection} : lecture des nouveaux
+ * changements toutes les {@code disponibilite.poll-interval} ms, et réconciliation complète au démarrage
+ * puis toutes les {@code disponibilite.reconcile-interval} ms pour réparer les changements manqués.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DisponibiliteSynchronizer {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebClient webClient;
+    private final DisponibiliteProjection projection;
+
+    @Value("${disponibilite.feed-batch-size:500}")
+    private int batchSize;
+
+    // Dernière séquence appliquée (propre à cette instance, repartie de la réconciliation au démarrage)
+    private long cursor;
+    private boolean enErreur;
+
+    @Scheduled(fixedDelayString = "${disponibilite.poll-interval:2000}", initialDelayString = "${disponibilite.poll-interval:2000}")
+    public synchronized void poll() {
+        if (!projection.isReady()) {
+            return;
+        }
+        try {
+            EmpruntChangesResponse page;
+            do {
+                page = fetchChanges(cursor);
+                if (page == null || page.getChanges().isEmpty()) {
+                    break;
+                }
+                projection.apply(page.getChanges());
+                cursor = page.getChanges().get(page.getChanges().size() - 1).getSequence();
+            } while (page.getChanges().size() == batchSize);
+            succeeded();
+        } catch (RuntimeException e) {
+            failed("lecture du flux des emprunts", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${disponibilite.reconcile-interval:300000}")
+    public synchronized void reconcile() {
+        try {
+            EmpruntsActifsResponse snapshot = webClient.get()
+                    .uri("http://EMPRUNTSSERVICE/internal/loans/active")
+                    .retrieve()
+                    .bodyToMono(EmpruntsActifsResponse.class)
+                    .block(TIMEOUT);
+            if (snapshot == null) {
+                return;
+            }
+            int corriges = projection.reconcile(snapshot);
+            // Le flux reprend à la séquence de l'instantané : les changements suivants, déjà appliqués ou
+            // non, sont rejoués sans effet sur les lignes plus récentes
+            cursor = snapshot.getSequence();
+            if (corriges > 0) {
+                log.info("Disponibilités réconciliées : {} livres corrigés (séquence {})", corriges, snapshot.getSequence());
+            }
+            succeeded();
+        } catch (RuntimeException e) {
+            failed("réconciliation des disponibilités", e);
+        }
+    }
+
+    private EmpruntChangesResponse fetchChanges(long after) {
+        return webClient.get()
+                .uri("http://EMPRUNTSSERVICE/internal/loans/changes?after={after}&limit={limit}", after, batchSize)
+                .retrieve()
+                .bodyToMono(EmpruntChangesResponse.class)
+                .block(TIMEOUT);
+    }
+
+    private void succeeded() {
+        if (enErreur) {
+            log.info("Flux des emprunts de nouveau disponible (séquence {})", cursor);
+            enErreur = false;
+        }
+    }
+
+    // Un seul avertissement par panne, pas un toutes les deux secondes
+    private void failed(String operation, RuntimeException e) {
+        if (!enErreur) {
+            log.warn("Échec de la {} : {}", operation, e.getMessage());
+            enErreur = true;
+        }
+    }
+}
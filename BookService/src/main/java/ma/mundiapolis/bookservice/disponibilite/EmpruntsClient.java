@@ -0,0 +1,70 @@
+package ma.mundiapolis.bookservice.disponibilite;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.dto.EmpruntResponse;
+import ma.mundiapolis.bookservice.dto.EmpruntsActifsResponse;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Appels à EmpruntsService sur les emprunts en cours, sans bloquer : les lectures réactives les
+ * composent telles quelles, {@code LivreService} attend leur résultat avec {@code block()}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmpruntsClient {
+
+    private final WebClient webClient;
+
+    /**
+     * Vrai si le livre a un emprunt ACTIF ou EN_RETARD. Les erreurs de communication sont transmises.
+     */
+    public Mono<Boolean> estEmprunte(Long livreId) {
+        return webClient.get()
+                .uri("http://EMPRUNTSSERVICE/api/loans/book/{id}", livreId)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<EmpruntResponse>>() {
+                })
+                .map(loans -> loans.stream()
+                        .anyMatch(l -> "ACTIF".equals(l.getStatut()) || "EN_RETARD".equals(l.getStatut())))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Disponibilité d'un livre d'après EmpruntsService. Faux si le service est injoignable : le livre
+     * est alors considéré comme indisponible par précaution.
+     */
+    public Mono<Boolean> estDisponible(Long livreId) {
+        return estEmprunte(livreId)
+                .map(emprunte -> !emprunte)
+                .onErrorResume(e -> {
+                    log.warn("Impossible de vérifier la disponibilité du livre {} via EmpruntsService: {}", livreId, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Les livres empruntés, en un seul appel. Vide (aucune valeur) si EmpruntsService est injoignable.
+     */
+    public Mono<Set<Long>> livresEmpruntes() {
+        return webClient.get()
+                .uri("http://EMPRUNTSSERVICE/internal/loans/active")
+                .retrieve()
+                .bodyToMono(EmpruntsActifsResponse.class)
+                .map(actifs -> actifs.getEmprunts().stream()
+                        .map(EmpruntsActifsResponse.EmpruntActif::getLivreId)
+                        .collect(Collectors.toSet()))
+                .onErrorResume(e -> {
+                    log.warn("Impossible de vérifier la disponibilité des livres via EmpruntsService: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,21 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportLigneResponse {
+    private long ligne;
+    // IMPORTE ou REJETE
+    private String statut;
+    private Long id;
+    private String isbn;
+    private List<String> erreurs;
+}
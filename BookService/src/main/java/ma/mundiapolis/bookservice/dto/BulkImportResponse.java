@@ -0,0 +1,21 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResponse {
+    private long lignesLues;
+    private long importes;
+    private long rejetes;
+    private long dureeMs;
+    // Résultat ligne par ligne, dans l'ordre du fichier
+    private List<BulkImportLigneResponse> lignes;
+}
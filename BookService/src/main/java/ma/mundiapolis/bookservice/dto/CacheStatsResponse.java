@@ -0,0 +1,20 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private String cache;
+    private long taille;
+    private long hits;
+    private long misses;
+    private double tauxHits;
+    private long evictions;
+    private long chargements;
+}
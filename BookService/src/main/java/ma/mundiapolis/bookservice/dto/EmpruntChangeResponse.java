@@ -0,0 +1,21 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntChangeResponse {
+    private Long sequence;
+    private Long empruntId;
+    private Long livreId;
+    // EMPRUNTE ou RETOURNE
+    private String type;
+    private LocalDateTime date;
+}
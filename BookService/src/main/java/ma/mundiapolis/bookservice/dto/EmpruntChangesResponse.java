@@ -0,0 +1,17 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntChangesResponse {
+    private List<EmpruntChangeResponse> changes;
+    private long derniereSequence;
+}
@@ -0,0 +1,25 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntsActifsResponse {
+    private long sequence;
+    private List<EmpruntActif> emprunts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EmpruntActif {
+        private Long livreId;
+        private Long empruntId;
+    }
+}
@@ -0,0 +1,30 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * État d'un export du catalogue. {@code fichier} est l'URL de téléchargement une fois l'export terminé.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobResponse {
+    private String id;
+    private String statut;
+    private String format;
+    private long lignesExportees;
+    // -1 tant que le comptage n'est pas fait
+    private long lignesTotales;
+    private int progression;
+    private long tailleOctets;
+    private LocalDateTime creeLe;
+    private LocalDateTime termineLe;
+    private String erreur;
+    private String fichier;
+}
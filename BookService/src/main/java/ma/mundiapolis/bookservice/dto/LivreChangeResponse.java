@@ -0,0 +1,21 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Un livre enregistré ({@code livre} renseigné) ou supprimé ({@code supprime}, {@code livre} null)
+ * à cette version du catalogue.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivreChangeResponse {
+    private long version;
+    private Long livreId;
+    private boolean supprime;
+    private LivreResponse livre;
+}
@@ -0,0 +1,21 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changements triés par version : la version du dernier est à renvoyer dans {@code since} pour la suite.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivreChangesResponse {
+    private List<LivreChangeResponse> changes;
+    // Version du catalogue au moment de la lecture
+    private long derniereVersion;
+}
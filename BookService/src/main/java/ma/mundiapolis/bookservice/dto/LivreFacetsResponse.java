@@ -0,0 +1,20 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Nombre de livres par catégorie, de la plus fournie à la moins fournie.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivreFacetsResponse {
+    private long totalLivres;
+    private Map<String, Long> categories;
+}
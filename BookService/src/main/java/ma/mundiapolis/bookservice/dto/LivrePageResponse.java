@@ -0,0 +1,23 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Une page du catalogue. {@code nextCursor} est à renvoyer dans {@code cursor} pour la page suivante
+ * (null sur la dernière page).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivrePageResponse {
+    private List<LivreResponse> livres;
+    private String sort;
+    private int size;
+    private String nextCursor;
+}
@@ -1,12 +1,12 @@
 package ma.mundiapolis.bookservice.dto;
 
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ma.mundiapolis.bookservice.isbn.Isbn;
 
 @Data
 @Builder
@@ -26,6 +26,6 @@ public class LivreRequest {
     private String categorie;
     
     @NotBlank(message = "L'ISBN est obligatoire")
-    @Pattern(regexp = "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$", message = "Format ISBN invalide")
+    @Isbn
     private String isbn;
 }
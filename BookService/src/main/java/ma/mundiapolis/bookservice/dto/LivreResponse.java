@@ -17,6 +17,7 @@ public class LivreResponse {
     private String auteur;
     private String categorie;
     private String isbn;
+    private String isbn13;
     private LocalDateTime dateCreation;
     private LocalDateTime dateModification;
 }
@@ -0,0 +1,24 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Une page de résultats de recherche, dans l'ordre du tri demandé (pertinence par défaut).
+ * {@code nextCursor} est à renvoyer dans {@code cursor} pour la page suivante (null sur la dernière page).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivreSearchResponse {
+    private List<LivreResponse> livres;
+    private long total;
+    private String sort;
+    private int size;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Résumé du catalogue pour le tableau de bord : nombre de livres et derniers ajouts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivreStatsResponse {
+    private long totalLivres;
+    private List<LivreResponse> derniersAjouts;
+}
@@ -0,0 +1,20 @@
+package ma.mundiapolis.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Une suggestion de saisie : un titre ou un auteur, avec son nombre de livres et d'emprunts récents.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+    private String texte;
+    private String type;
+    private int livres;
+    private long emprunts;
+}
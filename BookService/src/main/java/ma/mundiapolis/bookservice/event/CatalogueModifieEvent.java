@@ -0,0 +1,16 @@
+package ma.mundiapolis.bookservice.event;
+
+import ma.mundiapolis.bookservice.model.Livre;
+
+import java.util.List;
+
+/**
+ * Publié par {@code LivreChangementsSynchronizer} pour les écritures lues dans le flux du catalogue,
+ * quelle que soit l'instance de BookService qui les a faites. Écouté hors transaction, sur le thread
+ * du planificateur.
+ *
+ * @param enregistres livres ajoutés ou modifiés, dans leur état actuel en base
+ * @param supprimes   IDs des livres supprimés
+ */
+public record CatalogueModifieEvent(List<Livre> enregistres, List<Long> supprimes) {
+}
@@ -0,0 +1,25 @@
+package ma.mundiapolis.bookservice.event;
+
+import ma.mundiapolis.bookservice.model.Livre;
+
+/**
+ * Publié par LivreService à chaque création, modification ou suppression d'un livre.
+ * Les écouteurs {@code @TransactionalEventListener} ne le reçoivent qu'après le commit.
+ *
+ * @param livre l'état enregistré, null pour une suppression
+ */
+public record LivreEvent(Type type, Long livreId, Livre livre) {
+
+    public enum Type {
+        ENREGISTRE,
+        SUPPRIME
+    }
+
+    public static LivreEvent enregistre(Livre livre) {
+        return new LivreEvent(Type.ENREGISTRE, livre.getId(), livre);
+    }
+
+    public static LivreEvent supprime(Long livreId) {
+        return new LivreEvent(Type.SUPPRIME, livreId, null);
+    }
+}
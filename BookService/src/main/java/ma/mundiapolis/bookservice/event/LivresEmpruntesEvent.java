@@ -0,0 +1,10 @@
+package ma.mundiapolis.bookservice.event;
+
+import java.util.List;
+
+/**
+ * Publié par DisponibiliteProjection pour les nouveaux emprunts appliqués depuis le flux d'EmpruntsService
+ * (un ID par emprunt, un même livre peut revenir). Un changement rejoué n'est jamais republié.
+ */
+public record LivresEmpruntesEvent(List<Long> livreIds) {
+}
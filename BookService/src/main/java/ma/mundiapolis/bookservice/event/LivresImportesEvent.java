@@ -0,0 +1,12 @@
+package ma.mundiapolis.bookservice.event;
+
+import ma.mundiapolis.bookservice.model.Livre;
+
+import java.util.List;
+
+/**
+ * Publié par l'import en masse pour chaque lot inséré : un seul événement (et un seul rafraîchissement
+ * de l'index) pour tout le lot, au lieu d'un {@link LivreEvent} par livre.
+ */
+public record LivresImportesEvent(List<Livre> livres) {
+}
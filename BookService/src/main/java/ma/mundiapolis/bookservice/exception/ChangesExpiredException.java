@@ -0,0 +1,8 @@
+package ma.mundiapolis.bookservice.exception;
+
+// Suppressions déjà purgées depuis la version demandée : le client doit repartir d'une copie complète
+public class ChangesExpiredException extends RuntimeException {
+    public ChangesExpiredException(String message) {
+        super(message);
+    }
+}
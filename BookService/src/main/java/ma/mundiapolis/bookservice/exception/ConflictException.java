@@ -0,0 +1,8 @@
+package ma.mundiapolis.bookservice.exception;
+
+// Requête valide, mais la ressource n'est pas dans l'état voulu (ex: export pas encore terminé)
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
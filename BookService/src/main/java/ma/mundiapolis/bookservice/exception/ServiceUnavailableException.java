@@ -0,0 +1,18 @@
+package ma.mundiapolis.bookservice.exception;
+
+import java.time.Duration;
+
+// Capacité momentanément épuisée (ex: file des exports pleine) : 503 avec Retry-After
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
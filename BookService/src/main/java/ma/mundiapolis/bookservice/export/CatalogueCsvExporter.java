@@ -0,0 +1,95 @@
+package ma.mundiapolis.bookservice.export;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Écrit le catalogue dans un fichier CSV compressé (gzip), ligne par ligne depuis un curseur JDBC :
+ * ni entités JPA, ni liste en mémoire, la consommation reste la même pour 1 000 ou 10 millions de livres.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogueCsvExporter {
+
+    private static final String SQL = "SELECT id, titre, auteur, categorie, isbn, date_creation, date_modification "
+            + "FROM livre ORDER BY id";
+    private static final String HEADER = "id,titre,auteur,categorie,isbn,date_creation,date_modification";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long countRows() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM livre", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Exporte toutes les lignes dans {@code target} et appelle {@code onRow} après chacune.
+     */
+    public void export(Path target, Runnable onRow) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(target), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(HEADER);
+            writer.write('\n');
+            jdbcTemplate.query(this::forwardOnlyStatement, (ResultSet rs) -> {
+                try {
+                    writer.write(Long.toString(rs.getLong(1)));
+                    for (int column = 2; column <= 5; column++) {
+                        writer.write(',');
+                        writeField(writer, rs.getString(column));
+                    }
+                    for (int column = 6; column <= 7; column++) {
+                        writer.write(',');
+                        Timestamp timestamp = rs.getTimestamp(column);
+                        writeField(writer, timestamp != null ? timestamp.toLocalDateTime().toString() : null);
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                onRow.run();
+            });
+        }
+    }
+
+    private PreparedStatement forwardOnlyStatement(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // Connector/J charge tout le résultat en mémoire sauf avec Integer.MIN_VALUE (lecture ligne par ligne).
+        // Les autres pilotes refusent une taille négative et respectent une taille de lot normale.
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        statement.setFetchSize(mysql ? Integer.MIN_VALUE : 1000);
+        return statement;
+    }
+
+    // RFC 4180 : guillemets si la valeur contient une virgule, un guillemet ou un saut de ligne
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
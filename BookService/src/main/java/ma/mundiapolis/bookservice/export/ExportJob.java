@@ -0,0 +1,90 @@
+package ma.mundiapolis.bookservice.export;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un export du catalogue, en base pour être suivi depuis n'importe quelle instance de BookService.
+ * L'instance qui l'exécute met à jour la progression et {@code updatedAt} toutes les
+ * {@code export.heartbeat-interval} ms : sans nouvelles depuis {@code export.stale-after}, l'export est
+ * considéré comme perdu (instance arrêtée).
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_export_job_created_at", columnList = "createdAt"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJob {
+
+    @Id
+    private String id;
+
+    // Nom du fichier dans export.directory (partagé entre les instances)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    private ExportStatus status;
+
+    // Estimation (count au lancement) : des livres ajoutés pendant l'export peuvent la dépasser. -1 avant le comptage
+    private long totalRows;
+
+    private long exportedRows;
+
+    private long sizeBytes;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    private String error;
+
+    static ExportJob nouveau(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        return ExportJob.builder()
+                .id(id)
+                .fileName("catalogue-" + id + ".csv.gz")
+                .status(ExportStatus.EN_ATTENTE)
+                .totalRows(-1)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    void start(long totalRows) {
+        this.totalRows = totalRows;
+        this.status = ExportStatus.EN_COURS;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    void succeed(long exportedRows, long sizeBytes) {
+        this.exportedRows = exportedRows;
+        this.sizeBytes = sizeBytes;
+        this.finishedAt = LocalDateTime.now();
+        this.updatedAt = finishedAt;
+        this.status = ExportStatus.TERMINE;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.updatedAt = finishedAt;
+        this.status = ExportStatus.ECHOUE;
+    }
+
+    boolean isEnCours() {
+        return status == ExportStatus.EN_ATTENTE || status == ExportStatus.EN_COURS;
+    }
+}
@@ -0,0 +1,198 @@
+package ma.mundiapolis.bookservice.export;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.exception.ConflictException;
+import ma.mundiapolis.bookservice.exception.ResourceNotFoundException;
+import ma.mundiapolis.bookservice.exception.ServiceUnavailableException;
+import ma.mundiapolis.bookservice.repository.ExportJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports du catalogue en tâche de fond : la requête rend la main tout de suite (202) et le client suit
+ * l'avancement puis télécharge le fichier. L'état des jobs est en base et les fichiers dans
+ * export.directory, partagé entre les instances : le suivi et le téléchargement peuvent arriver sur une
+ * autre instance que celle qui exécute l'export. Jobs et fichiers sont supprimés après export.retention.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    private static final List<ExportStatus> EN_COURS = List.of(ExportStatus.EN_ATTENTE, ExportStatus.EN_COURS);
+
+    private final CatalogueCsvExporter exporter;
+    private final ExportJobRepository repository;
+    private final Path directory;
+    private final Duration retention;
+    private final Duration staleAfter;
+    private final Duration retryAfter;
+    private final ThreadPoolExecutor executor;
+    // Exports acceptés par cette instance et lignes écrites, recopiées en base par heartbeat()
+    private final Map<String, AtomicLong> locaux = new ConcurrentHashMap<>();
+
+    public ExportJobService(CatalogueCsvExporter exporter,
+                            ExportJobRepository repository,
+                            @Value("${export.directory:${java.io.tmpdir}/book-exports}") String directory,
+                            @Value("${export.retention:24h}") Duration retention,
+                            @Value("${export.stale-after:1m}") Duration staleAfter,
+                            @Value("${export.retry-after:30s}") Duration retryAfter,
+                            @Value("${export.max-concurrent:1}") int maxConcurrent,
+                            @Value("${export.max-pending:5}") int maxPending) throws IOException {
+        this.exporter = exporter;
+        this.repository = repository;
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.retention = retention;
+        this.staleAfter = staleAfter;
+        this.retryAfter = retryAfter;
+        AtomicInteger threads = new AtomicInteger();
+        // Peu de threads et une file bornée : un export lit toute la table, inutile d'en lancer dix en parallèle
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPending), runnable -> {
+            Thread thread = new Thread(runnable, "catalogue-export-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ExportJob start() {
+        ExportJob job = repository.save(ExportJob.nouveau(UUID.randomUUID().toString()));
+        AtomicLong rows = new AtomicLong();
+        locaux.put(job.getId(), rows);
+        try {
+            executor.execute(() -> run(job.getId(), rows));
+        } catch (RejectedExecutionException e) {
+            locaux.remove(job.getId());
+            repository.delete(job);
+            throw new ServiceUnavailableException("Trop d'exports en attente, réessayez plus tard", retryAfter);
+        }
+        return job;
+    }
+
+    public ExportJob get(String id) {
+        return repository.findById(id)
+                .map(this::verifieVivant)
+                .orElseThrow(() -> new ResourceNotFoundException("Export non trouvé : " + id));
+    }
+
+    public List<ExportJob> list() {
+        return repository.findAllByOrderByCreatedAtDesc().stream().map(this::verifieVivant).toList();
+    }
+
+    /**
+     * Fichier d'un export terminé.
+     */
+    public Path file(String id) {
+        ExportJob job = get(id);
+        if (job.getStatus() != ExportStatus.TERMINE) {
+            throw new ConflictException("Export " + id + " pas encore disponible (" + job.getStatus() + ")");
+        }
+        Path file = directory.resolve(job.getFileName());
+        if (!Files.exists(file)) {
+            // export.directory n'est pas partagé avec l'instance qui a écrit le fichier, ou il a été purgé
+            throw new ResourceNotFoundException("Fichier de l'export " + id + " introuvable");
+        }
+        return file;
+    }
+
+    private void run(String id, AtomicLong rows) {
+        // Ma propre copie : celle renvoyée par start() est lue par la requête pendant que l'export avance
+        ExportJob job = repository.findById(id).orElse(null);
+        if (job == null) {
+            locaux.remove(id);
+            return;
+        }
+        Path file = directory.resolve(job.getFileName());
+        // Écrit à côté puis renommé : le fichier final n'est jamais vu à moitié écrit
+        Path partial = partial(file);
+        long start = System.nanoTime();
+        try {
+            job.start(exporter.countRows());
+            repository.save(job);
+            exporter.export(partial, rows::incrementAndGet);
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            job.succeed(rows.get(), Files.size(file));
+            log.info("Export {} terminé : {} livres, {} octets en {} ms", job.getId(), job.getExportedRows(),
+                    job.getSizeBytes(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Échec de l'export {}", job.getId(), e);
+            job.setExportedRows(rows.get());
+            job.fail(e.getMessage());
+            deleteQuietly(partial);
+        } finally {
+            locaux.remove(job.getId());
+        }
+        repository.save(job);
+    }
+
+    // Progression des exports de cette instance, et preuve qu'elle les exécute toujours
+    @Scheduled(fixedDelayString = "${export.heartbeat-interval:2000}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        locaux.forEach((id, rows) -> repository.heartbeat(id, rows.get(), now));
+    }
+
+    // Planifiée : sans nouvel export, les fichiers expirés seraient gardés indéfiniment
+    @Scheduled(fixedDelayString = "${export.purge-interval:600000}")
+    public void purgeExpired() {
+        for (ExportJob job : repository.findByStatusInAndUpdatedAtBefore(EN_COURS, LocalDateTime.now().minus(staleAfter))) {
+            verifieVivant(job);
+        }
+        List<ExportJob> expires = repository.findByCreatedAtBefore(LocalDateTime.now().minus(retention));
+        for (ExportJob job : expires) {
+            Path file = directory.resolve(job.getFileName());
+            deleteQuietly(file);
+            deleteQuietly(partial(file));
+        }
+        repository.deleteAll(expires);
+        if (!expires.isEmpty()) {
+            log.info("{} exports de plus de {} supprimés", expires.size(), retention);
+        }
+    }
+
+    // Un export en cours dont l'instance ne donne plus de nouvelles (arrêtée ou tuée) ne finira jamais
+    private ExportJob verifieVivant(ExportJob job) {
+        if (job.isEnCours() && !locaux.containsKey(job.getId())
+                && job.getUpdatedAt().isBefore(LocalDateTime.now().minus(staleAfter))) {
+            job.fail("Export interrompu : l'instance qui l'exécutait ne répond plus");
+            repository.save(job);
+            deleteQuietly(partial(directory.resolve(job.getFileName())));
+        }
+        return job;
+    }
+
+    private static Path partial(Path file) {
+        return file.resolveSibling(file.getFileName() + ".part");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Impossible de supprimer {} : {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package ma.mundiapolis.bookservice.export;
+
+public enum ExportStatus {
+    EN_ATTENTE,
+    EN_COURS,
+    TERMINE,
+    ECHOUE
+}
@@ -0,0 +1,90 @@
+package ma.mundiapolis.bookservice.facet;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Nombre de livres par catégorie, tenu en mémoire : chargé en tâche de fond au démarrage puis mis à
+ * jour livre par livre par {@link CategorieFacetsUpdater}, sans GROUP BY à chaque requête.
+ * Tant qu'il n'est pas prêt ({@link #isReady()}), LivreService compte en SQL.
+ */
+@Component
+public class CategorieFacets {
+
+    // Catégorie actuelle de chaque livre : une modification sait quel compteur décrémenter,
+    // et recevoir deux fois le même événement ne compte pas le livre deux fois
+    private final Map<Long, String> categorieParLivre = new HashMap<>();
+    private final ConcurrentMap<String, Long> compteurs = new ConcurrentHashMap<>();
+    // Livres supprimés pendant le chargement initial : le chargement a pu les lire avant la suppression
+    private final Set<Long> supprimesPendantChargement = new HashSet<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    synchronized void markReady() {
+        ready = true;
+        supprimesPendantChargement.clear();
+    }
+
+    public synchronized void enregistre(Long livreId, String categorie) {
+        supprimesPendantChargement.remove(livreId);
+        String precedente = categorieParLivre.put(livreId, categorie);
+        if (precedente != null) {
+            ajoute(precedente, -1);
+        }
+        ajoute(categorie, 1);
+    }
+
+    public synchronized void supprime(Long livreId) {
+        if (!ready) {
+            supprimesPendantChargement.add(livreId);
+        }
+        String precedente = categorieParLivre.remove(livreId);
+        if (precedente != null) {
+            ajoute(precedente, -1);
+        }
+    }
+
+    /**
+     * Chargement initial : un livre déjà connu (modifié pendant le chargement) garde sa catégorie la plus récente,
+     * un livre supprimé pendant le chargement n'est pas recompté.
+     */
+    synchronized void charge(Long livreId, String categorie) {
+        if (supprimesPendantChargement.contains(livreId)) {
+            return;
+        }
+        if (categorieParLivre.putIfAbsent(livreId, categorie) == null) {
+            ajoute(categorie, 1);
+        }
+    }
+
+    /**
+     * Compteurs par catégorie, de la plus fournie à la moins fournie.
+     */
+    public Map<String, Long> compteurs() {
+        Map<String, Long> tries = new LinkedHashMap<>();
+        compteurs.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> tries.put(e.getKey(), e.getValue()));
+        return tries;
+    }
+
+    private void ajoute(String categorie, long delta) {
+        // Une catégorie qui n'a plus de livre disparaît des facettes
+        compteurs.compute(categorie, (key, count) -> {
+            long total = (count == null ? 0 : count) + delta;
+            return total > 0 ? total : null;
+        });
+    }
+}
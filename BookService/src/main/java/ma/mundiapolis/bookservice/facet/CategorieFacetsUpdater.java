@@ -0,0 +1,79 @@
+package ma.mundiapolis.bookservice.facet;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.event.CatalogueModifieEvent;
+import ma.mundiapolis.bookservice.event.LivreEvent;
+import ma.mundiapolis.bookservice.event.LivresImportesEvent;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.repository.LivreRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Alimente {@link CategorieFacets} : chargement complet en tâche de fond au démarrage, puis mise à
+ * jour après chaque commit de cette instance (création, modification, suppression, import en masse)
+ * et, pour toutes les instances, depuis le flux du catalogue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategorieFacetsUpdater {
+
+    private final LivreRepository livreRepository;
+    private final CategorieFacets facets;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLivreEvent(LivreEvent event) {
+        if (event.type() == LivreEvent.Type.SUPPRIME) {
+            facets.supprime(event.livreId());
+        } else {
+            facets.enregistre(event.livreId(), event.livre().getCategorie());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLivresImportes(LivresImportesEvent event) {
+        event.livres().forEach(livre -> facets.enregistre(livre.getId(), livre.getCategorie()));
+    }
+
+    // Écritures de toutes les instances, lues dans le flux du catalogue : sans elles, les compteurs des
+    // autres instances dériveraient jusqu'à leur redémarrage
+    @EventListener
+    public void onCatalogueModifie(CatalogueModifieEvent event) {
+        event.enregistres().forEach(livre -> facets.enregistre(livre.getId(), livre.getCategorie()));
+        event.supprimes().forEach(facets::supprime);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread thread = new Thread(this::load, "categorie-facets-load");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        try {
+            // Même parcours par lots que la reconstruction de l'index de recherche. Un livre modifié
+            // pendant le parcours garde la catégorie reçue par onLivreEvent ou onCatalogueModifie
+            long count = 0;
+            Long lastId = 0L;
+            List<Livre> batch;
+            while (!(batch = livreRepository.findTop1000ByIdGreaterThanOrderByIdAsc(lastId)).isEmpty()) {
+                batch.forEach(livre -> facets.charge(livre.getId(), livre.getCategorie()));
+                count += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            facets.markReady();
+            log.info("Facettes par catégorie chargées : {} livres en {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Échec du chargement des facettes, les compteurs restent calculés en SQL", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ma.mundiapolis.bookservice.facet;
+
+/**
+ * Filtres du catalogue et de la recherche : catégorie et auteur exacts, disponibilité d'après la
+ * projection locale des emprunts. Un champ null (ou vide) ne filtre pas.
+ */
+public record LivreFiltre(String categorie, String auteur, Boolean disponible) {
+
+    public static final LivreFiltre AUCUN = new LivreFiltre(null, null, null);
+
+    public LivreFiltre {
+        categorie = blankToNull(categorie);
+        auteur = blankToNull(auteur);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
@@ -0,0 +1,26 @@
+package ma.mundiapolis.bookservice.isbn;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ISBN-10 ou ISBN-13 bien formé et de clé de contrôle correcte (voir {@link Isbns#versIsbn13}).
+ * Null est accepté : c'est le rôle de {@code @NotBlank}.
+ */
+@Documented
+@Constraint(validatedBy = IsbnValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Isbn {
+    String message() default "ISBN invalide (format ou clé de contrôle)";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
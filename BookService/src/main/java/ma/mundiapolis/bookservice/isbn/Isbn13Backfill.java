@@ -0,0 +1,82 @@
+package ma.mundiapolis.bookservice.isbn;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.repository.LivreRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remplit isbn13 pour les livres enregistrés avant son ajout, au démarrage et avant d'accepter des
+ * requêtes : la recherche par ISBN et le contrôle des doublons ne lisent que cette colonne.
+ * <p>
+ * Un ISBN qui ne passe pas la clé de contrôle, ou qui double un autre livre une fois normalisé, reste
+ * sans isbn13 et est signalé dans les logs : il faut le corriger (PUT) pour qu'il soit trouvable.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class Isbn13Backfill {
+
+    private static final String UPDATE_SQL = "UPDATE livre SET isbn13 = ? WHERE id = ?";
+
+    // Injecter le repository garantit que Hibernate a déjà créé la colonne (ddl-auto: update)
+    private final LivreRepository livreRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void backfill() {
+        long start = System.nanoTime();
+        long remplis = 0;
+        List<Long> invalides = new ArrayList<>();
+        Long lastId = 0L;
+        List<Livre> batch;
+        while (!(batch = livreRepository.findTop1000ByIsbn13IsNullAndIdGreaterThanOrderByIdAsc(lastId)).isEmpty()) {
+            List<Object[]> updates = new ArrayList<>(batch.size());
+            for (Livre livre : batch) {
+                String isbn13 = Isbns.versIsbn13(livre.getIsbn());
+                if (isbn13 == null) {
+                    invalides.add(livre.getId());
+                } else {
+                    updates.add(new Object[]{isbn13, livre.getId()});
+                }
+            }
+            remplis += update(updates, invalides);
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        if (remplis > 0 || !invalides.isEmpty()) {
+            log.info("isbn13 rempli pour {} livres en {} ms", remplis, (System.nanoTime() - start) / 1_000_000);
+        }
+        if (!invalides.isEmpty()) {
+            log.warn("{} livres sans isbn13 (ISBN invalide ou en double une fois normalisé), IDs : {}",
+                    invalides.size(), invalides.size() > 100 ? invalides.subList(0, 100) + "..." : invalides);
+        }
+    }
+
+    private int update(List<Object[]> updates, List<Long> invalides) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            return updates.size();
+        } catch (DataIntegrityViolationException e) {
+            // Un doublon dans le lot : je reprends ligne par ligne pour ne laisser de côté que lui
+            int remplis = 0;
+            for (Object[] update : updates) {
+                try {
+                    remplis += jdbcTemplate.update(UPDATE_SQL, update);
+                } catch (DataIntegrityViolationException doublon) {
+                    invalides.add((Long) update[1]);
+                }
+            }
+            return remplis;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ma.mundiapolis.bookservice.isbn;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class IsbnValidator implements ConstraintValidator<Isbn, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || Isbns.estValide(value);
+    }
+}
@@ -0,0 +1,121 @@
+package ma.mundiapolis.bookservice.isbn;
+
+/**
+ * Forme canonique des ISBN : 13 chiffres sans séparateur, un ISBN-10 étant converti en ISBN-13 (978).
+ * <p>
+ * Accepte ce que l'ancienne expression régulière de {@code Livre.isbn} acceptait (préfixe « ISBN »,
+ * « ISBN-10: », « ISBN-13: », chiffres séparés par des tirets ou des espaces) en un seul parcours
+ * de la chaîne, et vérifie en plus la clé de contrôle.
+ */
+public final class Isbns {
+
+    private Isbns() {
+    }
+
+    /**
+     * « 978-2-07-036002-4 », « ISBN 2-07-036002-4 », « 2070360024 » → « 9782070360024 ».
+     * Null si l'ISBN est mal formé ou si sa clé de contrôle est fausse.
+     */
+    public static String versIsbn13(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        int debut = debut(isbn);
+        if (debut < 0) {
+            return null;
+        }
+        char[] chiffres = new char[13];
+        int n = 0;
+        boolean separateurPossible = false;
+        for (int i = debut; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9' || c == 'X' || c == 'x') {
+                if (n == 13) {
+                    return null;
+                }
+                chiffres[n++] = Character.toUpperCase(c);
+                separateurPossible = true;
+            } else if ((c == '-' || c == ' ') && separateurPossible) {
+                // Un séparateur seul entre deux chiffres
+                separateurPossible = false;
+            } else {
+                return null;
+            }
+        }
+        if (!separateurPossible) {
+            return null;
+        }
+        if (n == 10) {
+            return isbn10Valide(chiffres) ? convertir(chiffres) : null;
+        }
+        if (n == 13) {
+            return isbn13Valide(chiffres) ? new String(chiffres) : null;
+        }
+        return null;
+    }
+
+    public static boolean estValide(String isbn) {
+        return versIsbn13(isbn) != null;
+    }
+
+    // Longueur du préfixe « ISBN », « ISBN: », « ISBN-10: »... suivi d'une espace, 0 sans préfixe, -1 s'il est mal formé
+    private static int debut(String isbn) {
+        if (!isbn.startsWith("ISBN")) {
+            return 0;
+        }
+        int i = 4;
+        if (isbn.startsWith("-10", i) || isbn.startsWith("-13", i)) {
+            i += 3;
+        }
+        if (isbn.startsWith(":", i)) {
+            i++;
+        }
+        return isbn.startsWith(" ", i) ? i + 1 : -1;
+    }
+
+    private static boolean isbn10Valide(char[] chiffres) {
+        int somme = 0;
+        for (int i = 0; i < 10; i++) {
+            int valeur;
+            if (chiffres[i] == 'X') {
+                // X (10) seulement comme clé de contrôle
+                if (i != 9) {
+                    return false;
+                }
+                valeur = 10;
+            } else {
+                valeur = chiffres[i] - '0';
+            }
+            somme += (10 - i) * valeur;
+        }
+        return somme % 11 == 0;
+    }
+
+    private static boolean isbn13Valide(char[] chiffres) {
+        if (chiffres[0] != '9' || chiffres[1] != '7' || (chiffres[2] != '8' && chiffres[2] != '9')) {
+            return false;
+        }
+        int somme = 0;
+        for (int i = 0; i < 13; i++) {
+            if (chiffres[i] == 'X') {
+                return false;
+            }
+            somme += (i % 2 == 0 ? 1 : 3) * (chiffres[i] - '0');
+        }
+        return somme % 10 == 0;
+    }
+
+    private static String convertir(char[] isbn10) {
+        char[] isbn13 = new char[13];
+        isbn13[0] = '9';
+        isbn13[1] = '7';
+        isbn13[2] = '8';
+        System.arraycopy(isbn10, 0, isbn13, 3, 9);
+        int somme = 0;
+        for (int i = 0; i < 12; i++) {
+            somme += (i % 2 == 0 ? 1 : 3) * (isbn13[i] - '0');
+        }
+        isbn13[12] = (char) ('0' + (10 - somme % 10) % 10);
+        return new String(isbn13);
+    }
+}
@@ -22,10 +22,12 @@ public interface LivreMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "dateCreation", ignore = true)
     @Mapping(target = "dateModification", ignore = true)
+    @Mapping(target = "isbn13", ignore = true)
     Livre toEntity(LivreRequest request);
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "dateCreation", ignore = true)
     @Mapping(target = "dateModification", ignore = true)
+    @Mapping(target = "isbn13", ignore = true)
     void updateEntityFromRequest(LivreRequest request, @MappingTarget Livre livre);
 }
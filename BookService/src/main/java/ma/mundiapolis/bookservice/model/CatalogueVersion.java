@@ -0,0 +1,30 @@
+package ma.mundiapolis.bookservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version du catalogue, une seule ligne (ID 1) incrémentée dans la transaction de chaque écriture de
+ * livre. Partagée par toutes les instances de BookService : elle sert d'ETag aux listes du catalogue
+ * et numérote le flux des changements ({@link LivreChangement}).
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogueVersion {
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long version;
+
+    // Dernière version dont les suppressions ont été purgées du flux, null tant qu'aucune ne l'a été
+    private Long versionPurgee;
+}
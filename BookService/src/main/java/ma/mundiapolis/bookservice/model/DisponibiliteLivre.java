@@ -0,0 +1,33 @@
+package ma.mundiapolis.bookservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection locale de la disponibilité d'un livre, alimentée par le flux des emprunts d'EmpruntsService.
+ * Un livre sans ligne n'a jamais été emprunté.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibiliteLivre {
+    @Id
+    private Long livreId;
+
+    private boolean emprunte;
+
+    // Emprunt en cours, null si le livre est disponible
+    private Long empruntId;
+
+    // Séquence du flux qui a produit cet état : un changement plus ancien ne l'écrase jamais
+    private long sequence;
+
+    private LocalDateTime dateMaj;
+}
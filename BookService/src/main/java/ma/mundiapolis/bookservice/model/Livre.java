@@ -2,18 +2,30 @@ package ma.mundiapolis.bookservice.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ma.mundiapolis.bookservice.isbn.Isbn;
+import ma.mundiapolis.bookservice.isbn.Isbns;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
+// Un index par tri proposé, complété par l'ID comme le tri lui-même : chaque page est un parcours d'index
+@Table(indexes = {
+        @Index(name = "idx_livre_titre_id", columnList = "titre, id"),
+        @Index(name = "idx_livre_auteur_id", columnList = "auteur, id"),
+        @Index(name = "idx_livre_date_creation_id", columnList = "date_creation, id"),
+        // Filtres du catalogue (égalité puis tri par défaut) et comptage par catégorie en attendant les facettes
+        @Index(name = "idx_livre_categorie_titre_id", columnList = "categorie, titre, id"),
+        @Index(name = "idx_livre_auteur_titre_id", columnList = "auteur, titre, id"),
+        // ISBN-13 canonique : recherche par ISBN (douchette), unicité et contrôle des doublons à l'import
+        @Index(name = "idx_livre_isbn13", columnList = "isbn13", unique = true)
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -36,12 +48,22 @@ public class Livre {
     private String categorie;
     
     @NotBlank
-    @Pattern(regexp = "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$", message = "Format ISBN invalide")
+    @Isbn
     private String isbn;
+
+    // L'ISBN saisi converti en ISBN-13 sans séparateurs, recalculé à chaque enregistrement
+    @Column(length = 13)
+    private String isbn13;
     
     @CreationTimestamp
     private LocalDateTime dateCreation;
     
     @UpdateTimestamp
     private LocalDateTime dateModification;
+
+    @PrePersist
+    @PreUpdate
+    void normaliserIsbn() {
+        isbn13 = Isbns.versIsbn13(isbn);
+    }
 }
@@ -0,0 +1,36 @@
+package ma.mundiapolis.bookservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dernier changement de chaque livre, lu par les clients qui tiennent une copie du catalogue
+ * (/api/books/changes). Une ligne par livre, réécrite avec une nouvelle version du catalogue à chaque
+ * enregistrement : le flux est proportionnel aux livres modifiés, pas au nombre de modifications.
+ * Un livre supprimé garde sa ligne ({@code supprime}) pendant {@code livre.changes.retention}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_livre_changement_version", columnList = "version"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivreChangement {
+    // Pas de génération : les IDs de livres ne sont jamais réutilisés
+    @Id
+    private Long livreId;
+
+    private long version;
+
+    private boolean supprime;
+
+    private LocalDateTime dateChangement;
+}
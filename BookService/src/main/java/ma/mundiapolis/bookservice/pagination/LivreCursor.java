@@ -0,0 +1,46 @@
+package ma.mundiapolis.bookservice.pagination;
+
+import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Jeton de continuation : position du dernier livre renvoyé (valeur de tri et ID).
+ * Le client le reçoit dans {@code nextCursor} et le renvoie tel quel dans {@code cursor} ; il est encodé en
+ * base64url pour rester opaque et ne pas figer son format.
+ *
+ * @param source  catalogue (SQL) ou recherche (index) : les valeurs de tri n'y ont pas la même forme
+ * @param lastValue valeur de tri du dernier livre, au format de la source
+ */
+public record LivreCursor(Source source, LivreSort sort, long lastId, String lastValue) {
+
+    public enum Source {
+        CATALOGUE,
+        RECHERCHE
+    }
+
+    public String encode() {
+        String raw = source.name() + "|" + sort.name() + "|" + lastId + "|" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu du client ; il doit avoir été émis pour la même source et le même tri.
+     */
+    public static LivreCursor decode(String token, Source expectedSource, LivreSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // La valeur est en dernier : elle peut contenir le séparateur
+            String[] parts = raw.split("\\|", 4);
+            LivreCursor cursor = new LivreCursor(Source.valueOf(parts[0]), LivreSort.valueOf(parts[1]),
+                    Long.parseLong(parts[2]), parts[3]);
+            if (cursor.source != expectedSource || cursor.sort != expectedSort) {
+                throw new BusinessRuleException("Curseur émis pour un autre tri ou une autre liste");
+            }
+            return cursor;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BusinessRuleException("Curseur de pagination invalide");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ma.mundiapolis.bookservice.pagination;
+
+import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Tris proposés pour le catalogue et la recherche (paramètre {@code sort}). Le sens est fixé par tri,
+ * et l'ID départage les égalités : c'est ce qui rend la pagination par curseur stable.
+ */
+public enum LivreSort {
+
+    // Recherche uniquement : score de l'index plein texte
+    PERTINENCE("pertinence", Sort.Direction.DESC),
+    TITRE("titre", Sort.Direction.ASC),
+    AUTEUR("auteur", Sort.Direction.ASC),
+    // Les plus récents d'abord
+    DATE_CREATION("dateCreation", Sort.Direction.DESC);
+
+    private final String param;
+    private final Sort.Direction direction;
+
+    LivreSort(String param, Sort.Direction direction) {
+        this.param = param;
+        this.direction = direction;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public Sort.Direction direction() {
+        return direction;
+    }
+
+    /**
+     * Tri JPA correspondant, complété par l'ID dans le même sens (index (colonne, id)).
+     */
+    public Sort toSort() {
+        return Sort.by(direction, param, "id");
+    }
+
+    public static LivreSort fromParam(String value, LivreSort defaultSort) {
+        if (value == null || value.isBlank()) {
+            return defaultSort;
+        }
+        return Arrays.stream(values())
+                .filter(sort -> sort.param.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new BusinessRuleException("Tri inconnu : " + value + " (valeurs possibles : "
+                        + Arrays.stream(values()).map(LivreSort::param).collect(Collectors.joining(", ")) + ")"));
+    }
+}
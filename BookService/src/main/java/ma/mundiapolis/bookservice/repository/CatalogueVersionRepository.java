@@ -0,0 +1,29 @@
+package ma.mundiapolis.bookservice.repository;
+
+import ma.mundiapolis.bookservice.model.CatalogueVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogueVersionRepository extends JpaRepository<CatalogueVersion, Long> {
+    @Query("select v.version from CatalogueVersion v where v.id = 1")
+    Optional<Long> findVersion();
+
+    @Query("select v.versionPurgee from CatalogueVersion v where v.id = 1")
+    Optional<Long> findVersionPurgee();
+
+    // Verrouille la ligne jusqu'au commit : deux écritures concurrentes donnent des versions distinctes, et
+    // elles sont visibles dans l'ordre des versions. Avance de n pour réserver une version par livre d'un lot
+    @Modifying
+    @Query("update CatalogueVersion v set v.version = v.version + :n where v.id = 1")
+    int increment(@Param("n") long n);
+
+    @Modifying
+    @Query("update CatalogueVersion v set v.versionPurgee = :version where v.id = 1 and (v.versionPurgee is null or v.versionPurgee < :version)")
+    int updateVersionPurgee(@Param("version") long version);
+}
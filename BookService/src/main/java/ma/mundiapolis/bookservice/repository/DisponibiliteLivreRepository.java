@@ -0,0 +1,51 @@
+package ma.mundiapolis.bookservice.repository;
+
+import ma.mundiapolis.bookservice.model.DisponibiliteLivre;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+@Repository
+public interface DisponibiliteLivreRepository extends JpaRepository<DisponibiliteLivre, Long> {
+    @Query("select d.livreId from DisponibiliteLivre d where d.emprunte = true and d.livreId in :livreIds")
+    Set<Long> findLivresEmpruntes(@Param("livreIds") Collection<Long> livreIds);
+
+    @Query("select d.livreId from DisponibiliteLivre d where d.emprunte = true")
+    Set<Long> findTousLivresEmpruntes();
+
+    @Query("select d.livreId from DisponibiliteLivre d where d.livreId in :livreIds")
+    Set<Long> findLivresConnus(@Param("livreIds") Collection<Long> livreIds);
+
+    // Ligne vierge (séquence 0, disponible) : sans effet si une autre instance l'a créée entre-temps
+    @Modifying
+    @Query("insert into DisponibiliteLivre (livreId, emprunte, sequence) values (:livreId, false, 0) on conflict do nothing")
+    int creerSiAbsente(@Param("livreId") Long livreId);
+
+    // La condition sur la séquence est évaluée sur la ligne verrouillée : un changement plus ancien,
+    // même commité après un plus récent par une autre instance, ne touche à rien
+    @Modifying
+    @Query("update DisponibiliteLivre d set d.emprunte = :emprunte, d.empruntId = :empruntId, d.sequence = :sequence,"
+            + " d.dateMaj = :dateMaj where d.livreId = :livreId and d.sequence < :sequence")
+    int appliquer(@Param("livreId") Long livreId, @Param("emprunte") boolean emprunte,
+                  @Param("empruntId") Long empruntId, @Param("sequence") long sequence,
+                  @Param("dateMaj") LocalDateTime dateMaj);
+
+    @Modifying
+    @Query("update DisponibiliteLivre d set d.emprunte = false, d.empruntId = null, d.sequence = :sequence,"
+            + " d.dateMaj = :dateMaj where d.livreId = :livreId and d.emprunte = true and d.sequence <= :sequence")
+    int corrigerRendu(@Param("livreId") Long livreId, @Param("sequence") long sequence,
+                      @Param("dateMaj") LocalDateTime dateMaj);
+
+    @Modifying
+    @Query("update DisponibiliteLivre d set d.emprunte = true, d.empruntId = :empruntId, d.sequence = :sequence,"
+            + " d.dateMaj = :dateMaj where d.livreId = :livreId and d.sequence <= :sequence"
+            + " and (d.emprunte = false or d.empruntId is null or d.empruntId <> :empruntId)")
+    int corrigerEmprunte(@Param("livreId") Long livreId, @Param("empruntId") Long empruntId,
+                         @Param("sequence") long sequence, @Param("dateMaj") LocalDateTime dateMaj);
+}
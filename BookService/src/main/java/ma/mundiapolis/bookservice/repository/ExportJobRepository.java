@@ -0,0 +1,31 @@
+package ma.mundiapolis.bookservice.repository;
+
+import ma.mundiapolis.bookservice.export.ExportJob;
+import ma.mundiapolis.bookservice.export.ExportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, String> {
+    List<ExportJob> findAllByOrderByCreatedAtDesc();
+
+    // Exports à purger : créés avant la limite de rétention, quel que soit leur statut
+    List<ExportJob> findByCreatedAtBefore(LocalDateTime limite);
+
+    // Exports en cours sans nouvelles de leur instance
+    List<ExportJob> findByStatusInAndUpdatedAtBefore(Collection<ExportStatus> statuts, LocalDateTime limite);
+
+    // Progression et signe de vie de l'instance qui exécute l'export, sans toucher au statut
+    @Transactional
+    @Modifying
+    @Query("update ExportJob j set j.exportedRows = :rows, j.updatedAt = :now where j.id = :id")
+    int heartbeat(@Param("id") String id, @Param("rows") long rows, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,26 @@
+package ma.mundiapolis.bookservice.repository;
+
+import ma.mundiapolis.bookservice.model.LivreChangement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LivreChangementRepository extends JpaRepository<LivreChangement, Long> {
+    // Lecture du flux à partir d'une version, par ordre croissant (index idx_livre_changement_version)
+    List<LivreChangement> findByVersionGreaterThanOrderByVersionAsc(long version, Limit limit);
+
+    @Query("select max(c.version) from LivreChangement c where c.supprime = true and c.dateChangement < :avant")
+    Optional<Long> findDerniereSuppressionAnterieure(@Param("avant") LocalDateTime avant);
+
+    @Modifying
+    @Query("delete from LivreChangement c where c.supprime = true and c.version <= :version")
+    int deleteSuppressionsJusqua(@Param("version") long version);
+}
@@ -2,14 +2,32 @@ package ma.mundiapolis.bookservice.repository;
 
 import ma.mundiapolis.bookservice.model.Livre;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+// Catalogue (pagination par clé) et recherche de secours : findBy(LivreSpecifications..., requête)
 @Repository
-public interface LivreRepository extends JpaRepository<Livre, Long> {
-    List<Livre> findByTitreContainingIgnoreCaseOrAuteurContainingIgnoreCase(String titre, String auteur);
-    Optional<Livre> findByIsbn(String isbn);
-    boolean existsByIsbn(String isbn);
+public interface LivreRepository extends JpaRepository<Livre, Long>, JpaSpecificationExecutor<Livre> {
+    // Par ISBN-13 canonique (Isbns.versIsbn13) : une lecture de l'index unique idx_livre_isbn13
+    @Query("select l.id from Livre l where l.isbn13 = :isbn13")
+    Optional<Long> findIdByIsbn13(@Param("isbn13") String isbn13);
+    boolean existsByIsbn13(String isbn13);
+    List<Livre> findTop5ByOrderByDateCreationDesc();
+    // Nombre de livres par catégorie, tant que les facettes en mémoire ne sont pas chargées
+    @Query("select l.categorie, count(l) from Livre l group by l.categorie")
+    List<Object[]> countByCategorie();
+    // Parmi ces IDs, ceux qui existent (une requête pour toute une page de livres)
+    @Query("select l.id from Livre l where l.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    // Parcours du catalogue par lots pour reconstruire l'index de recherche
+    List<Livre> findTop1000ByIdGreaterThanOrderByIdAsc(Long id);
+    // Livres enregistrés avant la colonne isbn13, pour la remplir au démarrage
+    List<Livre> findTop1000ByIsbn13IsNullAndIdGreaterThanOrderByIdAsc(Long id);
 }
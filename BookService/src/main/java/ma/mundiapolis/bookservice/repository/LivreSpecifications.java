@@ -0,0 +1,55 @@
+package ma.mundiapolis.bookservice.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import ma.mundiapolis.bookservice.facet.LivreFiltre;
+import ma.mundiapolis.bookservice.model.DisponibiliteLivre;
+import ma.mundiapolis.bookservice.model.Livre;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères du catalogue. Catégorie et auteur sont des égalités, servies par les index
+ * (categorie, titre, id) et (auteur, titre, id) ; la disponibilité est un NOT EXISTS sur la clé
+ * primaire de la projection des emprunts.
+ */
+public final class LivreSpecifications {
+
+    private LivreSpecifications() {
+    }
+
+    public static Specification<Livre> filtre(LivreFiltre filtre) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filtre.categorie() != null) {
+                predicates.add(cb.equal(root.get("categorie"), filtre.categorie()));
+            }
+            if (filtre.auteur() != null) {
+                predicates.add(cb.equal(root.get("auteur"), filtre.auteur()));
+            }
+            if (filtre.disponible() != null) {
+                Subquery<Long> emprunte = query.subquery(Long.class);
+                Root<DisponibiliteLivre> disponibilite = emprunte.from(DisponibiliteLivre.class);
+                emprunte.select(disponibilite.get("livreId"))
+                        .where(cb.equal(disponibilite.get("livreId"), root.get("id")),
+                                cb.isTrue(disponibilite.get("emprunte")));
+                predicates.add(filtre.disponible() ? cb.not(cb.exists(emprunte)) : cb.exists(emprunte));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Recherche de secours tant que l'index plein texte n'est pas prêt
+    public static Specification<Livre> titreOuAuteurContient(String texte) {
+        String pattern = "%" + texte.toUpperCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.upper(root.get("titre")), pattern, '\\'),
+                cb.like(cb.upper(root.get("auteur")), pattern, '\\'));
+    }
+}
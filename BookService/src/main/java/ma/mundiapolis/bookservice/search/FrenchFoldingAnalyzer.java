@@ -0,0 +1,37 @@
+package ma.mundiapolis.bookservice.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchLightStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.util.ElisionFilter;
+
+/**
+ * Analyseur français qui ignore les accents : « Misérables », « miserables » et « MISÉRABLE »
+ * donnent le même terme. FrenchAnalyzer garde les accents, d'où cette chaîne à la main :
+ * élisions (l', d'...), minuscules, mots vides, suppression des accents puis racinisation légère.
+ */
+public class FrenchFoldingAnalyzer extends Analyzer {
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer source = new StandardTokenizer();
+        TokenStream result = new ElisionFilter(source, FrenchAnalyzer.DEFAULT_ARTICLES);
+        result = new LowerCaseFilter(result);
+        // Avant le ASCIIFoldingFilter : la liste des mots vides est accentuée (« à », « été »...)
+        result = new StopFilter(result, FrenchAnalyzer.getDefaultStopSet());
+        result = new ASCIIFoldingFilter(result);
+        result = new FrenchLightStemFilter(result);
+        return new TokenStreamComponents(source, result);
+    }
+
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+    }
+}
@@ -0,0 +1,13 @@
+package ma.mundiapolis.bookservice.search;
+
+import ma.mundiapolis.bookservice.pagination.LivreCursor;
+
+import java.util.List;
+
+/**
+ * Une page de résultats de l'index : les IDs des livres dans l'ordre du tri demandé.
+ *
+ * @param next position du dernier livre de la page, null s'il n'y a pas de page suivante
+ */
+public record LivreSearchHits(long total, List<Long> livreIds, LivreCursor next) {
+}
@@ -0,0 +1,346 @@
+package ma.mundiapolis.bookservice.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+import ma.mundiapolis.bookservice.facet.LivreFiltre;
+import ma.mundiapolis.bookservice.isbn.Isbns;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.pagination.LivreCursor;
+import ma.mundiapolis.bookservice.pagination.LivreSort;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index inversé Lucene du catalogue (titre, auteur, catégorie, ISBN), classé par pertinence (BM25).
+ * <p>
+ * L'index ne fait pas autorité : il est recréé vide au démarrage puis reconstruit depuis la base par
+ * {@link LivreSearchIndexer}, qui le tient ensuite à jour après chaque commit. Tant qu'il n'est pas
+ * prêt ({@link #isReady()}), LivreService reste sur la requête SQL.
+ */
+@Component
+@Slf4j
+public class LivreSearchIndex {
+
+    static final String ID = "id";
+    static final String TITRE = "titre";
+    static final String AUTEUR = "auteur";
+    static final String CATEGORIE = "categorie";
+    static final String ISBN = "isbn";
+    // Valeurs exactes (sans accents ni casse) des filtres de catégorie et d'auteur
+    static final String CATEGORIE_FILTRE = "categorie_filtre";
+    static final String AUTEUR_FILTRE = "auteur_filtre";
+    // Valeurs de tri (doc values) : la pagination par curseur reprend après le dernier livre renvoyé
+    static final String ID_TRI = "id_tri";
+    static final String TITRE_TRI = "titre_tri";
+    static final String AUTEUR_TRI = "auteur_tri";
+    static final String DATE_CREATION_TRI = "date_creation_tri";
+
+    // Un terme trouvé dans le titre compte plus que dans l'auteur, puis la catégorie
+    private static final Map<String, Float> BOOSTS = Map.of(TITRE, 3f, AUTEUR, 2f, CATEGORIE, 1f);
+
+    // Au-delà, une requête utilisateur n'est plus du texte libre : je tronque
+    private static final int MAX_TERMS = 16;
+
+    // En dessous, un préfixe (« m* ») ramène une bonne partie du vocabulaire
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private final Analyzer analyzer = new FrenchFoldingAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    public LivreSearchIndex(@Value("${search.index.path:}") String indexPath) throws IOException {
+        // Sans chemin, l'index reste en mémoire ; sur disque il est mappé hors du heap
+        this.directory = indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Ajoute ou remplace le document du livre. Visible après {@link #refresh()}.
+     */
+    public void index(Livre livre) {
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(livre.getId())), toDocument(livre));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(Long livreId) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(livreId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rend les dernières écritures visibles aux recherches suivantes (sans commit disque).
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Recherche plein texte : chaque mot doit apparaître dans le titre, l'auteur ou la catégorie, le
+     * dernier pouvant être un début de mot. Un ISBN (avec ou sans tirets) trouve aussi le livre.
+     * La page suivante reprend après {@code after} (searchAfter) : son coût ne dépend pas de la profondeur.
+     *
+     * @param empruntes livres empruntés, requis seulement si le filtre porte sur la disponibilité
+     */
+    public LivreSearchHits search(String text, LivreFiltre filtre, Collection<Long> empruntes,
+                                  LivreSort sort, LivreCursor after, int limit) {
+        Query query = withFiltre(buildQuery(text), filtre, empruntes);
+        if (query == null) {
+            return new LivreSearchHits(0, List.of(), null);
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int maxDoc = searcher.getIndexReader().maxDoc();
+                if (maxDoc == 0) {
+                    return new LivreSearchHits(0, List.of(), null);
+                }
+                // Un résultat de plus que demandé : il dit s'il existe une page suivante
+                TopFieldDocs top = searcher.searchAfter(after == null ? null : toFieldDoc(after, maxDoc), query,
+                        limit + 1, luceneSort(sort), sort == LivreSort.PERTINENCE);
+                // Lucene arrête de compter à 1000 résultats : je ne recompte que dans ce cas
+                long total = top.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                        ? top.totalHits.value
+                        : searcher.count(query);
+                int size = Math.min(top.scoreDocs.length, limit);
+                List<Long> ids = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    ids.add(idOf((FieldDoc) top.scoreDocs[i]));
+                }
+                LivreCursor next = top.scoreDocs.length > limit ? toCursor(sort, (FieldDoc) top.scoreDocs[limit - 1]) : null;
+                return new LivreSearchHits(total, ids, next);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // L'ID termine toujours le tri : deux livres ne sont jamais à égalité, le curseur est sans ambiguïté
+    private static Sort luceneSort(LivreSort sort) {
+        return switch (sort) {
+            case PERTINENCE -> new Sort(SortField.FIELD_SCORE, new SortField(ID_TRI, SortField.Type.LONG));
+            case TITRE -> new Sort(new SortField(TITRE_TRI, SortField.Type.STRING), new SortField(ID_TRI, SortField.Type.LONG));
+            case AUTEUR -> new Sort(new SortField(AUTEUR_TRI, SortField.Type.STRING), new SortField(ID_TRI, SortField.Type.LONG));
+            case DATE_CREATION -> new Sort(new SortField(DATE_CREATION_TRI, SortField.Type.LONG, true),
+                    new SortField(ID_TRI, SortField.Type.LONG, true));
+        };
+    }
+
+    private static long idOf(FieldDoc doc) {
+        return (Long) doc.fields[doc.fields.length - 1];
+    }
+
+    private static LivreCursor toCursor(LivreSort sort, FieldDoc last) {
+        Object value = last.fields[0];
+        String lastValue = switch (sort) {
+            // Les bits exacts du score : une représentation décimale arrondie décalerait la reprise
+            case PERTINENCE -> Integer.toHexString(Float.floatToIntBits((Float) value));
+            case TITRE, AUTEUR -> ((BytesRef) value).utf8ToString();
+            case DATE_CREATION -> value.toString();
+        };
+        return new LivreCursor(LivreCursor.Source.RECHERCHE, sort, idOf(last), lastValue);
+    }
+
+    private static FieldDoc toFieldDoc(LivreCursor cursor, int maxDoc) {
+        try {
+            Object value = switch (cursor.sort()) {
+                case PERTINENCE -> Float.intBitsToFloat(Integer.parseUnsignedInt(cursor.lastValue(), 16));
+                case TITRE, AUTEUR -> new BytesRef(cursor.lastValue());
+                case DATE_CREATION -> Long.parseLong(cursor.lastValue());
+            };
+            // À valeurs égales, Lucene reprend après le numéro de document. Seul le dernier livre renvoyé est
+            // égal sur (valeur, id) : avec le plus grand numéro possible, il est exclu et rien d'autre
+            return new FieldDoc(maxDoc - 1, Float.NaN, new Object[]{value, cursor.lastId()});
+        } catch (NumberFormatException e) {
+            throw new BusinessRuleException("Curseur de pagination invalide");
+        }
+    }
+
+    Query buildQuery(String text) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+
+        List<String> terms = analyze(text);
+        if (!terms.isEmpty()) {
+            BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+            for (int i = 0; i < terms.size(); i++) {
+                allTerms.add(anyField(terms.get(i), i == terms.size() - 1), Occur.MUST);
+            }
+            query.add(allTerms.build(), Occur.SHOULD);
+        }
+
+        String isbn = normalizeIsbn(text);
+        if (isbn.length() == 10 || isbn.length() == 13) {
+            query.add(new BoostQuery(new TermQuery(new Term(ISBN, isbn)), 10f), Occur.SHOULD);
+        }
+        // Un ISBN-10 trouve aussi le livre saisi en ISBN-13, et inversement
+        String isbn13 = Isbns.versIsbn13(text.strip());
+        if (isbn13 != null && !isbn13.equals(isbn)) {
+            query.add(new BoostQuery(new TermQuery(new Term(ISBN, isbn13)), 10f), Occur.SHOULD);
+        }
+
+        BooleanQuery built = query.build();
+        return built.clauses().isEmpty() ? null : built;
+    }
+
+    // Les filtres restreignent les résultats sans changer leur score
+    private Query withFiltre(Query query, LivreFiltre filtre, Collection<Long> empruntes) {
+        if (query == null || filtre == null) {
+            return query;
+        }
+        BooleanQuery.Builder filtered = new BooleanQuery.Builder().add(query, Occur.MUST);
+        if (filtre.categorie() != null) {
+            filtered.add(new TermQuery(new Term(CATEGORIE_FILTRE, analyzer.normalize(CATEGORIE, filtre.categorie()))), Occur.FILTER);
+        }
+        if (filtre.auteur() != null) {
+            filtered.add(new TermQuery(new Term(AUTEUR_FILTRE, analyzer.normalize(AUTEUR, filtre.auteur()))), Occur.FILTER);
+        }
+        if (filtre.disponible() != null) {
+            List<BytesRef> ids = empruntes.stream().map(id -> new BytesRef(String.valueOf(id))).toList();
+            filtered.add(new TermInSetQuery(ID, ids), filtre.disponible() ? Occur.MUST_NOT : Occur.FILTER);
+        }
+        return filtered.build();
+    }
+
+    private static Query anyField(String term, boolean last) {
+        BooleanQuery.Builder fields = new BooleanQuery.Builder();
+        BOOSTS.forEach((field, boost) -> {
+            fields.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), Occur.SHOULD);
+            // Recherche pendant la frappe : « miser » trouve « Misérables », un mot entier reste mieux classé
+            if (last && term.length() >= MIN_PREFIX_LENGTH) {
+                fields.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost / 2), Occur.SHOULD);
+            }
+        });
+        return fields.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITRE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_TERMS) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private Document toDocument(Livre livre) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(livre.getId()), Field.Store.NO));
+        document.add(new TextField(TITRE, nullToEmpty(livre.getTitre()), Field.Store.NO));
+        document.add(new TextField(AUTEUR, nullToEmpty(livre.getAuteur()), Field.Store.NO));
+        document.add(new TextField(CATEGORIE, nullToEmpty(livre.getCategorie()), Field.Store.NO));
+        String isbn = normalizeIsbn(livre.getIsbn());
+        document.add(new StringField(ISBN, isbn, Field.Store.NO));
+        if (livre.getIsbn13() != null && !livre.getIsbn13().equals(isbn)) {
+            document.add(new StringField(ISBN, livre.getIsbn13(), Field.Store.NO));
+        }
+        document.add(new StringField(CATEGORIE_FILTRE, analyzer.normalize(CATEGORIE, nullToEmpty(livre.getCategorie())), Field.Store.NO));
+        document.add(new StringField(AUTEUR_FILTRE, analyzer.normalize(AUTEUR, nullToEmpty(livre.getAuteur())), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID_TRI, livre.getId()));
+        // Tri sans accents ni casse : « Écume » entre « Dune » et « Fondation »
+        document.add(new SortedDocValuesField(TITRE_TRI, analyzer.normalize(TITRE, nullToEmpty(livre.getTitre()))));
+        document.add(new SortedDocValuesField(AUTEUR_TRI, analyzer.normalize(AUTEUR, nullToEmpty(livre.getAuteur()))));
+        document.add(new NumericDocValuesField(DATE_CREATION_TRI, epochMillis(livre.getDateCreation())));
+        return document;
+    }
+
+    // « 978-2-07-036002-4 », « ISBN 9782070360024 » -> « 9782070360024 »
+    static String normalizeIsbn(String isbn) {
+        if (isbn == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(13);
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (Character.isDigit(c) || c == 'X' || c == 'x') {
+                normalized.append(Character.toUpperCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        log.debug("Index de recherche fermé");
+    }
+}
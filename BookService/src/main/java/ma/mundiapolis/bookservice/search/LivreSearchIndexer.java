@@ -0,0 +1,99 @@
+package ma.mundiapolis.bookservice.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.event.CatalogueModifieEvent;
+import ma.mundiapolis.bookservice.event.LivreEvent;
+import ma.mundiapolis.bookservice.event.LivresImportesEvent;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.repository.LivreRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Alimente {@link LivreSearchIndex} : reconstruction complète en tâche de fond au démarrage, mise à
+ * jour livre par livre après chaque commit de cette instance, puis pour toutes les instances depuis le
+ * flux du catalogue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LivreSearchIndexer {
+
+    private final LivreRepository livreRepository;
+    private final LivreSearchIndex searchIndex;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLivreEvent(LivreEvent event) {
+        try {
+            if (event.type() == LivreEvent.Type.SUPPRIME) {
+                searchIndex.delete(event.livreId());
+            } else {
+                searchIndex.index(event.livre());
+            }
+            searchIndex.refresh();
+        } catch (RuntimeException e) {
+            // La base est déjà à jour : l'écart sera rattrapé par la prochaine reconstruction
+            log.warn("Index de recherche non mis à jour pour le livre {} : {}", event.livreId(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLivresImportes(LivresImportesEvent event) {
+        try {
+            event.livres().forEach(searchIndex::index);
+            searchIndex.refresh();
+        } catch (RuntimeException e) {
+            log.warn("Index de recherche non mis à jour pour {} livres importés : {}", event.livres().size(), e.getMessage());
+        }
+    }
+
+    // Écritures de toutes les instances, lues dans le flux du catalogue
+    @EventListener
+    public void onCatalogueModifie(CatalogueModifieEvent event) {
+        try {
+            event.enregistres().forEach(searchIndex::index);
+            event.supprimes().forEach(searchIndex::delete);
+            searchIndex.refresh();
+        } catch (RuntimeException e) {
+            log.warn("Index de recherche non mis à jour pour {} livres du flux : {}",
+                    event.enregistres().size() + event.supprimes().size(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        // Le service répond dès le démarrage : la recherche passe par SQL jusqu'à la fin de la reconstruction
+        Thread thread = new Thread(this::rebuild, "livre-search-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void rebuild() {
+        long start = System.nanoTime();
+        try {
+            // Parcours par ID croissant, 1000 livres à la fois : mémoire constante quelle que soit la taille
+            // du catalogue. Une modification commitée pendant le parcours, sur cette instance ou une autre,
+            // est appliquée ensuite par onCatalogueModifie ; un livre supprimé juste après sa lecture peut
+            // rester dans l'index, mais LivreService ne renvoie que les livres encore présents en base.
+            long count = 0;
+            Long lastId = 0L;
+            List<Livre> batch;
+            while (!(batch = livreRepository.findTop1000ByIdGreaterThanOrderByIdAsc(lastId)).isEmpty()) {
+                batch.forEach(searchIndex::index);
+                count += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            searchIndex.refresh();
+            searchIndex.markReady();
+            log.info("Index de recherche reconstruit : {} livres en {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Échec de la reconstruction de l'index de recherche, la recherche reste en SQL", e);
+        }
+    }
+}
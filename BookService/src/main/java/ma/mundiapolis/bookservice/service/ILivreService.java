@@ -1,16 +1,41 @@
 package ma.mundiapolis.bookservice.service;
 
+import ma.mundiapolis.bookservice.cache.LivreJson;
+import ma.mundiapolis.bookservice.dto.LivreFacetsResponse;
+import ma.mundiapolis.bookservice.dto.LivrePageResponse;
 import ma.mundiapolis.bookservice.dto.LivreRequest;
 import ma.mundiapolis.bookservice.dto.LivreResponse;
+import ma.mundiapolis.bookservice.dto.LivreSearchResponse;
+import ma.mundiapolis.bookservice.dto.LivreStatsResponse;
+import ma.mundiapolis.bookservice.dto.SuggestionResponse;
+import ma.mundiapolis.bookservice.facet.LivreFiltre;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public interface ILivreService {
     LivreResponse createLivre(LivreRequest livreRequest);
     LivreResponse updateLivre(Long id, LivreRequest livreRequest);
     LivreResponse getLivreById(Long id);
+    // Le même livre déjà sérialisé en JSON, avec son ETag
+    LivreJson getLivreJsonById(Long id);
+    LivreResponse getLivreByIsbn(String isbn);
     List<LivreResponse> getAllLivres();
-    List<LivreResponse> searchLivres(String query);
+    LivrePageResponse getLivres(String sort, String cursor, int size, LivreFiltre filtre);
+    // Change à chaque écriture de livre, sur n'importe quelle instance : ETag des listes du catalogue
+    long getCatalogueVersion();
+    LivreSearchResponse searchLivres(String query, String sort, String cursor, int size, LivreFiltre filtre);
+    LivreFacetsResponse getFacets();
+    List<SuggestionResponse> suggest(String prefix, int limit);
     void deleteLivre(Long id);
     boolean checkAvailability(Long id);
+    // Disponibilité d'après la projection locale, vide tant qu'elle n'est pas prête (404 si le livre n'existe pas)
+    Optional<Boolean> checkAvailabilityLocally(Long id);
+    Map<Long, Boolean> checkAvailability(List<Long> ids);
+    // Livres empruntés selon EmpruntsService (null si injoignable), lus seulement si la projection n'est pas prête
+    Map<Long, Boolean> checkAvailability(List<Long> ids, Supplier<Set<Long>> empruntesDistants);
+    LivreStatsResponse getStats();
 }
@@ -0,0 +1,188 @@
+package ma.mundiapolis.bookservice.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.dto.LivreChangeResponse;
+import ma.mundiapolis.bookservice.dto.LivreChangesResponse;
+import ma.mundiapolis.bookservice.dto.LivreResponse;
+import ma.mundiapolis.bookservice.event.LivreEvent;
+import ma.mundiapolis.bookservice.event.LivresImportesEvent;
+import ma.mundiapolis.bookservice.exception.ChangesExpiredException;
+import ma.mundiapolis.bookservice.mapper.LivreMapper;
+import ma.mundiapolis.bookservice.model.CatalogueVersion;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.model.LivreChangement;
+import ma.mundiapolis.bookservice.repository.CatalogueVersionRepository;
+import ma.mundiapolis.bookservice.repository.LivreChangementRepository;
+import ma.mundiapolis.bookservice.repository.LivreRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Version du catalogue et flux des changements de livres, pour les clients qui gardent une copie locale
+ * du catalogue (bornes hors ligne, frontend) : ils ne relisent que ce qui a changé depuis leur version.
+ * <p>
+ * Chaque écriture de livre (ajout, modification, suppression, lot d'import) réserve avant son commit une
+ * version par livre et réécrit la ligne {@link LivreChangement} du livre dans la même transaction. Une
+ * suppression laisse une ligne marquée {@code supprime}, purgée après {@code livre.changes.retention}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LivreChangeService {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final String INSERT_SQL =
+            "INSERT INTO livre_changement (livre_id, version, supprime, date_changement) VALUES (?, ?, ?, ?)";
+    private static final String SANS_CHANGEMENT_SQL = "SELECT l.id FROM livre l WHERE l.id > ?"
+            + " AND NOT EXISTS (SELECT 1 FROM livre_changement c WHERE c.livre_id = l.id) ORDER BY l.id LIMIT 1000";
+
+    private final CatalogueVersionRepository catalogueVersionRepository;
+    private final LivreChangementRepository livreChangementRepository;
+    private final LivreRepository livreRepository;
+    private final LivreMapper livreMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${livre.changes.retention:P30D}")
+    private Duration retention;
+
+    @PostConstruct
+    void init() {
+        if (!catalogueVersionRepository.existsById(CatalogueVersion.ID)) {
+            try {
+                catalogueVersionRepository.save(CatalogueVersion.builder().id(CatalogueVersion.ID).version(0).build());
+            } catch (DataIntegrityViolationException e) {
+                // Une autre instance démarrée en même temps l'a créée
+                log.debug("Version du catalogue déjà créée : {}", e.getMessage());
+            }
+        }
+        backfill();
+    }
+
+    // Livres enregistrés avant le flux : une version chacun, pour qu'un client parti de since=0 les reçoive
+    private void backfill() {
+        long total = 0;
+        long lastId = 0;
+        List<Long> ids;
+        while (!(ids = jdbcTemplate.queryForList(SANS_CHANGEMENT_SQL, Long.class, lastId)).isEmpty()) {
+            List<Long> lot = ids;
+            try {
+                transactionTemplate.executeWithoutResult(status -> enregistrer(lot));
+            } catch (DataIntegrityViolationException e) {
+                // Une autre instance remplit le flux en même temps
+                log.debug("Flux du catalogue déjà rempli par une autre instance : {}", e.getMessage());
+                return;
+            }
+            total += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        if (total > 0) {
+            log.info("Flux du catalogue : {} livres existants ajoutés", total);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onLivreEvent(LivreEvent event) {
+        livreChangementRepository.save(LivreChangement.builder()
+                .livreId(event.livreId())
+                .version(reserver(1))
+                .supprime(event.type() == LivreEvent.Type.SUPPRIME)
+                .dateChangement(LocalDateTime.now())
+                .build());
+    }
+
+    // Livres nouveaux (l'import n'écrase rien) : insertion JDBC par lot, sans lecture préalable
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onLivresImportes(LivresImportesEvent event) {
+        enregistrer(event.livres().stream().map(Livre::getId).toList());
+    }
+
+    private void enregistrer(List<Long> livreIds) {
+        long premiere = reserver(livreIds.size()) - livreIds.size() + 1;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> lignes = new ArrayList<>(livreIds.size());
+        for (int i = 0; i < livreIds.size(); i++) {
+            lignes.add(new Object[]{livreIds.get(i), premiere + i, false, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, lignes);
+    }
+
+    // Dernière des n versions réservées
+    private long reserver(int n) {
+        catalogueVersionRepository.increment(n);
+        return catalogueVersionRepository.findVersion().orElseThrow();
+    }
+
+    /**
+     * Livres enregistrés ou supprimés après la version {@code since} (0 : tout le catalogue), dans un même
+     * instantané (REPEATABLE READ) : un livre renvoyé est dans l'état de sa version.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public LivreChangesResponse getChanges(long since, int limit) {
+        long purgee = catalogueVersionRepository.findVersionPurgee().orElse(0L);
+        if (since > 0 && since < purgee) {
+            throw new ChangesExpiredException("Suppressions purgées jusqu'à la version " + purgee
+                    + " : resynchronisez le catalogue depuis since=0");
+        }
+        List<LivreChangement> changements = livreChangementRepository
+                .findByVersionGreaterThanOrderByVersionAsc(since, Limit.of(Math.max(1, Math.min(limit, MAX_LIMIT))));
+        List<Long> enregistres = changements.stream()
+                .filter(c -> !c.isSupprime())
+                .map(LivreChangement::getLivreId)
+                .toList();
+        Map<Long, LivreResponse> livres = livreRepository.findAllById(enregistres).stream()
+                .map(livreMapper::toResponse)
+                .collect(Collectors.toMap(LivreResponse::getId, Function.identity()));
+        List<LivreChangeResponse> changes = changements.stream()
+                // Sans instantané (base en READ COMMITTED), un livre supprimé entre les deux lectures manque :
+                // sa suppression a une version plus récente et viendra avec la suite
+                .filter(c -> c.isSupprime() || livres.containsKey(c.getLivreId()))
+                .map(c -> LivreChangeResponse.builder()
+                        .version(c.getVersion())
+                        .livreId(c.getLivreId())
+                        .supprime(c.isSupprime())
+                        .livre(livres.get(c.getLivreId()))
+                        .build())
+                .toList();
+        return LivreChangesResponse.builder()
+                .changes(changes)
+                .derniereVersion(catalogueVersionRepository.findVersion().orElse(0L))
+                .build();
+    }
+
+    // Un client en retard de plus que la rétention reçoit 410 et repart de since=0
+    @Scheduled(cron = "${livre.changes.purge-cron:0 45 3 * * *}")
+    @Transactional
+    public void purge() {
+        Optional<Long> jusqua = livreChangementRepository
+                .findDerniereSuppressionAnterieure(LocalDateTime.now().minus(retention));
+        if (jusqua.isEmpty()) {
+            return;
+        }
+        int supprimes = livreChangementRepository.deleteSuppressionsJusqua(jusqua.get());
+        catalogueVersionRepository.updateVersionPurgee(jusqua.get());
+        log.info("Flux du catalogue : {} suppressions de plus de {} purgées (jusqu'à la version {})",
+                supprimes, retention, jusqua.get());
+    }
+}
@@ -0,0 +1,115 @@
+package ma.mundiapolis.bookservice.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.event.CatalogueModifieEvent;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.model.LivreChangement;
+import ma.mundiapolis.bookservice.repository.CatalogueVersionRepository;
+import ma.mundiapolis.bookservice.repository.LivreChangementRepository;
+import ma.mundiapolis.bookservice.repository.LivreRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Suit le flux du catalogue ({@code livre_changement}) pour les index en mémoire de cette instance
+ * (recherche, facettes, suggestions) : les écritures faites sur les autres instances y arrivent en
+ * {@code livre.changes.poll-interval} ms au plus, sous forme de {@link CatalogueModifieEvent}.
+ * <p>
+ * L'instance qui a fait l'écriture l'a déjà appliquée après son commit ({@code LivreEvent}) ; la relire
+ * ici est sans effet, les index remplacent l'état d'un livre au lieu de le cumuler.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LivreChangementsSynchronizer {
+
+    private final LivreChangementRepository livreChangementRepository;
+    private final LivreRepository livreRepository;
+    private final CatalogueVersionRepository catalogueVersionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // Crée la version du catalogue et date les livres existants avant que je lise la version de départ
+    private final LivreChangeService livreChangeService;
+
+    @Value("${livre.changes.poll-batch-size:500}")
+    private int batchSize;
+
+    // Dernière version appliquée (propre à cette instance)
+    private long cursor;
+    private boolean enErreur;
+
+    // Avant les chargements complets des index (ApplicationReadyEvent) : une écriture commitée pendant un
+    // chargement est relue ensuite
+    @PostConstruct
+    void init() {
+        cursor = catalogueVersionRepository.findVersion().orElse(0L);
+    }
+
+    @Scheduled(fixedDelayString = "${livre.changes.poll-interval:1000}", initialDelayString = "${livre.changes.poll-interval:1000}")
+    public synchronized void poll() {
+        try {
+            long purgee = catalogueVersionRepository.findVersionPurgee().orElse(0L);
+            if (cursor < purgee) {
+                // Arrêt de plus de livre.changes.retention : des suppressions ont pu être manquées jusqu'au redémarrage
+                log.warn("Flux du catalogue purgé jusqu'à la version {} (position {}) : les index peuvent garder des livres supprimés",
+                        purgee, cursor);
+            }
+            List<LivreChangement> page;
+            do {
+                page = livreChangementRepository.findByVersionGreaterThanOrderByVersionAsc(cursor, Limit.of(batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                appliquer(page);
+                cursor = page.get(page.size() - 1).getVersion();
+            } while (page.size() == batchSize);
+            // Tout ce qui reste du flux est appliqué : je ne signale la purge qu'une fois
+            cursor = Math.max(cursor, purgee);
+            succeeded();
+        } catch (RuntimeException e) {
+            failed(e);
+        }
+    }
+
+    private void appliquer(List<LivreChangement> changements) {
+        List<Long> ids = changements.stream()
+                .filter(c -> !c.isSupprime())
+                .map(LivreChangement::getLivreId)
+                .toList();
+        Map<Long, Livre> livres = livreRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Livre::getId, Function.identity()));
+        List<Long> supprimes = new ArrayList<>();
+        for (LivreChangement changement : changements) {
+            // Un livre absent a été supprimé depuis : sa suppression suit dans le flux, je l'applique déjà
+            if (changement.isSupprime() || !livres.containsKey(changement.getLivreId())) {
+                supprimes.add(changement.getLivreId());
+            }
+        }
+        eventPublisher.publishEvent(new CatalogueModifieEvent(List.copyOf(livres.values()), supprimes));
+    }
+
+    private void succeeded() {
+        if (enErreur) {
+            log.info("Flux du catalogue de nouveau lisible (version {})", cursor);
+            enErreur = false;
+        }
+    }
+
+    // Un seul avertissement par panne, pas un à chaque lecture
+    private void failed(RuntimeException e) {
+        if (!enErreur) {
+            log.warn("Échec de la lecture du flux du catalogue : {}", e.getMessage());
+            enErreur = true;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ma.mundiapolis.bookservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.cache.LivreJson;
+import ma.mundiapolis.bookservice.cache.LivreNearCache;
+import ma.mundiapolis.bookservice.disponibilite.DisponibiliteProjection;
+import ma.mundiapolis.bookservice.disponibilite.EmpruntsClient;
+import ma.mundiapolis.bookservice.dto.LivrePageResponse;
+import ma.mundiapolis.bookservice.dto.LivreSearchResponse;
+import ma.mundiapolis.bookservice.facet.LivreFiltre;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lectures du catalogue pour {@code LivreController} : livre, liste, recherche et disponibilité.
+ * <p>
+ * Par défaut ({@code livre.reactive.enabled=false}) chaque lecture s'exécute sur le thread Tomcat de la
+ * requête, comme avant. En mode réactif, le thread Tomcat est rendu dès la réception : un hit du cache
+ * local répond tout de suite, l'appel à EmpruntsService est composé sans bloquer, et seules les
+ * lectures JDBC passent par un pool borné de la taille du pool de connexions ({@code livre-jdbc}).
+ * Sous forte concurrence, les requêtes attendent donc dans une file au lieu d'occuper chacune un thread
+ * Tomcat bloqué sur Hikari. Au-delà de {@code livre.reactive.queue-size} lectures en attente : 503.
+ * <p>
+ * Pas de @Transactional ici : les transactions restent celles de {@link LivreService}, ouvertes sur le
+ * thread qui exécute la lecture JDBC.
+ */
+@Service
+@Slf4j
+public class LivreReactiveService implements DisposableBean {
+
+    private final ILivreService livreService;
+    private final LivreNearCache livreNearCache;
+    private final DisponibiliteProjection disponibiliteProjection;
+    private final EmpruntsClient empruntsClient;
+    private final boolean enabled;
+    private final Scheduler jdbcScheduler;
+
+    public LivreReactiveService(ILivreService livreService,
+                                LivreNearCache livreNearCache,
+                                DisponibiliteProjection disponibiliteProjection,
+                                EmpruntsClient empruntsClient,
+                                @Value("${livre.reactive.enabled:false}") boolean enabled,
+                                @Value("${livre.reactive.jdbc-threads:${spring.datasource.hikari.maximum-pool-size:10}}") int jdbcThreads,
+                                @Value("${livre.reactive.queue-size:10000}") int queueSize) {
+        this.livreService = livreService;
+        this.livreNearCache = livreNearCache;
+        this.disponibiliteProjection = disponibiliteProjection;
+        this.empruntsClient = empruntsClient;
+        this.enabled = enabled;
+        this.jdbcScheduler = enabled ? jdbcScheduler(jdbcThreads, queueSize) : null;
+        if (enabled) {
+            log.info("Lectures réactives du catalogue : {} threads JDBC, {} lectures en attente au plus", jdbcThreads, queueSize);
+        }
+    }
+
+    public Mono<LivreJson> getLivreJsonById(Long id) {
+        if (enabled) {
+            Optional<LivreJson> enCache = livreNearCache.getJsonIfPresent(id);
+            if (enCache.isPresent()) {
+                return Mono.just(enCache.get());
+            }
+        }
+        return jdbc(() -> livreService.getLivreJsonById(id));
+    }
+
+    public Mono<Long> getCatalogueVersion() {
+        return jdbc(livreService::getCatalogueVersion);
+    }
+
+    public Mono<LivrePageResponse> getLivres(String sort, String cursor, int size, LivreFiltre filtre) {
+        return jdbc(() -> livreService.getLivres(sort, cursor, size, filtre));
+    }
+
+    public Mono<LivreSearchResponse> searchLivres(String query, String sort, String cursor, int size, LivreFiltre filtre) {
+        return jdbc(() -> livreService.searchLivres(query, sort, cursor, size, filtre));
+    }
+
+    public Mono<Boolean> checkAvailability(Long id) {
+        if (!enabled) {
+            return jdbc(() -> livreService.checkAvailability(id));
+        }
+        // Existence et projection en JDBC ; avant la première réconciliation, EmpruntsService sans bloquer
+        return jdbc(() -> livreService.checkAvailabilityLocally(id))
+                .flatMap(locale -> locale.map(Mono::just).orElseGet(() -> empruntsClient.estDisponible(id)));
+    }
+
+    public Mono<Map<Long, Boolean>> checkAvailability(List<Long> ids) {
+        if (!enabled || disponibiliteProjection.isReady()) {
+            return jdbc(() -> livreService.checkAvailability(ids));
+        }
+        // Liste des emprunts demandée d'abord (Optional vide si EmpruntsService est injoignable)
+        return empruntsClient.livresEmpruntes()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(empruntes -> jdbc(() -> livreService.checkAvailability(ids, () -> empruntes.orElse(null))));
+    }
+
+    // Plus de threads que de connexions ne ferait qu'attendre Hikari. Une file commune à tous les threads
+    // (et non une par thread comme Schedulers.boundedElastic) : une lecture lente ne retarde pas celles
+    // placées derrière elle quand d'autres threads sont libres
+    private static Scheduler jdbcScheduler(int threads, int queueSize) {
+        AtomicInteger numero = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "livre-jdbc-" + numero.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        return Schedulers.fromExecutorService(executor, "livre-jdbc");
+    }
+
+    private <T> Mono<T> jdbc(Callable<T> lecture) {
+        Mono<T> mono = Mono.fromCallable(lecture);
+        return enabled ? mono.subscribeOn(jdbcScheduler) : mono;
+    }
+
+    @Override
+    public void destroy() {
+        if (jdbcScheduler != null) {
+            jdbcScheduler.dispose();
+        }
+    }
+}
@@ -1,21 +1,58 @@
 package ma.mundiapolis.bookservice.service;
 
 import lombok.RequiredArgsConstructor;
-import ma.mundiapolis.bookservice.dto.EmpruntResponse;
+import ma.mundiapolis.bookservice.cache.LivreJson;
+import ma.mundiapolis.bookservice.cache.LivreNearCache;
+import ma.mundiapolis.bookservice.disponibilite.DisponibiliteProjection;
+import ma.mundiapolis.bookservice.disponibilite.EmpruntsClient;
+import ma.mundiapolis.bookservice.dto.LivreFacetsResponse;
+import ma.mundiapolis.bookservice.dto.LivrePageResponse;
 import ma.mundiapolis.bookservice.dto.LivreRequest;
 import ma.mundiapolis.bookservice.dto.LivreResponse;
+import ma.mundiapolis.bookservice.dto.LivreSearchResponse;
+import ma.mundiapolis.bookservice.dto.LivreStatsResponse;
+import ma.mundiapolis.bookservice.dto.SuggestionResponse;
+import ma.mundiapolis.bookservice.event.LivreEvent;
 import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+import ma.mundiapolis.bookservice.facet.CategorieFacets;
+import ma.mundiapolis.bookservice.facet.LivreFiltre;
+import ma.mundiapolis.bookservice.isbn.Isbns;
 import ma.mundiapolis.bookservice.exception.ResourceNotFoundException;
+import ma.mundiapolis.bookservice.exception.ServiceUnavailableException;
 import ma.mundiapolis.bookservice.mapper.LivreMapper;
 import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.pagination.LivreCursor;
+import ma.mundiapolis.bookservice.pagination.LivreSort;
+import ma.mundiapolis.bookservice.repository.CatalogueVersionRepository;
 import ma.mundiapolis.bookservice.repository.LivreRepository;
-import org.springframework.core.ParameterizedTypeReference;
+import ma.mundiapolis.bookservice.repository.LivreSpecifications;
+import ma.mundiapolis.bookservice.search.LivreSearchHits;
+import ma.mundiapolis.bookservice.search.LivreSearchIndex;
+import ma.mundiapolis.bookservice.suggest.LivreSuggestIndex;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,18 +60,36 @@ import java.util.List;
 @Slf4j // pour le logging histoire de pouvoir logger des messages deboguer
 public class LivreService implements ILivreService {
 
+    // Taille maximale d'une page (catalogue et recherche), quoi que demande le client
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Nombre maximal de livres par vérification de disponibilité groupée
+    private static final int MAX_AVAILABILITY_IDS = 100;
+
+    // Attente max d'EmpruntsService avant une suppression, et délai conseillé si elle est refusée faute de réponse
+    private static final Duration VERIFICATION_EMPRUNTS_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration SUPPRESSION_RETRY_AFTER = Duration.ofSeconds(5);
+
     private final LivreRepository livreRepository;
+    private final CatalogueVersionRepository catalogueVersionRepository;
     private final LivreMapper livreMapper;
-    private final WebClient webClient;
+    private final EmpruntsClient empruntsClient;
+    private final LivreSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DisponibiliteProjection disponibiliteProjection;
+    private final LivreNearCache livreNearCache;
+    private final CategorieFacets categorieFacets;
+    private final LivreSuggestIndex suggestIndex;
 
     @Override
     public LivreResponse createLivre(LivreRequest livreRequest) {
-        if (livreRepository.existsByIsbn(livreRequest.getIsbn())) {
+        if (livreRepository.existsByIsbn13(Isbns.versIsbn13(livreRequest.getIsbn()))) {
             throw new BusinessRuleException("Un livre avec cet ISBN existe déjà");
         }
 
         Livre livre = livreMapper.toEntity(livreRequest);
         Livre savedLivre = livreRepository.save(livre);
+        eventPublisher.publishEvent(LivreEvent.enregistre(savedLivre));
         return livreMapper.toResponse(savedLivre);
     }
 
@@ -43,22 +98,54 @@ public class LivreService implements ILivreService {
         Livre livre = livreRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Livre non trouvé avec l'ID : " + id));
 
-        // Si l'ISBN change, vérifier l'unicité
-        if (!livre.getIsbn().equals(livreRequest.getIsbn()) && livreRepository.existsByIsbn(livreRequest.getIsbn())) {
+        // Si l'ISBN change (autrement que par sa présentation), vérifier l'unicité
+        String isbn13 = Isbns.versIsbn13(livreRequest.getIsbn());
+        if (!isbn13.equals(livre.getIsbn13()) && livreRepository.existsByIsbn13(isbn13)) {
             throw new BusinessRuleException("Un livre avec cet ISBN existe déjà");
         }
 
         livreMapper.updateEntityFromRequest(livreRequest, livre);
-        Livre updatedLivre = livreRepository.save(livre);
+        // Flush immédiat : isbn13 est recalculé (@PreUpdate) avant de construire la réponse
+        Livre updatedLivre = livreRepository.saveAndFlush(livre);
+        eventPublisher.publishEvent(LivreEvent.enregistre(updatedLivre));
         return livreMapper.toResponse(updatedLivre);
     }
 
+    // Lectures servies par le cache local : pas de transaction ouverte (ni connexion prise) pour un hit
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public LivreResponse getLivreById(Long id) {
-        Livre livre = livreRepository.findById(id)
+        return livreNearCache.get(id, this::chargerLivre)
+                .orElseThrow(() -> new ResourceNotFoundException("Livre non trouvé avec l'ID : " + id));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public LivreResponse getLivreByIsbn(String isbn) {
+        // Une douchette lit un EAN-13, une saisie peut être un ISBN-10 avec tirets : même clé pour les deux
+        String isbn13 = Isbns.versIsbn13(isbn);
+        if (isbn13 == null) {
+            throw new BusinessRuleException("ISBN invalide : " + isbn);
+        }
+        return livreNearCache.getByIsbn(isbn13, livreRepository::findIdByIsbn13, this::chargerLivre)
+                .orElseThrow(() -> new ResourceNotFoundException("Livre non trouvé avec l'ISBN : " + isbn));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public LivreJson getLivreJsonById(Long id) {
+        return livreNearCache.getJson(id, this::chargerLivre)
                 .orElseThrow(() -> new ResourceNotFoundException("Livre non trouvé avec l'ID : " + id));
-        return livreMapper.toResponse(livre);
+    }
+
+    private Optional<LivreResponse> chargerLivre(Long id) {
+        return livreRepository.findById(id).map(livreMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getCatalogueVersion() {
+        return catalogueVersionRepository.findVersion().orElse(0L);
     }
 
     @Override
@@ -69,9 +156,141 @@ public class LivreService implements ILivreService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<LivreResponse> searchLivres(String query) {
-        return livreMapper.toResponseList(
-                livreRepository.findByTitreContainingIgnoreCaseOrAuteurContainingIgnoreCase(query, query));
+    public LivrePageResponse getLivres(String sortParam, String cursor, int size, LivreFiltre filtre) {
+        LivreSort sort = LivreSort.fromParam(sortParam, LivreSort.TITRE);
+        if (sort == LivreSort.PERTINENCE) {
+            throw new BusinessRuleException("Le tri par pertinence n'existe que pour la recherche");
+        }
+        int pageSize = pageSize(size);
+
+        // Pas d'OFFSET : la page suivante reprend après le dernier livre (colonne de tri, id),
+        // le coût est le même à la première page et à la millième
+        ScrollPosition position = cursor == null
+                ? ScrollPosition.keyset()
+                : toScrollPosition(LivreCursor.decode(cursor, LivreCursor.Source.CATALOGUE, sort));
+        // Les filtres ne sont pas dans le curseur : le client les renvoie avec chaque page
+        Window<Livre> window = livreRepository.findBy(LivreSpecifications.filtre(filtre),
+                query -> query.sortBy(sort.toSort()).limit(pageSize).scroll(position));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? toCursor(sort, window.getContent().get(window.size() - 1)).encode()
+                : null;
+        return LivrePageResponse.builder()
+                .livres(livreMapper.toResponseList(window.getContent()))
+                .sort(sort.param())
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    private static LivreCursor toCursor(LivreSort sort, Livre last) {
+        String lastValue = switch (sort) {
+            case TITRE -> last.getTitre();
+            case AUTEUR -> last.getAuteur();
+            case DATE_CREATION -> last.getDateCreation().toString();
+            case PERTINENCE -> throw new IllegalArgumentException("Tri réservé à la recherche");
+        };
+        return new LivreCursor(LivreCursor.Source.CATALOGUE, sort, last.getId(), lastValue);
+    }
+
+    private static ScrollPosition toScrollPosition(LivreCursor cursor) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            keys.put(cursor.sort().param(), cursor.sort() == LivreSort.DATE_CREATION
+                    ? LocalDateTime.parse(cursor.lastValue())
+                    : cursor.lastValue());
+        } catch (DateTimeParseException e) {
+            throw new BusinessRuleException("Curseur de pagination invalide");
+        }
+        keys.put("id", cursor.lastId());
+        return ScrollPosition.forward(keys);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LivreSearchResponse searchLivres(String query, String sortParam, String cursor, int size, LivreFiltre filtre) {
+        LivreSort sort = LivreSort.fromParam(sortParam, LivreSort.PERTINENCE);
+        int pageSize = pageSize(size);
+
+        if (!searchIndex.isReady()) {
+            // Index en cours de reconstruction (démarrage) : ancienne recherche LIKE, première page seulement
+            if (cursor != null) {
+                throw new BusinessRuleException("Index de recherche en cours de reconstruction, recommencez depuis la première page");
+            }
+            Sort sqlSort = sort == LivreSort.PERTINENCE ? Sort.by("id") : sort.toSort();
+            Page<Livre> livres = livreRepository.findAll(
+                    LivreSpecifications.titreOuAuteurContient(query).and(LivreSpecifications.filtre(filtre)),
+                    PageRequest.of(0, pageSize, sqlSort));
+            return toSearchResponse(livreMapper.toResponseList(livres.getContent()), livres.getTotalElements(),
+                    sort, pageSize, null);
+        }
+
+        LivreCursor after = cursor == null ? null : LivreCursor.decode(cursor, LivreCursor.Source.RECHERCHE, sort);
+        // Livres empruntés lus dans la projection locale, seulement si la disponibilité est filtrée
+        Set<Long> empruntes = filtre.disponible() == null ? null : disponibiliteProjection.empruntes();
+        LivreSearchHits hits = searchIndex.search(query, filtre, empruntes, sort, after, pageSize);
+        // Un seul SELECT ... IN pour la page, remis dans l'ordre de l'index
+        Map<Long, Livre> livres = livreRepository.findAllById(hits.livreIds()).stream()
+                .collect(Collectors.toMap(Livre::getId, Function.identity()));
+        List<LivreResponse> resultats = hits.livreIds().stream()
+                .map(livres::get)
+                .filter(Objects::nonNull)
+                .map(livreMapper::toResponse)
+                .toList();
+        return toSearchResponse(resultats, hits.total(), sort, pageSize,
+                hits.next() == null ? null : hits.next().encode());
+    }
+
+    // Servi par l'index en mémoire : ni transaction ni connexion
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    private static LivreSearchResponse toSearchResponse(List<LivreResponse> livres, long total, LivreSort sort,
+                                                        int size, String nextCursor) {
+        return LivreSearchResponse.builder()
+                .livres(livres)
+                .total(total)
+                .sort(sort.param())
+                .size(size)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LivreStatsResponse getStats() {
+        // Un count et les 5 derniers ajouts : le tableau de bord n'a plus besoin de tout le catalogue
+        return LivreStatsResponse.builder()
+                .totalLivres(livreRepository.count())
+                .derniersAjouts(livreMapper.toResponseList(livreRepository.findTop5ByOrderByDateCreationDesc()))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LivreFacetsResponse getFacets() {
+        Map<String, Long> categories;
+        if (categorieFacets.isReady()) {
+            categories = categorieFacets.compteurs();
+        } else {
+            // Facettes en cours de chargement (démarrage) : un GROUP BY servi par l'index sur la catégorie
+            categories = new LinkedHashMap<>();
+            livreRepository.countByCategorie().stream()
+                    .sorted(Comparator.comparing((Object[] row) -> (Long) row[1]).reversed()
+                            .thenComparing(row -> (String) row[0]))
+                    .forEach(row -> categories.put((String) row[0], (Long) row[1]));
+        }
+        return LivreFacetsResponse.builder()
+                .totalLivres(categories.values().stream().mapToLong(Long::longValue).sum())
+                .categories(categories)
+                .build();
     }
 
     @Override
@@ -80,82 +299,81 @@ public class LivreService implements ILivreService {
             throw new ResourceNotFoundException("Livre non trouvé avec l'ID : " + id);
         }
 
-        try {
-            List<EmpruntResponse> loans = webClient.get()
-                    .uri("http://EMPRUNTSSERVICE/api/loans/book/{id}", id)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<EmpruntResponse>>() {
-                    })
-                    .block();
-
-            boolean isBorrowed = loans != null && loans.stream()
-                    .anyMatch(l -> "ACTIF".equals(l.getStatut()) || "EN_RETARD".equals(l.getStatut()));
-
-            if (isBorrowed) {
-                throw new BusinessRuleException("Impossible de supprimer un livre en cours d'emprunt");
-            }
-        } catch (Exception e) {
-            // Si le service d'emprunt est injoignable, on bloque par précaution ou on log
-            // l'erreur?
-            // "Protection contre suppression" -> Mieux vaut bloquer si on n'est pas sûr.
-            // Mais si c'est une 404 (pas d'emprunts trouvés pour ce livre ou endpoint
-            // n'existe pas encore?), c'est ok.
-            // Simplification: on log et on laisse passer si c'est une erreur technique,
-            // mais ici on suppose que ça marche.
-            // Pour le "clean code", on catch pas Exception générique idéalement.
-            if (e instanceof BusinessRuleException) {
-                throw e;
-            }
-            // Log warning logic here
+        if (estEmprunte(id)) {
+            throw new BusinessRuleException("Impossible de supprimer un livre en cours d'emprunt");
         }
 
         livreRepository.deleteById(id);
+        eventPublisher.publishEvent(LivreEvent.supprime(id));
+    }
+
+    // Toujours EmpruntsService, jamais la projection : elle a jusqu'à un intervalle de polling de retard (plus
+    // toute panne du flux), et un emprunt fait pendant ce temps deviendrait orphelin. Faute de réponse, la
+    // suppression est refusée (503) plutôt que risquée : une suppression se retente, un emprunt orphelin non
+    private boolean estEmprunte(Long id) {
+        try {
+            return Boolean.TRUE.equals(empruntsClient.estEmprunte(id).block(VERIFICATION_EMPRUNTS_TIMEOUT));
+        } catch (RuntimeException e) {
+            log.warn("Suppression du livre {} refusée : emprunts invérifiables ({})", id, e.getMessage());
+            throw new ServiceUnavailableException("Impossible de vérifier les emprunts du livre " + id
+                    + " : réessayez plus tard", SUPPRESSION_RETRY_AFTER);
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean checkAvailability(Long id) {
+        // Au démarrage, tant que la première réconciliation n'a pas abouti : interroger EmpruntsService
+        // (livre indisponible par précaution s'il est injoignable)
+        return checkAvailabilityLocally(id).orElseGet(() -> empruntsClient.estDisponible(id).block());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Boolean> checkAvailabilityLocally(Long id) {
         if (!livreRepository.existsById(id)) {
             throw new ResourceNotFoundException("Livre non trouvé avec l'ID : " + id);
         }
+        // Projection locale tenue à jour par le flux des emprunts : pas d'appel à EmpruntsService
+        return disponibiliteProjection.isReady()
+                ? Optional.of(disponibiliteProjection.isDisponible(id))
+                : Optional.empty();
+    }
 
-        // Interroger EmpruntsService pour vérifier s'il existe des emprunts actifs ou
-        // en retard
-        try {
-            // Use toEntity to capture status and body for better diagnostics
-            var responseEntity = webClient.get()
-                    .uri("http://EMPRUNTSSERVICE/api/loans/book/{id}", id)
-                    .retrieve()
-                    .toEntity(new ParameterizedTypeReference<List<EmpruntResponse>>() {
-                    })
-                    .block();
-
-            if (responseEntity == null) {
-                log.info("No response entity from EmpruntsService for book {}", id);
-                return false;
-            }
-
-            var loans = responseEntity.getBody();
-            log.info("EmpruntsService returned status={} for book {}", responseEntity.getStatusCode(), id);
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Boolean> checkAvailability(List<Long> ids) {
+        // Avant la première réconciliation : un seul appel à EmpruntsService pour toute la liste.
+        // null si EmpruntsService est injoignable (tous les livres sont alors indisponibles par précaution)
+        return checkAvailability(ids, () -> empruntsClient.livresEmpruntes().block());
+    }
 
-            if (loans != null && !loans.isEmpty()) {
-                // Log detailed info: id and statut for each loan
-                log.info("Found {} loan(s) for book {}: {}", loans.size(), id,
-                        loans.stream().map(l -> String.format("{id=%s, statut=%s}", l.getId(), l.getStatut()))
-                                .toList());
-            } else {
-                log.info("No loans found for book {}", id);
-            }
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Boolean> checkAvailability(List<Long> ids, Supplier<Set<Long>> empruntesDistants) {
+        List<Long> demandes = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (demandes.size() > MAX_AVAILABILITY_IDS) {
+            throw new BusinessRuleException("Au plus " + MAX_AVAILABILITY_IDS + " livres par vérification de disponibilité");
+        }
+        if (demandes.isEmpty()) {
+            return Map.of();
+        }
 
-            boolean isBorrowed = loans != null && loans.stream()
-                    .anyMatch(l -> "ACTIF".equals(l.getStatut()) || "EN_RETARD".equals(l.getStatut()));
+        // Une requête pour l'existence, une pour les emprunts : les livres inconnus sont absents de la réponse
+        Set<Long> existants = livreRepository.findExistingIds(demandes);
+        if (existants.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> empruntes = disponibiliteProjection.isReady()
+                ? disponibiliteProjection.empruntes(existants)
+                : empruntesDistants.get();
 
-            return !isBorrowed;
-        } catch (Exception e) {
-            // En cas d'erreur de communication avec le service d'emprunt, on considère le
-            // livre
-            // comme indisponible par précaution et on log l'erreur pour investigation.
-            log.warn("Impossible de vérifier la disponibilité du livre {} via EmpruntsService: {}", id, e.getMessage());
-            return false;
+        Map<Long, Boolean> disponibilites = new LinkedHashMap<>();
+        for (Long id : demandes) {
+            if (existants.contains(id)) {
+                disponibilites.put(id, empruntes != null && !empruntes.contains(id));
+            }
         }
+        return disponibilites;
     }
 }
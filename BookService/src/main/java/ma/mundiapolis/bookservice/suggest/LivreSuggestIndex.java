@@ -0,0 +1,558 @@
+package ma.mundiapolis.bookservice.suggest;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.dto.SuggestionResponse;
+import ma.mundiapolis.bookservice.search.FrenchFoldingAnalyzer;
+import org.apache.lucene.analysis.Analyzer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Suggestions de saisie (titres et auteurs) dans un arbre radix en mémoire, sur les textes sans
+ * accents ni casse. Chaque nœud garde les {@link #MAX_RESULTS} meilleures suggestions de son
+ * sous-arbre : une requête descend le long du préfixe et renvoie cette liste, sans parcourir le
+ * sous-arbre ni toucher à la base.
+ * <p>
+ * Un titre ou un auteur est aussi indexé sous chacun de ses mots suivants (« miser » trouve « Les Misérables »,
+ * « hugo » trouve « Victor Hugo ») : ces mots sont partagés entre tous les textes qui les contiennent, la
+ * mémoire croît avec le vocabulaire et non avec chaque titre. Poids d'une suggestion : nombre de livres
+ * qui la portent, plus les emprunts vus dans le flux d'EmpruntsService depuis le démarrage.
+ * <p>
+ * Mis à jour livre par livre par {@link LivreSuggestIndexer}. Au-delà de {@code suggest.max-suggestions}
+ * titres et auteurs distincts, les nouveaux ne sont plus indexés : la mémoire reste bornée.
+ */
+@Component
+@Slf4j
+public class LivreSuggestIndex {
+
+    /**
+     * Suggestions gardées par nœud, donc nombre maximal de résultats d'une requête.
+     */
+    public static final int MAX_RESULTS = 10;
+
+    // Clés supplémentaires par texte : ses mots suivants assez longs pour être tapés en premier
+    private static final int MAX_MOTS = 4;
+    private static final int MIN_LONGUEUR_MOT = 3;
+
+    private static final Suggestion[] AUCUNE = new Suggestion[0];
+    private static final char[] AUCUN_PREMIER = new char[0];
+    private static final Node[] AUCUN_ENFANT = new Node[0];
+
+    // Les meilleures d'abord, puis par ordre alphabétique : le résultat ne dépend pas de l'ordre d'insertion
+    private static final Comparator<Suggestion> ORDRE = Comparator.comparingLong(Suggestion::poids).reversed()
+            .thenComparing(s -> s.normalise)
+            .thenComparing(s -> s.type);
+
+    enum Type {
+        TITRE,
+        AUTEUR
+    }
+
+    private static final class Suggestion {
+        final Type type;
+        final String texte;
+        final String normalise;
+        int livres;
+        long emprunts;
+
+        Suggestion(Type type, String texte, String normalise) {
+            this.type = type;
+            this.texte = texte;
+            this.normalise = normalise;
+        }
+
+        long poids() {
+            return livres + emprunts;
+        }
+    }
+
+    private static final class Node {
+        String label;
+        char[] premiers = AUCUN_PREMIER;
+        Node[] enfants = AUCUN_ENFANT;
+        // Suggestions dont une clé se termine ici
+        Suggestion[] ici = AUCUNE;
+        // Les MAX_RESULTS meilleures du sous-arbre, sans doublon
+        Suggestion[] top = AUCUNE;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int indexOf(char c) {
+            return Arrays.binarySearch(premiers, c);
+        }
+    }
+
+    private final Analyzer analyzer = new FrenchFoldingAnalyzer();
+    // Lectures concurrentes, écritures une à une (quelques microsecondes chacune)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<String, Suggestion> titres = new HashMap<>();
+    private final Map<String, Suggestion> auteurs = new HashMap<>();
+    // Titre et auteur indexés pour chaque livre : une modification sait quoi retirer
+    private final Map<Long, Suggestion[]> parLivre = new HashMap<>();
+    // Livres supprimés pendant le chargement initial : le chargement a pu les lire avant la suppression
+    private final Set<Long> supprimesPendantChargement = new HashSet<>();
+    private final int maxSuggestions;
+    private boolean plein;
+    private boolean chargementTermine;
+
+    public LivreSuggestIndex(@Value("${suggest.max-suggestions:300000}") int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * Les meilleures suggestions commençant par {@code prefix} (à un début de mot près), au plus
+     * {@link #MAX_RESULTS}.
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String cle = normalise(prefix);
+        if (cle.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < cle.length()) {
+                int index = node.indexOf(cle.charAt(i));
+                if (index < 0) {
+                    return List.of();
+                }
+                Node enfant = node.enfants[index];
+                int commun = prefixeCommun(enfant.label, cle, i);
+                if (i + commun == cle.length()) {
+                    node = enfant;
+                    break;
+                }
+                if (commun < enfant.label.length()) {
+                    return List.of();
+                }
+                node = enfant;
+                i += commun;
+            }
+            return Arrays.stream(node.top)
+                    .limit(Math.min(Math.max(limit, 1), MAX_RESULTS))
+                    .map(s -> SuggestionResponse.builder()
+                            .texte(s.texte)
+                            .type(s.type.name())
+                            .livres(s.livres)
+                            .emprunts(s.emprunts)
+                            .build())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute le livre, ou remplace son titre et son auteur s'il était déjà indexé.
+     */
+    public void enregistre(Long livreId, String titre, String auteur) {
+        lock.writeLock().lock();
+        try {
+            supprimesPendantChargement.remove(livreId);
+            enregistreSousVerrou(livreId, titre, auteur);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Chargement initial : un livre déjà indexé (modifié pendant le chargement) garde sa version la plus récente,
+     * un livre supprimé pendant le chargement n'est pas réindexé.
+     */
+    void charge(Long livreId, String titre, String auteur) {
+        lock.writeLock().lock();
+        try {
+            if (!parLivre.containsKey(livreId) && !supprimesPendantChargement.contains(livreId)) {
+                enregistreSousVerrou(livreId, titre, auteur);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void finChargement() {
+        lock.writeLock().lock();
+        try {
+            chargementTermine = true;
+            supprimesPendantChargement.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void supprime(Long livreId) {
+        lock.writeLock().lock();
+        try {
+            if (!chargementTermine) {
+                supprimesPendantChargement.add(livreId);
+            }
+            Suggestion[] avant = parLivre.remove(livreId);
+            if (avant != null) {
+                relache(titres, avant[0]);
+                relache(auteurs, avant[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void emprunte(Long livreId) {
+        lock.writeLock().lock();
+        try {
+            Suggestion[] suggestions = parLivre.get(livreId);
+            if (suggestions == null) {
+                return;
+            }
+            for (Suggestion suggestion : suggestions) {
+                if (suggestion != null) {
+                    suggestion.emprunts++;
+                    promeut(suggestion);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int taille() {
+        lock.readLock().lock();
+        try {
+            return titres.size() + auteurs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Nombre de nœuds de l'arbre, racine comprise : une insertion suivie de sa suppression le laisse inchangé
+    int noeuds() {
+        lock.readLock().lock();
+        try {
+            return compte(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int compte(Node node) {
+        int n = 1;
+        for (Node enfant : node.enfants) {
+            n += compte(enfant);
+        }
+        return n;
+    }
+
+    private void enregistreSousVerrou(Long livreId, String titre, String auteur) {
+        String titreNormalise = normalise(titre);
+        String auteurNormalise = normalise(auteur);
+        Suggestion[] avant = parLivre.get(livreId);
+        if (avant != null && porte(avant[0], titreNormalise) && porte(avant[1], auteurNormalise)) {
+            return;
+        }
+        if (avant != null) {
+            relache(titres, avant[0]);
+            relache(auteurs, avant[1]);
+        }
+        parLivre.put(livreId, new Suggestion[]{
+                acquiert(titres, Type.TITRE, titre, titreNormalise),
+                acquiert(auteurs, Type.AUTEUR, auteur, auteurNormalise)});
+    }
+
+    private static boolean porte(Suggestion suggestion, String normalise) {
+        return suggestion != null && suggestion.normalise.equals(normalise);
+    }
+
+    private Suggestion acquiert(Map<String, Suggestion> suggestions, Type type, String texte, String normalise) {
+        if (normalise.isEmpty()) {
+            return null;
+        }
+        Suggestion suggestion = suggestions.get(normalise);
+        if (suggestion != null) {
+            suggestion.livres++;
+            promeut(suggestion);
+            return suggestion;
+        }
+        if (titres.size() + auteurs.size() >= maxSuggestions) {
+            if (!plein) {
+                log.warn("Index de suggestions plein ({} titres et auteurs) : les nouveaux ne sont plus suggérés", maxSuggestions);
+                plein = true;
+            }
+            return null;
+        }
+        suggestion = new Suggestion(type, texte.strip(), normalise);
+        suggestion.livres = 1;
+        suggestions.put(normalise, suggestion);
+        for (String cle : cles(normalise)) {
+            insere(cle, suggestion);
+        }
+        return suggestion;
+    }
+
+    private void relache(Map<String, Suggestion> suggestions, Suggestion suggestion) {
+        if (suggestion == null) {
+            return;
+        }
+        suggestion.livres--;
+        if (suggestion.livres > 0) {
+            retrograde(suggestion);
+            return;
+        }
+        suggestions.remove(suggestion.normalise);
+        for (String cle : cles(suggestion.normalise)) {
+            retire(cle, suggestion);
+        }
+        plein = false;
+    }
+
+    // Le texte entier, puis chacun de ses mots suivants : « les miserables » -> « miserables »
+    private static Set<String> cles(String normalise) {
+        Set<String> cles = new LinkedHashSet<>();
+        cles.add(normalise);
+        int debut = normalise.indexOf(' ');
+        while (debut >= 0 && cles.size() <= MAX_MOTS) {
+            int fin = normalise.indexOf(' ', debut + 1);
+            String mot = normalise.substring(debut + 1, fin < 0 ? normalise.length() : fin);
+            if (mot.length() >= MIN_LONGUEUR_MOT) {
+                cles.add(mot);
+            }
+            debut = fin;
+        }
+        return cles;
+    }
+
+    private void insere(String cle, Suggestion suggestion) {
+        List<Node> chemin = new ArrayList<>();
+        chemin.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < cle.length()) {
+            int index = node.indexOf(cle.charAt(i));
+            if (index < 0) {
+                Node feuille = new Node(cle.substring(i));
+                ajouteEnfant(node, feuille);
+                node = feuille;
+                chemin.add(node);
+                break;
+            }
+            Node enfant = node.enfants[index];
+            int commun = prefixeCommun(enfant.label, cle, i);
+            if (commun < enfant.label.length()) {
+                // La clé s'arrête ou diverge au milieu de l'arête : je la coupe par un nœud intermédiaire
+                Node milieu = new Node(enfant.label.substring(0, commun));
+                enfant.label = enfant.label.substring(commun);
+                milieu.premiers = new char[]{enfant.label.charAt(0)};
+                milieu.enfants = new Node[]{enfant};
+                milieu.top = enfant.top;
+                node.enfants[index] = milieu;
+                enfant = milieu;
+            }
+            node = enfant;
+            chemin.add(node);
+            i += commun;
+        }
+        node.ici = Arrays.copyOf(node.ici, node.ici.length + 1);
+        node.ici[node.ici.length - 1] = suggestion;
+        for (Node ancetre : chemin) {
+            ancetre.top = avec(ancetre.top, suggestion);
+        }
+    }
+
+    private void retire(String cle, Suggestion suggestion) {
+        List<Node> chemin = chemin(cle);
+        if (chemin == null) {
+            return;
+        }
+        Node node = chemin.get(chemin.size() - 1);
+        node.ici = Arrays.stream(node.ici).filter(s -> s != suggestion).toArray(Suggestion[]::new);
+
+        // Élagage : une feuille vide disparaît, un nœud vide à un seul enfant fusionne avec lui
+        for (int j = chemin.size() - 1; j > 0; j--) {
+            Node courant = chemin.get(j);
+            Node parent = chemin.get(j - 1);
+            if (courant.ici.length > 0) {
+                continue;
+            }
+            if (courant.enfants.length == 0) {
+                retireEnfant(parent, courant);
+                chemin.remove(j);
+            } else if (courant.enfants.length == 1) {
+                Node enfant = courant.enfants[0];
+                enfant.label = courant.label + enfant.label;
+                parent.enfants[parent.indexOf(enfant.label.charAt(0))] = enfant;
+                chemin.set(j, enfant);
+            }
+        }
+        recalcule(chemin, suggestion);
+    }
+
+    // Suggestion plus lourde : elle remonte dans le top de chaque ancêtre de ses clés, sans autre calcul
+    private void promeut(Suggestion suggestion) {
+        for (String cle : cles(suggestion.normalise)) {
+            List<Node> chemin = chemin(cle);
+            if (chemin != null) {
+                for (Node node : chemin) {
+                    node.top = avec(node.top, suggestion);
+                }
+            }
+        }
+    }
+
+    // Suggestion plus légère : seuls les nœuds dont elle fait partie du top sont recalculés
+    private void retrograde(Suggestion suggestion) {
+        for (String cle : cles(suggestion.normalise)) {
+            List<Node> chemin = chemin(cle);
+            if (chemin != null) {
+                recalcule(chemin, suggestion);
+            }
+        }
+    }
+
+    // Nœuds de la racine jusqu'à celui où la clé se termine exactement, null si la clé n'est pas indexée
+    private List<Node> chemin(String cle) {
+        List<Node> chemin = new ArrayList<>();
+        chemin.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < cle.length()) {
+            int index = node.indexOf(cle.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            node = node.enfants[index];
+            if (!cle.startsWith(node.label, i)) {
+                return null;
+            }
+            chemin.add(node);
+            i += node.label.length();
+        }
+        return chemin;
+    }
+
+    // Du bas vers le haut : un nœud dont le top contenait la suggestion le refait à partir de ses propres
+    // suggestions et du top de ses enfants (déjà à jour)
+    private static void recalcule(List<Node> chemin, Suggestion suggestion) {
+        for (int j = chemin.size() - 1; j >= 0; j--) {
+            Node node = chemin.get(j);
+            if (!contient(node.top, suggestion)) {
+                continue;
+            }
+            if (node.enfants.length == 0 && node.ici.length <= 1) {
+                // Feuille : le cas le plus courant, sans nouveau tableau
+                node.top = node.ici;
+                continue;
+            }
+            Suggestion[] top = AUCUNE;
+            for (Suggestion candidate : node.ici) {
+                top = avec(top, candidate);
+            }
+            for (Node enfant : node.enfants) {
+                for (Suggestion candidate : enfant.top) {
+                    top = avec(top, candidate);
+                }
+            }
+            node.top = top;
+        }
+    }
+
+    // Le top avec cette suggestion à sa place (une seule fois), limité à MAX_RESULTS
+    private static Suggestion[] avec(Suggestion[] top, Suggestion suggestion) {
+        int n = top.length;
+        if (n == MAX_RESULTS && top[n - 1] != suggestion && ORDRE.compare(suggestion, top[n - 1]) > 0
+                && !contient(top, suggestion)) {
+            return top;
+        }
+        List<Suggestion> liste = new ArrayList<>(n + 1);
+        for (Suggestion s : top) {
+            if (s != suggestion) {
+                liste.add(s);
+            }
+        }
+        int position = 0;
+        while (position < liste.size() && ORDRE.compare(liste.get(position), suggestion) <= 0) {
+            position++;
+        }
+        liste.add(position, suggestion);
+        return liste.subList(0, Math.min(liste.size(), MAX_RESULTS)).toArray(AUCUNE);
+    }
+
+    private static boolean contient(Suggestion[] top, Suggestion suggestion) {
+        for (Suggestion s : top) {
+            if (s == suggestion) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void ajouteEnfant(Node parent, Node enfant) {
+        int position = -(parent.indexOf(enfant.label.charAt(0)) + 1);
+        char[] premiers = new char[parent.premiers.length + 1];
+        Node[] enfants = new Node[parent.enfants.length + 1];
+        System.arraycopy(parent.premiers, 0, premiers, 0, position);
+        System.arraycopy(parent.enfants, 0, enfants, 0, position);
+        premiers[position] = enfant.label.charAt(0);
+        enfants[position] = enfant;
+        System.arraycopy(parent.premiers, position, premiers, position + 1, parent.premiers.length - position);
+        System.arraycopy(parent.enfants, position, enfants, position + 1, parent.enfants.length - position);
+        parent.premiers = premiers;
+        parent.enfants = enfants;
+    }
+
+    private static void retireEnfant(Node parent, Node enfant) {
+        int position = parent.indexOf(enfant.label.charAt(0));
+        char[] premiers = new char[parent.premiers.length - 1];
+        Node[] enfants = new Node[parent.enfants.length - 1];
+        System.arraycopy(parent.premiers, 0, premiers, 0, position);
+        System.arraycopy(parent.enfants, 0, enfants, 0, position);
+        System.arraycopy(parent.premiers, position + 1, premiers, position, premiers.length - position);
+        System.arraycopy(parent.enfants, position + 1, enfants, position, enfants.length - position);
+        parent.premiers = premiers;
+        parent.enfants = enfants;
+    }
+
+    private static int prefixeCommun(String label, String cle, int debut) {
+        int n = Math.min(label.length(), cle.length() - debut);
+        int i = 0;
+        while (i < n && label.charAt(i) == cle.charAt(debut + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // « L'Étranger » -> « l etranger » : minuscules sans accents, mots séparés par une espace
+    String normalise(String texte) {
+        if (texte == null || texte.isBlank()) {
+            return "";
+        }
+        String replie = analyzer.normalize("suggest", texte).utf8ToString();
+        StringBuilder normalise = new StringBuilder(replie.length());
+        for (int i = 0; i < replie.length(); i++) {
+            char c = replie.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalise.append(c);
+            } else if (!normalise.isEmpty() && normalise.charAt(normalise.length() - 1) != ' ') {
+                normalise.append(' ');
+            }
+        }
+        int fin = normalise.length();
+        if (fin > 0 && normalise.charAt(fin - 1) == ' ') {
+            normalise.setLength(fin - 1);
+        }
+        return normalise.toString();
+    }
+}
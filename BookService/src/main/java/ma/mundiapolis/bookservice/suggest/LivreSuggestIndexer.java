@@ -0,0 +1,84 @@
+package ma.mundiapolis.bookservice.suggest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.bookservice.event.CatalogueModifieEvent;
+import ma.mundiapolis.bookservice.event.LivreEvent;
+import ma.mundiapolis.bookservice.event.LivresEmpruntesEvent;
+import ma.mundiapolis.bookservice.event.LivresImportesEvent;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.repository.LivreRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Alimente {@link LivreSuggestIndex} : chargement complet en tâche de fond au démarrage, puis mise à
+ * jour après chaque commit (livres enregistrés, supprimés ou importés, nouveaux emprunts). Les livres
+ * écrits sur les autres instances arrivent par le flux du catalogue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LivreSuggestIndexer {
+
+    private final LivreRepository livreRepository;
+    private final LivreSuggestIndex suggestIndex;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLivreEvent(LivreEvent event) {
+        if (event.type() == LivreEvent.Type.SUPPRIME) {
+            suggestIndex.supprime(event.livreId());
+        } else {
+            suggestIndex.enregistre(event.livreId(), event.livre().getTitre(), event.livre().getAuteur());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLivresImportes(LivresImportesEvent event) {
+        event.livres().forEach(livre -> suggestIndex.enregistre(livre.getId(), livre.getTitre(), livre.getAuteur()));
+    }
+
+    // Écritures de toutes les instances, lues dans le flux du catalogue
+    @EventListener
+    public void onCatalogueModifie(CatalogueModifieEvent event) {
+        event.enregistres().forEach(livre -> suggestIndex.enregistre(livre.getId(), livre.getTitre(), livre.getAuteur()));
+        event.supprimes().forEach(suggestIndex::supprime);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLivresEmpruntes(LivresEmpruntesEvent event) {
+        event.livreIds().forEach(suggestIndex::emprunte);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        // Les suggestions arrivent au fil du chargement : pas de repli SQL pour une saisie en cours
+        Thread thread = new Thread(this::load, "livre-suggest-load");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        try {
+            long count = 0;
+            Long lastId = 0L;
+            List<Livre> batch;
+            while (!(batch = livreRepository.findTop1000ByIdGreaterThanOrderByIdAsc(lastId)).isEmpty()) {
+                batch.forEach(livre -> suggestIndex.charge(livre.getId(), livre.getTitre(), livre.getAuteur()));
+                count += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            suggestIndex.finChargement();
+            log.info("Index de suggestions chargé : {} livres, {} titres et auteurs en {} ms",
+                    count, suggestIndex.taille(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Échec du chargement de l'index de suggestions", e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ma.mundiapolis.bookservice.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import ma.mundiapolis.bookservice.BookServiceApplication;
+import ma.mundiapolis.bookservice.disponibilite.DisponibiliteProjection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Disponibilité d'une page de 50 livres, par HTTP sur un BookService démarré en mémoire (H2) :
+ * <ul>
+ *     <li>perId : 50 appels GET /api/books/{id}/availability, comme le catalogue aujourd'hui ;</li>
+ *     <li>batch : un seul POST /api/books/availability avec les 50 IDs.</li>
+ * </ul>
+ * {@code source} choisit d'où vient l'état des emprunts : {@code projection} (table locale, cas normal) ou
+ * {@code emprunts} (avant la première réconciliation : appel à EmpruntsService, simulé ici par un serveur
+ * HTTP local qui répond en {@code latenceMs} ms, soit un appel par livre en perId et un seul en batch).
+ * Lancement : {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath ma.mundiapolis.bookservice.benchmark.AvailabilityBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"projection", "emprunts"})
+    private String source;
+
+    @Param({"2"})
+    private int latenceMs;
+
+    private HttpServer empruntsService;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private final List<Long> ids = new ArrayList<>();
+    private String batchBody;
+    private final AtomicInteger activeCalls = new AtomicInteger();
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        boolean projection = "projection".equals(source);
+        // Sans TCP_NODELAY, le serveur du JDK ajoute ~40 ms (ACK retardé) à chaque réponse
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        empruntsService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        empruntsService.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String body;
+            int status = 200;
+            if (path.startsWith("/internal/loans/active")) {
+                // Sans projection, la réconciliation du démarrage (premier appel) échoue et n'est pas relancée :
+                // BookService reste sur les appels à EmpruntsService
+                body = "{\"sequence\":0,\"emprunts\":[{\"livreId\":1,\"empruntId\":1}]}";
+                if (!projection && activeCalls.getAndIncrement() == 0) {
+                    status = 503;
+                }
+            } else if (path.startsWith("/internal/loans/changes")) {
+                body = "{\"changes\":[],\"derniereSequence\":0}";
+            } else {
+                body = path.endsWith("/1") ? "[{\"id\":1,\"livreId\":1,\"statut\":\"ACTIF\"}]" : "[]";
+            }
+            sleep(latenceMs);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        empruntsService.setExecutor(Executors.newFixedThreadPool(4));
+        empruntsService.start();
+
+        context = new SpringApplicationBuilder(BookServiceApplication.class).run(
+                "--server.port=0", "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.EMPRUNTSSERVICE[0].uri=http://localhost:"
+                        + empruntsService.getAddress().getPort(),
+                "--spring.datasource.url=jdbc:h2:mem:disponibilite", "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa", "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN", "--logging.level.ma.mundiapolis.bookservice=WARN",
+                "--disponibilite.reconcile-interval=3600000");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newHttpClient();
+
+        StringJoiner batch = new StringJoiner(",", "[", "]");
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            String livre = String.format("{\"titre\":\"Livre %d\",\"auteur\":\"Auteur\",\"categorie\":\"Roman\",\"isbn\":\"978%010d\"}", i, i);
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/books"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(livre)).build(), HttpResponse.BodyHandlers.ofString());
+            long id = Long.parseLong(created.body().replaceAll("^\\{\"id\":(\\d+).*$", "$1"));
+            ids.add(id);
+            batch.add(Long.toString(id));
+        }
+        batchBody = batch.toString();
+        if (projection) {
+            // La réconciliation du démarrage a tourné avant la création des livres : j'attends qu'elle ait abouti
+            while (!context.getBean(DisponibiliteProjection.class).isReady()) {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        empruntsService.stop(0);
+    }
+
+    @Benchmark
+    public int perId() throws IOException, InterruptedException {
+        int disponibles = 0;
+        for (Long id : ids) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/" + id + "/availability"))
+                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+            if ("true".equals(response.body())) {
+                disponibles++;
+            }
+        }
+        return disponibles;
+    }
+
+    @Benchmark
+    public String batch() throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/availability"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(batchBody)).build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AvailabilityBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
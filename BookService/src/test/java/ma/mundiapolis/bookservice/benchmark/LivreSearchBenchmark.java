@@ -0,0 +1,152 @@
+package ma.mundiapolis.bookservice.benchmark;
+
+import ma.mundiapolis.bookservice.facet.LivreFiltre;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.pagination.LivreSort;
+import ma.mundiapolis.bookservice.search.LivreSearchHits;
+import ma.mundiapolis.bookservice.search.LivreSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche dans le catalogue : l'ancienne requête LIKE contre l'index Lucene, pour une page de 20 résultats.
+ * <ul>
+ *     <li>sqlLike : la requête générée par findByTitreContainingIgnoreCaseOrAuteurContainingIgnoreCase
+ *     (UPPER(...) LIKE '%q%', donc un parcours complet de la table) et le count de la Page, sur H2 en mémoire.</li>
+ *     <li>lucene : LivreSearchIndex.search, hors chargement des 20 livres par ID.</li>
+ * </ul>
+ * « miserables » (sans accent) ne trouve rien en LIKE alors que les titres contiennent « Misérables ».
+ * Lancement : {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath ma.mundiapolis.bookservice.benchmark.LivreSearchBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class LivreSearchBenchmark {
+
+    private static final String[] TITRES = {"Les Misérables", "L'Étranger", "La Peste", "La Chartreuse", "Le Rouge et le Noir",
+            "L'Éducation sentimentale", "Germinal", "Bel-Ami", "Le Horla", "La Comédie humaine", "Candide", "Zadig",
+            "Mémoires d'outre-tombe", "Voyage au bout de la nuit", "Le Château", "La Forêt", "La Mer", "Notre-Dame"};
+    private static final String[] SOUS_TITRES = {"", "tome", "récit", "nouvelle édition", "édition illustrée",
+            "chroniques", "souvenirs", "carnets", "lettres", "poèmes"};
+    private static final String[] AUTEURS = {"Victor Hugo", "Albert Camus", "Émile Zola", "Stendhal", "Gustave Flaubert",
+            "Honoré de Balzac", "Guy de Maupassant", "Voltaire", "François-René de Chateaubriand", "Louis-Ferdinand Céline",
+            "Marguerite Duras", "Simone de Beauvoir", "Jules Verne", "Alexandre Dumas", "George Sand", "Colette"};
+    private static final String[] CATEGORIES = {"Roman", "Poésie", "Théâtre", "Essai", "Nouvelle", "Biographie"};
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000", "1000000"})
+    private int livres;
+
+    @Param({"hugo", "miserables"})
+    private String query;
+
+    private Connection connection;
+    private PreparedStatement likePage;
+    private PreparedStatement likeCount;
+    private LivreSearchIndex searchIndex;
+
+    @Setup
+    public void setup() throws SQLException, IOException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:catalogue;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists livre");
+            statement.execute("create table livre (id bigint primary key, titre varchar(255), auteur varchar(255), "
+                    + "categorie varchar(100), isbn varchar(255))");
+        }
+        searchIndex = new LivreSearchIndex("");
+
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into livre (id, titre, auteur, categorie, isbn) values (?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= livres; id++) {
+                Livre livre = Livre.builder()
+                        .id(id)
+                        .titre((TITRES[random.nextInt(TITRES.length)] + " " + SOUS_TITRES[random.nextInt(SOUS_TITRES.length)]
+                                + " " + (1 + random.nextInt(50))).replace("  ", " "))
+                        .auteur(AUTEURS[random.nextInt(AUTEURS.length)])
+                        .categorie(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                        .isbn(String.format("978%010d", id))
+                        .build();
+                insert.setLong(1, livre.getId());
+                insert.setString(2, livre.getTitre());
+                insert.setString(3, livre.getAuteur());
+                insert.setString(4, livre.getCategorie());
+                insert.setString(5, livre.getIsbn());
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+                searchIndex.index(livre);
+            }
+            insert.executeBatch();
+        }
+        searchIndex.refresh();
+
+        // Requêtes telles que générées par Hibernate pour la Page de Spring Data
+        likePage = connection.prepareStatement("select id, titre, auteur, categorie, isbn from livre "
+                + "where upper(titre) like upper(?) escape '\\' or upper(auteur) like upper(?) escape '\\' "
+                + "offset ? rows fetch first ? rows only");
+        likeCount = connection.prepareStatement("select count(id) from livre "
+                + "where upper(titre) like upper(?) escape '\\' or upper(auteur) like upper(?) escape '\\'");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        searchIndex.close();
+    }
+
+    @Benchmark
+    public List<Long> sqlLike() throws SQLException {
+        String pattern = "%" + query + "%";
+        List<Long> ids = new ArrayList<>(PAGE_SIZE);
+        likePage.setString(1, pattern);
+        likePage.setString(2, pattern);
+        likePage.setInt(3, 0);
+        likePage.setInt(4, PAGE_SIZE);
+        try (ResultSet rs = likePage.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        likeCount.setString(1, pattern);
+        likeCount.setString(2, pattern);
+        try (ResultSet rs = likeCount.executeQuery()) {
+            rs.next();
+            ids.add(rs.getLong(1));
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public LivreSearchHits lucene() {
+        return searchIndex.search(query, LivreFiltre.AUCUN, null, LivreSort.PERTINENCE, null, PAGE_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LivreSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,117 @@
+package ma.mundiapolis.bookservice.benchmark;
+
+import ma.mundiapolis.bookservice.dto.SuggestionResponse;
+import ma.mundiapolis.bookservice.facet.LivreFiltre;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.pagination.LivreSort;
+import ma.mundiapolis.bookservice.search.LivreSearchHits;
+import ma.mundiapolis.bookservice.search.LivreSearchIndex;
+import ma.mundiapolis.bookservice.suggest.LivreSuggestIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saisie dans la barre de recherche : une recherche plein texte (20 résultats) par frappe, contre
+ * une requête à l'index de suggestions (10 titres ou auteurs), sur le même catalogue.
+ * <ul>
+ *     <li>search : LivreSearchIndex.search, ce que déclenchait chaque frappe via /api/books/search.</li>
+ *     <li>suggest : LivreSuggestIndex.suggest, derrière /api/books/suggest.</li>
+ * </ul>
+ * Chaque titre se termine par un mot unique : c'est le pire cas pour la mémoire de l'index de suggestions,
+ * affichée à la fin du setup.
+ * Lancement : {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath ma.mundiapolis.bookservice.benchmark.LivreSuggestBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class LivreSuggestBenchmark {
+
+    private static final String[] TITRES = {"Les Misérables", "L'Étranger", "La Peste", "La Chartreuse", "Le Rouge et le Noir",
+            "L'Éducation sentimentale", "Germinal", "Bel-Ami", "Le Horla", "La Comédie humaine", "Candide", "Zadig",
+            "Mémoires d'outre-tombe", "Voyage au bout de la nuit", "Le Château", "La Forêt", "La Mer", "Notre-Dame"};
+    private static final String[] SOUS_TITRES = {"", "tome", "récit", "nouvelle édition", "édition illustrée",
+            "chroniques", "souvenirs", "carnets", "lettres", "poèmes"};
+    private static final String[] AUTEURS = {"Victor Hugo", "Albert Camus", "Émile Zola", "Stendhal", "Gustave Flaubert",
+            "Honoré de Balzac", "Guy de Maupassant", "Voltaire", "François-René de Chateaubriand", "Louis-Ferdinand Céline",
+            "Marguerite Duras", "Simone de Beauvoir", "Jules Verne", "Alexandre Dumas", "George Sand", "Colette"};
+
+    @Param({"100000"})
+    private int livres;
+
+    @Param({"mis", "hugo", "le rouge"})
+    private String prefix;
+
+    private LivreSearchIndex searchIndex;
+    private LivreSuggestIndex suggestIndex;
+
+    @Setup
+    public void setup() throws IOException {
+        searchIndex = new LivreSearchIndex("");
+        suggestIndex = new LivreSuggestIndex(Integer.MAX_VALUE);
+
+        List<Livre> catalogue = catalogue(livres);
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long avant = runtime.totalMemory() - runtime.freeMemory();
+        for (Livre livre : catalogue) {
+            suggestIndex.enregistre(livre.getId(), livre.getTitre(), livre.getAuteur());
+        }
+        System.gc();
+        System.out.printf("%nIndex de suggestions : %d titres et auteurs, environ %d Mo%n",
+                suggestIndex.taille(), (runtime.totalMemory() - runtime.freeMemory() - avant) / (1024 * 1024));
+
+        catalogue.forEach(searchIndex::index);
+        searchIndex.refresh();
+    }
+
+    private static List<Livre> catalogue(int livres) {
+        Random random = new Random(42);
+        List<Livre> catalogue = new ArrayList<>(livres);
+        for (long id = 1; id <= livres; id++) {
+            catalogue.add(Livre.builder()
+                    .id(id)
+                    .titre((TITRES[random.nextInt(TITRES.length)] + " " + SOUS_TITRES[random.nextInt(SOUS_TITRES.length)]
+                            + " " + Long.toString(id * 7919, 36)).replace("  ", " "))
+                    .auteur(AUTEURS[random.nextInt(AUTEURS.length)])
+                    .categorie("Roman")
+                    .isbn(String.format("978%010d", id))
+                    .build());
+        }
+        return catalogue;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        searchIndex.close();
+    }
+
+    @Benchmark
+    public LivreSearchHits search() {
+        return searchIndex.search(prefix, LivreFiltre.AUCUN, null, LivreSort.PERTINENCE, null, 20);
+    }
+
+    @Benchmark
+    public List<SuggestionResponse> suggest() {
+        return suggestIndex.suggest(prefix, LivreSuggestIndex.MAX_RESULTS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LivreSuggestBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
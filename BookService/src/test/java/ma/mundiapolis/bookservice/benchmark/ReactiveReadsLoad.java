@@ -0,0 +1,151 @@
+package ma.mundiapolis.bookservice.benchmark;
+
+import ma.mundiapolis.bookservice.BookServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test de charge des lectures du catalogue, mode bloquant contre mode réactif ({@code livre.reactive.enabled}),
+ * sur un BookService démarré en mémoire (H2, 5000 livres). Ce n'est pas un benchmark JMH : il mesure le débit,
+ * les latences p50/p99, le pic de threads et de heap sous {@code load.connections} connexions simultanées.
+ * <ul>
+ *     <li>{@code load.mix=mixed} : 60 % livre par ID (cache), 25 % page filtrée du catalogue (JDBC),
+ *     15 % disponibilité ;</li>
+ *     <li>{@code load.mix=availability} : 100 % disponibilité.</li>
+ * </ul>
+ * EmpruntsService est simulé par un serveur local qui répond en {@code load.remote-ms} ms et refuse la
+ * réconciliation : la projection n'est jamais prête et chaque disponibilité fait l'appel distant.
+ * Le générateur de charge tourne dans la même JVM : à comparer entre modes, pas dans l'absolu.
+ * Lancement : {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-Dload.reactive=true -Dload.mix=mixed -cp %classpath ma.mundiapolis.bookservice.benchmark.ReactiveReadsLoad"}
+ */
+public class ReactiveReadsLoad {
+
+    private static final int LIVRES = 5000;
+
+    public static void main(String[] args) {
+        boolean reactive = Boolean.getBoolean("load.reactive");
+        boolean availability = "availability".equals(System.getProperty("load.mix", "mixed"));
+        int remoteMs = Integer.getInteger("load.remote-ms", 20);
+        int connections = Integer.getInteger("load.connections", 2000);
+        int seconds = Integer.getInteger("load.seconds", 20);
+
+        DisposableServer empruntsService = HttpServer.create().port(0).route(routes -> routes
+                .get("/api/loans/book/{id}", (request, response) -> response.header("Content-Type", "application/json")
+                        .sendString(Mono.just("[]").delayElement(Duration.ofMillis(remoteMs))))
+                .get("/internal/loans/changes", (request, response) -> response.status(503).send())
+                .get("/internal/loans/active", (request, response) -> response.status(503).send()))
+                .bindNow();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookServiceApplication.class).run(
+                "--server.port=0", "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.EMPRUNTSSERVICE[0].uri=http://localhost:"
+                        + empruntsService.port(),
+                "--spring.datasource.url=jdbc:h2:mem:charge", "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa", "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN", "--logging.level.ma.mundiapolis.bookservice=WARN",
+                "--management.tracing.sampling.probability=0",
+                "--livre.reactive.enabled=" + reactive);
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        List<Object[]> livres = new ArrayList<>(LIVRES);
+        for (int i = 0; i < LIVRES; i++) {
+            livres.add(new Object[]{"Titre " + i, "Auteur " + (i % 300), "Cat" + (i % 20), "isbn" + i, "x" + i});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO livre (titre, auteur, categorie, isbn, isbn13,"
+                + " date_creation) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", livres);
+
+        ConnectionProvider pool = ConnectionProvider.builder("charge")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool)))
+                .build();
+
+        // Chauffe : JIT, cache local, pools de connexions
+        Flux.range(0, 3000)
+                .flatMap(i -> client.get().uri(uri(i, availability)).retrieve().toBodilessEntity()
+                        .onErrorResume(e -> Mono.empty()), 200)
+                .blockLast();
+        System.gc();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long[] latences = new long[5_000_000];
+        AtomicInteger requetes = new AtomicInteger();
+        AtomicInteger erreurs = new AtomicInteger();
+        AtomicLong heapMax = new AtomicLong();
+        Disposable heap = Flux.interval(Duration.ofMillis(200)).subscribe(tick -> heapMax.accumulateAndGet(
+                Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory(), Math::max));
+        long fin = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        Flux.range(0, connections)
+                .flatMap(connexion -> Flux.<Integer>generate(sink -> {
+                            if (System.nanoTime() < fin) {
+                                sink.next(ThreadLocalRandom.current().nextInt(1000));
+                            } else {
+                                sink.complete();
+                            }
+                        })
+                        .concatMap(i -> {
+                            long debut = System.nanoTime();
+                            return client.get().uri(uri(i, availability)).retrieve().toBodilessEntity()
+                                    .doOnNext(response -> {
+                                        int n = requetes.getAndIncrement();
+                                        if (n < latences.length) {
+                                            latences[n] = System.nanoTime() - debut;
+                                        }
+                                    })
+                                    .onErrorResume(e -> {
+                                        erreurs.incrementAndGet();
+                                        return Mono.empty();
+                                    });
+                        }), connections)
+                .blockLast();
+        heap.dispose();
+
+        int n = Math.min(requetes.get(), latences.length);
+        long[] triees = Arrays.copyOf(latences, n);
+        Arrays.sort(triees);
+        System.out.printf("mix=%s reactive=%s remote=%dms connexions=%d : %.0f req/s, p50 %.1f ms, p99 %.1f ms,"
+                        + " %d erreurs, pic %d threads, heap max %d Mo%n",
+                availability ? "availability" : "mixed", reactive, remoteMs, connections, n / (double) seconds,
+                triees[n / 2] / 1e6, triees[(int) (n * 0.99)] / 1e6, erreurs.get(), threads.getPeakThreadCount(),
+                heapMax.get() >> 20);
+
+        context.close();
+        empruntsService.disposeNow();
+    }
+
+    private static String uri(int i, boolean availability) {
+        int tirage = availability ? 99 : ThreadLocalRandom.current().nextInt(100);
+        if (tirage < 60) {
+            return "/api/books/" + (1 + i % 1000);
+        }
+        if (tirage < 85) {
+            return "/api/books?size=20&categorie=Cat" + (i % 20);
+        }
+        return "/api/books/" + (1 + i % 1000) + "/availability";
+    }
+}
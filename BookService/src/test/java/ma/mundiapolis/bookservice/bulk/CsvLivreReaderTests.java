@@ -0,0 +1,106 @@
+package ma.mundiapolis.bookservice.bulk;
+
+import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvLivreReaderTests {
+
+    @Test
+    void litLesColonnesDansLOrdreDeLEnTete() throws IOException {
+        List<BulkRow> rows = lire("isbn,categorie,titre,id,auteur\r\n"
+                + "9782070360024,Roman,L'Étranger,12,Albert Camus\r\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).ligne()).isEqualTo(2);
+        assertThat(rows.get(0).livre().getTitre()).isEqualTo("L'Étranger");
+        assertThat(rows.get(0).livre().getAuteur()).isEqualTo("Albert Camus");
+        assertThat(rows.get(0).livre().getCategorie()).isEqualTo("Roman");
+        assertThat(rows.get(0).livre().getIsbn()).isEqualTo("9782070360024");
+    }
+
+    @Test
+    void accepteUnEnTeteAvecBomEtMajuscules() throws IOException {
+        List<BulkRow> rows = lire("\uFEFFTitre, Auteur ,CATEGORIE,Isbn\nLa Peste,Camus,Roman,2070360423\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).livre().getTitre()).isEqualTo("La Peste");
+    }
+
+    @Test
+    void champsEntreGuillemetsAvecVirgulesEtGuillemetsDoubles() throws IOException {
+        List<BulkRow> rows = lire("titre,auteur,categorie,isbn\n"
+                + "\"Guerre et paix, tome 1\",\"Léon \"\"Lev\"\" Tolstoï\",Roman,9782070360024\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).livre().getTitre()).isEqualTo("Guerre et paix, tome 1");
+        assertThat(rows.get(0).livre().getAuteur()).isEqualTo("Léon \"Lev\" Tolstoï");
+    }
+
+    @Test
+    void champMultiligneGardeLeNumeroDeSaPremiereLigne() throws IOException {
+        List<BulkRow> rows = lire("titre,auteur,categorie,isbn\n"
+                + "\"Titre\nsur deux lignes\",Auteur,Roman,9782070360024\n"
+                + "Suivant,Auteur,Roman,2070360423\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).ligne()).isEqualTo(2);
+        assertThat(rows.get(0).livre().getTitre()).isEqualTo("Titre\nsur deux lignes");
+        assertThat(rows.get(1).ligne()).isEqualTo(4);
+        assertThat(rows.get(1).livre().getTitre()).isEqualTo("Suivant");
+    }
+
+    @Test
+    void ligneTropCourteEstRejeteeSansArreterLaLecture() throws IOException {
+        List<BulkRow> rows = lire("titre,auteur,categorie,isbn\n"
+                + "Incomplet,Auteur\n"
+                + "Complet,Auteur,Roman,9782070360024\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).livre()).isNull();
+        assertThat(rows.get(0).ligne()).isEqualTo(2);
+        assertThat(rows.get(0).erreur()).contains("colonnes insuffisant");
+        assertThat(rows.get(1).livre().getTitre()).isEqualTo("Complet");
+    }
+
+    @Test
+    void ignoreLesLignesVidesEtLaDerniereLigneSansSautDeLigne() throws IOException {
+        List<BulkRow> rows = lire("titre,auteur,categorie,isbn\n\n"
+                + "Un,Auteur,Roman,9782070360024\n\r\n"
+                + "Deux,Auteur,Roman,2070360423");
+
+        assertThat(rows).extracting(row -> row.livre().getTitre()).containsExactly("Un", "Deux");
+        assertThat(rows.get(1).ligne()).isEqualTo(5);
+    }
+
+    @Test
+    void colonneManquanteDansLEnTete() {
+        assertThatThrownBy(() -> new CsvLivreReader(new StringReader("titre,auteur,isbn\nA,B,9782070360024\n")))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("categorie");
+    }
+
+    @Test
+    void fichierVide() {
+        assertThatThrownBy(() -> new CsvLivreReader(new StringReader("")))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("vide");
+    }
+
+    private static List<BulkRow> lire(String csv) throws IOException {
+        CsvLivreReader reader = new CsvLivreReader(new StringReader(csv));
+        List<BulkRow> rows = new ArrayList<>();
+        BulkRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
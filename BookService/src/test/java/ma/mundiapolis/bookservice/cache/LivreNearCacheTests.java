@@ -0,0 +1,127 @@
+package ma.mundiapolis.bookservice.cache;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.mundiapolis.bookservice.dto.LivreResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LivreNearCacheTests {
+
+    private final LivreNearCache cache = new LivreNearCache(100, Duration.ofMinutes(1), 1_000_000,
+            JsonMapper.builder().findAndAddModules().build(), new SimpleMeterRegistry());
+
+    // Base simulée : la version courante du livre 1
+    private final AtomicReference<LivreResponse> enBase = new AtomicReference<>(livre("Ancien titre", 1));
+
+    @Test
+    void invalidationPendantUnChargementNeLaissePasLAncienneVersion() throws Exception {
+        CountDownLatch chargementCommence = new CountDownLatch(1);
+        CountDownLatch finChargement = new CountDownLatch(1);
+        // Le lecteur lit l'ancienne version puis reste bloqué avant de la mettre en cache
+        CompletableFuture<Optional<LivreResponse>> lecture = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            LivreResponse lu = enBase.get();
+            chargementCommence.countDown();
+            await(finChargement);
+            return Optional.of(lu);
+        }));
+        assertThat(chargementCommence.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // La modification est commitée, puis son invalidation arrive pendant le chargement
+        enBase.set(livre("Nouveau titre", 2));
+        CompletableFuture<Void> invalidation = CompletableFuture.runAsync(() -> cache.invalidate(List.of(1L)));
+        Thread.sleep(100);
+        assertThat(invalidation).isNotDone();
+
+        finChargement.countDown();
+        invalidation.get(5, TimeUnit.SECONDS);
+        assertThat(lecture.get(5, TimeUnit.SECONDS)).map(LivreResponse::getTitre).contains("Ancien titre");
+
+        assertThat(cache.get(1L, id -> Optional.of(enBase.get()))).map(LivreResponse::getTitre).contains("Nouveau titre");
+    }
+
+    @Test
+    void invalidationPendantUneSerialisationNeLaissePasLesAnciensOctets() throws Exception {
+        CountDownLatch chargementCommence = new CountDownLatch(1);
+        CountDownLatch finChargement = new CountDownLatch(1);
+        CompletableFuture<Optional<LivreJson>> lecture = CompletableFuture.supplyAsync(() -> cache.getJson(1L, id -> {
+            LivreResponse lu = enBase.get();
+            chargementCommence.countDown();
+            await(finChargement);
+            return Optional.of(lu);
+        }));
+        assertThat(chargementCommence.await(5, TimeUnit.SECONDS)).isTrue();
+
+        enBase.set(livre("Nouveau titre", 2));
+        CompletableFuture<Void> invalidation = CompletableFuture.runAsync(() -> cache.invalidate(List.of(1L)));
+        finChargement.countDown();
+        invalidation.get(5, TimeUnit.SECONDS);
+        lecture.get(5, TimeUnit.SECONDS);
+
+        assertThat(cache.getJsonIfPresent(1L)).isEmpty();
+        LivreJson json = cache.getJson(1L, id -> Optional.of(enBase.get())).orElseThrow();
+        assertThat(new String(json.octets(), StandardCharsets.UTF_8)).contains("Nouveau titre");
+    }
+
+    @Test
+    void livreEnCacheLuUneSeuleFois() {
+        int[] chargements = {0};
+        for (int i = 0; i < 3; i++) {
+            cache.get(1L, id -> {
+                chargements[0]++;
+                return Optional.of(enBase.get());
+            });
+        }
+
+        assertThat(chargements[0]).isEqualTo(1);
+        assertThat(cache.statsParId().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void isbnReverifieApresChangementDIsbn() {
+        String isbn = "9782070360024";
+        enBase.get().setIsbn13(isbn);
+        assertThat(cache.getByIsbn(isbn, i -> Optional.of(1L), id -> Optional.of(enBase.get()))).isPresent();
+
+        // Le livre 1 change d'ISBN ; son ancien ISBN est maintenant porté par le livre 2
+        LivreResponse modifie = livre("Ancien titre", 2);
+        modifie.setIsbn13("9780804429573");
+        cache.invalidate(List.of(1L));
+        LivreResponse autre = livre("Autre livre", 1);
+        autre.setId(2L);
+        autre.setIsbn13(isbn);
+
+        Optional<LivreResponse> trouve = cache.getByIsbn(isbn, i -> Optional.of(2L),
+                id -> Optional.of(id == 1L ? modifie : autre));
+        assertThat(trouve).map(LivreResponse::getId).contains(2L);
+    }
+
+    private static LivreResponse livre(String titre, int minute) {
+        return LivreResponse.builder()
+                .id(1L)
+                .titre(titre)
+                .auteur("Auteur")
+                .dateCreation(LocalDateTime.of(2026, 10, 1, 10, 0))
+                .dateModification(LocalDateTime.of(2026, 10, 1, 10, minute))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
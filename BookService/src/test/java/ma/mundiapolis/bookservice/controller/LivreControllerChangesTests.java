@@ -0,0 +1,48 @@
+package ma.mundiapolis.bookservice.controller;
+
+import ma.mundiapolis.bookservice.bulk.BulkImportService;
+import ma.mundiapolis.bookservice.exception.ChangesExpiredException;
+import ma.mundiapolis.bookservice.service.ILivreService;
+import ma.mundiapolis.bookservice.service.LivreChangeService;
+import ma.mundiapolis.bookservice.service.LivreReactiveService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LivreController.class)
+class LivreControllerChangesTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ILivreService livreService;
+
+    @MockBean
+    private LivreReactiveService livreReactiveService;
+
+    @MockBean
+    private BulkImportService bulkImportService;
+
+    @MockBean
+    private LivreChangeService livreChangeService;
+
+    @Test
+    void versionPurgeeRepond410() throws Exception {
+        when(livreChangeService.getChanges(3, 500)).thenThrow(new ChangesExpiredException(
+                "Suppressions purgées jusqu'à la version 8 : resynchronisez le catalogue depuis since=0"));
+
+        mockMvc.perform(get("/api/books/changes").param("since", "3"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.status").value(410))
+                .andExpect(jsonPath("$.message").value(containsString("since=0")));
+    }
+}
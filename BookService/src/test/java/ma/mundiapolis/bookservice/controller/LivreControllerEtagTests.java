@@ -0,0 +1,142 @@
+package ma.mundiapolis.bookservice.controller;
+
+import ma.mundiapolis.bookservice.bulk.BulkImportService;
+import ma.mundiapolis.bookservice.cache.LivreJson;
+import ma.mundiapolis.bookservice.dto.LivrePageResponse;
+import ma.mundiapolis.bookservice.service.ILivreService;
+import ma.mundiapolis.bookservice.service.LivreChangeService;
+import ma.mundiapolis.bookservice.service.LivreReactiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LivreController.class)
+class LivreControllerEtagTests {
+
+    private static final String ETAG_LIVRE = "\"1-1790000000.000000000\"";
+    private static final Instant MODIFICATION = Instant.parse("2026-09-21T14:13:20Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ILivreService livreService;
+
+    @MockBean
+    private LivreReactiveService livreReactiveService;
+
+    @MockBean
+    private BulkImportService bulkImportService;
+
+    @MockBean
+    private LivreChangeService livreChangeService;
+
+    @BeforeEach
+    void setUp() {
+        byte[] json = "{\"id\":1,\"titre\":\"Germinal\"}".getBytes(StandardCharsets.UTF_8);
+        when(livreReactiveService.getLivreJsonById(1L)).thenReturn(Mono.just(new LivreJson(json, ETAG_LIVRE, MODIFICATION)));
+        when(livreReactiveService.getCatalogueVersion()).thenReturn(Mono.just(7L));
+        when(livreReactiveService.getLivres(any(), any(), anyInt(), any())).thenReturn(Mono.just(new LivrePageResponse()));
+        when(livreService.getCatalogueVersion()).thenReturn(7L);
+        when(livreService.getAllLivres()).thenReturn(List.of());
+    }
+
+    @Test
+    void livreAvecETagEtLastModified() throws Exception {
+        perform(get("/api/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG_LIVRE))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, MODIFICATION.toEpochMilli()))
+                .andExpect(content().json("{\"id\":1,\"titre\":\"Germinal\"}"));
+    }
+
+    @Test
+    void livreInchangeParETag() throws Exception {
+        perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, ETAG_LIVRE))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void livreInchangeParDate() throws Exception {
+        perform(get("/api/books/1").header(HttpHeaders.IF_MODIFIED_SINCE, "Mon, 21 Sep 2026 14:13:20 GMT"))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void livreModifieDepuisLETagDuClient() throws Exception {
+        perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-1.000000000\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG_LIVRE));
+    }
+
+    @Test
+    void catalogueAvecETagDeVersion() throws Exception {
+        perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalogue-7\""));
+    }
+
+    @Test
+    void catalogueInchangeSansLirePage() throws Exception {
+        perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, "\"catalogue-6\", W/\"catalogue-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalogue-7\""));
+
+        verify(livreReactiveService, never()).getLivres(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void catalogueModifieDepuisLaVersionDuClient() throws Exception {
+        perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, "\"catalogue-6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalogue-7\""));
+    }
+
+    @Test
+    void filtreDisponibiliteSansETag() throws Exception {
+        perform(get("/api/books").param("available", "true").header(HttpHeaders.IF_NONE_MATCH, "\"catalogue-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        verify(livreReactiveService, never()).getCatalogueVersion();
+    }
+
+    @Test
+    void catalogueNonPagineInchange() throws Exception {
+        mockMvc.perform(get("/api/books").param("unpaged", "true").header(HttpHeaders.IF_NONE_MATCH, "\"catalogue-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(livreService, never()).getAllLivres();
+        verify(livreService).getCatalogueVersion();
+    }
+
+    // Les réponses Mono passent par un dispatch asynchrone
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
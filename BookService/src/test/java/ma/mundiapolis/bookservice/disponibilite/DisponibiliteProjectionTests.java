@@ -0,0 +1,107 @@
+package ma.mundiapolis.bookservice.disponibilite;
+
+import ma.mundiapolis.bookservice.dto.EmpruntChangeResponse;
+import ma.mundiapolis.bookservice.dto.EmpruntsActifsResponse;
+import ma.mundiapolis.bookservice.event.LivresEmpruntesEvent;
+import ma.mundiapolis.bookservice.model.DisponibiliteLivre;
+import ma.mundiapolis.bookservice.repository.DisponibiliteLivreRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(DisponibiliteProjection.class)
+@RecordApplicationEvents
+class DisponibiliteProjectionTests {
+
+    @Autowired
+    private DisponibiliteProjection projection;
+
+    @Autowired
+    private DisponibiliteLivreRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void premierChangementCreeLaLigne() {
+        projection.apply(List.of(change(3, 10L, 1L, "EMPRUNTE")));
+
+        DisponibiliteLivre ligne = ligne(1L);
+        assertThat(ligne.isEmprunte()).isTrue();
+        assertThat(ligne.getEmpruntId()).isEqualTo(10L);
+        assertThat(ligne.getSequence()).isEqualTo(3);
+        assertThat(events.stream(LivresEmpruntesEvent.class)).containsExactly(new LivresEmpruntesEvent(List.of(1L)));
+    }
+
+    @Test
+    void changementPlusAncienCommiteApresNeRevientPasEnArriere() {
+        projection.apply(List.of(change(5, 10L, 1L, "EMPRUNTE")));
+        projection.apply(List.of(change(7, 10L, 1L, "RETOURNE")));
+        projection.apply(List.of(change(6, 11L, 1L, "EMPRUNTE")));
+
+        DisponibiliteLivre ligne = ligne(1L);
+        assertThat(ligne.isEmprunte()).isFalse();
+        assertThat(ligne.getEmpruntId()).isNull();
+        assertThat(ligne.getSequence()).isEqualTo(7);
+        assertThat(events.stream(LivresEmpruntesEvent.class)).hasSize(1);
+    }
+
+    @Test
+    void changementRejoueNEstPasRepublie() {
+        projection.apply(List.of(change(5, 10L, 1L, "EMPRUNTE")));
+        projection.apply(List.of(change(5, 10L, 1L, "EMPRUNTE")));
+
+        assertThat(events.stream(LivresEmpruntesEvent.class)).hasSize(1);
+    }
+
+    @Test
+    void reconciliationCorrigeLesLignesEnRetard() {
+        projection.apply(List.of(change(1, 10L, 1L, "EMPRUNTE"), change(2, 20L, 2L, "EMPRUNTE")));
+
+        int corriges = projection.reconcile(new EmpruntsActifsResponse(8,
+                List.of(new EmpruntsActifsResponse.EmpruntActif(2L, 20L), new EmpruntsActifsResponse.EmpruntActif(3L, 30L))));
+
+        assertThat(corriges).isEqualTo(2);
+        assertThat(ligne(1L).isEmprunte()).isFalse();
+        assertThat(ligne(2L).getSequence()).isEqualTo(2);
+        assertThat(ligne(3L).getEmpruntId()).isEqualTo(30L);
+        assertThat(projection.isReady()).isTrue();
+    }
+
+    @Test
+    void reconciliationPlusAncienneQueLaLigneNeLaTouchePas() {
+        projection.apply(List.of(change(9, 10L, 1L, "EMPRUNTE")));
+
+        int corriges = projection.reconcile(new EmpruntsActifsResponse(8, List.of()));
+
+        assertThat(corriges).isZero();
+        assertThat(ligne(1L).isEmprunte()).isTrue();
+    }
+
+    private DisponibiliteLivre ligne(Long livreId) {
+        // Les UPDATE conditionnels contournent le contexte de persistance
+        entityManager.clear();
+        return repository.findById(livreId).orElseThrow();
+    }
+
+    private static EmpruntChangeResponse change(long sequence, Long empruntId, Long livreId, String type) {
+        return EmpruntChangeResponse.builder()
+                .sequence(sequence)
+                .empruntId(empruntId)
+                .livreId(livreId)
+                .type(type)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package ma.mundiapolis.bookservice.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTests {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/books/1"));
+
+    @Test
+    void fileReactivePleineAvecRetryAfter() {
+        ReflectionTestUtils.setField(handler, "surchargeRetryAfter", Duration.ofSeconds(2));
+
+        ResponseEntity<ErrorResponse> response = handler.handleRejectedExecutionException(
+                new RejectedExecutionException("file pleine"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getBody().getMessage()).isEqualTo("Service surchargé, réessayez plus tard");
+    }
+
+    @Test
+    void retryAfterJamaisInferieurAUneSeconde() {
+        ReflectionTestUtils.setField(handler, "surchargeRetryAfter", Duration.ofMillis(200));
+
+        ResponseEntity<ErrorResponse> response = handler.handleRejectedExecutionException(
+                new RejectedExecutionException("file pleine"), request);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void serviceIndisponibleAvecSonRetryAfter() {
+        ResponseEntity<ErrorResponse> response = handler.handleServiceUnavailableException(
+                new ServiceUnavailableException("EmpruntsService injoignable", Duration.ofSeconds(5)), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+}
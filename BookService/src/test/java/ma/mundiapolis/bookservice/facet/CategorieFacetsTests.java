@@ -0,0 +1,56 @@
+package ma.mundiapolis.bookservice.facet;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategorieFacetsTests {
+
+    @Test
+    void livreSupprimePendantLeChargementNEstPasRecompte() {
+        CategorieFacets facets = new CategorieFacets();
+        facets.charge(1L, "Roman");
+        // Le chargement a lu le livre 2 avant sa suppression, mais ne le traite qu'après
+        facets.supprime(2L);
+        facets.charge(2L, "Roman");
+        facets.markReady();
+
+        assertThat(facets.compteurs()).containsExactly(Map.entry("Roman", 1L));
+    }
+
+    @Test
+    void livreModifiePendantLeChargementGardeSaCategorieRecente() {
+        CategorieFacets facets = new CategorieFacets();
+        facets.enregistre(1L, "Histoire");
+        facets.charge(1L, "Roman");
+        facets.markReady();
+
+        assertThat(facets.compteurs()).containsOnlyKeys("Histoire");
+    }
+
+    @Test
+    void livreRecreeApresSuppressionEstCompte() {
+        CategorieFacets facets = new CategorieFacets();
+        facets.supprime(1L);
+        facets.enregistre(1L, "Roman");
+        facets.charge(1L, "Roman");
+        facets.markReady();
+
+        assertThat(facets.compteurs()).containsEntry("Roman", 1L);
+    }
+
+    @Test
+    void suppressionApresChargementDecrementeEtRetireLaCategorieVide() {
+        CategorieFacets facets = new CategorieFacets();
+        facets.charge(1L, "Roman");
+        facets.charge(2L, "Essai");
+        facets.charge(3L, "Essai");
+        facets.markReady();
+
+        facets.supprime(1L);
+
+        assertThat(facets.compteurs()).containsExactly(Map.entry("Essai", 2L));
+    }
+}
@@ -0,0 +1,69 @@
+package ma.mundiapolis.bookservice.isbn;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsbnsTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"9782070360024", "978-2-07-036002-4", "978 2 07 036002 4", "2070360024",
+            "2-07-036002-4", "ISBN 2-07-036002-4", "ISBN: 978-2-07-036002-4", "ISBN-10: 2-07-036002-4",
+            "ISBN-13: 978-2-07-036002-4"})
+    void formesAccepteesDuMemeLivre(String isbn) {
+        assertThat(Isbns.versIsbn13(isbn)).isEqualTo("9782070360024");
+    }
+
+    @Test
+    void isbn10AvecCleX() {
+        assertThat(Isbns.versIsbn13("080442957X")).isEqualTo("9780804429573");
+        assertThat(Isbns.versIsbn13("0-8044-2957-x")).isEqualTo("9780804429573");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"08044X9573", "978080442957X"})
+    void xAilleursQuEnCleDIsbn10(String isbn) {
+        assertThat(Isbns.versIsbn13(isbn)).isNull();
+    }
+
+    @Test
+    void prefixes978Et979() {
+        assertThat(Isbns.versIsbn13("979-10-323-0569-0")).isEqualTo("9791032305690");
+        // Clé de contrôle juste, mais ni 978 ni 979
+        assertThat(Isbns.versIsbn13("9771032305692")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"9782070360025", "2070360025"})
+    void cleDeControleFausse(String isbn) {
+        assertThat(Isbns.estValide(isbn)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"978--2070360024", "-9782070360024", "9782070360024-", "978_2070360024",
+            "978 -2070360024", "978.2.07.036002.4", " 9782070360024"})
+    void separateursMalPlaces(String isbn) {
+        assertThat(Isbns.versIsbn13(isbn)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ISBN9782070360024", "ISBN-12: 9782070360024", "ISBN-10:2070360024", "isbn 2070360024",
+            "ISBN:  2070360024"})
+    void prefixeMalForme(String isbn) {
+        assertThat(Isbns.versIsbn13(isbn)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "207036002", "97820703600241", "978207036002"})
+    void longueurs(String isbn) {
+        assertThat(Isbns.versIsbn13(isbn)).isNull();
+    }
+
+    @Test
+    void nullNEstPasValide() {
+        assertThat(Isbns.versIsbn13(null)).isNull();
+        assertThat(Isbns.estValide(null)).isFalse();
+    }
+}
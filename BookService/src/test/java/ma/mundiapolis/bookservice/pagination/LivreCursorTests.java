@@ -0,0 +1,70 @@
+package ma.mundiapolis.bookservice.pagination;
+
+import ma.mundiapolis.bookservice.exception.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LivreCursorTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Les Misérables", "titre|avec|séparateurs", "", "0.8734", "2026-10-17T08:00"})
+    void allerRetour(String lastValue) {
+        LivreCursor cursor = new LivreCursor(LivreCursor.Source.RECHERCHE, LivreSort.TITRE, 42, lastValue);
+
+        LivreCursor decode = LivreCursor.decode(cursor.encode(), LivreCursor.Source.RECHERCHE, LivreSort.TITRE);
+
+        assertThat(decode).isEqualTo(cursor);
+    }
+
+    @Test
+    void jetonOpaqueEtSansRembourrage() {
+        String token = new LivreCursor(LivreCursor.Source.CATALOGUE, LivreSort.AUTEUR, 7, "Hugo?").encode();
+
+        assertThat(token).doesNotContain("Hugo", "=", "+", "/");
+    }
+
+    @Test
+    void curseurDUnAutreTriRefuse() {
+        String token = new LivreCursor(LivreCursor.Source.CATALOGUE, LivreSort.TITRE, 1, "A").encode();
+
+        assertThatThrownBy(() -> LivreCursor.decode(token, LivreCursor.Source.CATALOGUE, LivreSort.AUTEUR))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("autre tri");
+    }
+
+    @Test
+    void curseurDUneAutreListeRefuse() {
+        String token = new LivreCursor(LivreCursor.Source.RECHERCHE, LivreSort.TITRE, 1, "A").encode();
+
+        assertThatThrownBy(() -> LivreCursor.decode(token, LivreCursor.Source.CATALOGUE, LivreSort.TITRE))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("autre liste");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pas du base64 !", "Q0FUQUxPR1VF", "Q0FUQUxPR1VFfFRJVFJFfHh8QQ", "SU5DT05OVXxUSVRSRXwxfEE"})
+    void curseurIllisibleRefuse(String token) {
+        assertThatThrownBy(() -> LivreCursor.decode(token, LivreCursor.Source.CATALOGUE, LivreSort.TITRE))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessage("Curseur de pagination invalide");
+    }
+
+    @Test
+    void jetonsInvalidesDuTestBienFormes() {
+        // Les jetons illisibles ci-dessus sont du base64url valide : c'est leur contenu qui est refusé
+        assertThat(decode("Q0FUQUxPR1VF")).isEqualTo("CATALOGUE");
+        assertThat(decode("Q0FUQUxPR1VFfFRJVFJFfHh8QQ")).isEqualTo("CATALOGUE|TITRE|x|A");
+        assertThat(decode("SU5DT05OVXxUSVRSRXwxfEE")).isEqualTo("INCONNU|TITRE|1|A");
+    }
+
+    private static String decode(String token) {
+        return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+package ma.mundiapolis.bookservice.service;
+
+import ma.mundiapolis.bookservice.dto.LivreChangeResponse;
+import ma.mundiapolis.bookservice.dto.LivreChangesResponse;
+import ma.mundiapolis.bookservice.exception.ChangesExpiredException;
+import ma.mundiapolis.bookservice.mapper.LivreMapperImpl;
+import ma.mundiapolis.bookservice.model.Livre;
+import ma.mundiapolis.bookservice.model.LivreChangement;
+import ma.mundiapolis.bookservice.repository.CatalogueVersionRepository;
+import ma.mundiapolis.bookservice.repository.LivreChangementRepository;
+import ma.mundiapolis.bookservice.repository.LivreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "livre.changes.retention=P1D"})
+@Import({LivreChangeService.class, LivreMapperImpl.class})
+class LivreChangeServiceTests {
+
+    @Autowired
+    private LivreChangeService livreChangeService;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private LivreChangementRepository livreChangementRepository;
+
+    @Autowired
+    private CatalogueVersionRepository catalogueVersionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long livreId;
+
+    // Version 1 : un livre enregistré ; 2 : une suppression vieille de 2 jours ; 3 : une suppression récente
+    @BeforeEach
+    void setUp() {
+        livreId = livreRepository.save(Livre.builder()
+                .titre("Germinal")
+                .auteur("Émile Zola")
+                .categorie("Roman")
+                .isbn("9782070360024")
+                .build()).getId();
+        long base = catalogueVersionRepository.findVersion().orElseThrow();
+        catalogueVersionRepository.increment(3);
+        changement(livreId, base + 1, false, LocalDateTime.now());
+        changement(livreId + 100, base + 2, true, LocalDateTime.now().minusDays(2));
+        changement(livreId + 101, base + 3, true, LocalDateTime.now());
+    }
+
+    @Test
+    void changementsDepuisUneVersion() {
+        long base = version() - 3;
+
+        LivreChangesResponse changes = livreChangeService.getChanges(base + 1, 500);
+
+        assertThat(changes.getChanges()).extracting(LivreChangeResponse::getLivreId)
+                .containsExactly(livreId + 100, livreId + 101);
+        assertThat(changes.getChanges()).allMatch(LivreChangeResponse::isSupprime);
+        assertThat(changes.getDerniereVersion()).isEqualTo(version());
+    }
+
+    @Test
+    void versionAnterieureALaPurgeExpiree() {
+        long base = version() - 3;
+
+        livreChangeService.purge();
+        // La purge est un DELETE en masse, qui contourne le contexte de persistance
+        entityManager.clear();
+
+        assertThat(livreChangementRepository.findById(livreId + 100)).isEmpty();
+        assertThat(catalogueVersionRepository.findVersionPurgee()).contains(base + 2);
+        assertThatThrownBy(() -> livreChangeService.getChanges(base + 1, 500))
+                .isInstanceOf(ChangesExpiredException.class)
+                .hasMessageContaining("since=0");
+    }
+
+    @Test
+    void versionPurgeeOuPlusRecenteToujoursServie() {
+        long base = version() - 3;
+
+        livreChangeService.purge();
+
+        assertThat(livreChangeService.getChanges(base + 2, 500).getChanges())
+                .extracting(LivreChangeResponse::getLivreId)
+                .containsExactly(livreId + 101);
+        // since=0 : tout le catalogue, sans les suppressions purgées
+        assertThat(livreChangeService.getChanges(0, 500).getChanges())
+                .extracting(LivreChangeResponse::getLivreId)
+                .containsExactly(livreId, livreId + 101);
+    }
+
+    @Test
+    void livreEnregistreRenvoyeAvecSonEtat() {
+        long base = version() - 3;
+
+        LivreChangeResponse change = livreChangeService.getChanges(base, 1).getChanges().get(0);
+
+        assertThat(change.isSupprime()).isFalse();
+        assertThat(change.getLivre().getTitre()).isEqualTo("Germinal");
+    }
+
+    private long version() {
+        return catalogueVersionRepository.findVersion().orElseThrow();
+    }
+
+    private void changement(Long id, long version, boolean supprime, LocalDateTime date) {
+        livreChangementRepository.save(LivreChangement.builder()
+                .livreId(id)
+                .version(version)
+                .supprime(supprime)
+                .dateChangement(date)
+                .build());
+    }
+}
@@ -0,0 +1,112 @@
+package ma.mundiapolis.bookservice.suggest;
+
+import ma.mundiapolis.bookservice.dto.SuggestionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LivreSuggestIndexTests {
+
+    private final LivreSuggestIndex index = new LivreSuggestIndex(1000);
+
+    @Test
+    void insertionPuisSuppressionRestaureLArbre() {
+        index.enregistre(1L, "Les Misérables", "Victor Hugo");
+        index.enregistre(2L, "Le Petit Prince", "Antoine de Saint-Exupéry");
+        int noeuds = index.noeuds();
+        List<String> avant = textes("le");
+
+        // « les mots » coupe l'arête « les miserables », « sartre » en crée une nouvelle
+        index.enregistre(3L, "Les Mots", "Jean-Paul Sartre");
+        assertThat(index.noeuds()).isGreaterThan(noeuds);
+        assertThat(textes("les m")).containsExactly("Les Misérables", "Les Mots");
+
+        index.supprime(3L);
+        assertThat(index.noeuds()).isEqualTo(noeuds);
+        assertThat(textes("le")).isEqualTo(avant);
+        assertThat(textes("mots")).isEmpty();
+        assertThat(textes("sartre")).isEmpty();
+        assertThat(index.taille()).isEqualTo(4);
+    }
+
+    @Test
+    void motsSuivantsEtTexteNormalise() {
+        index.enregistre(1L, "L'Étranger", "Albert Camus");
+
+        assertThat(textes("etr")).containsExactly("L'Étranger");
+        assertThat(textes("l etr")).containsExactly("L'Étranger");
+        assertThat(textes("CAM")).containsExactly("Albert Camus");
+        assertThat(textes("x")).isEmpty();
+    }
+
+    @Test
+    void topSuitLesEmpruntsEtLesRelaches() {
+        index.enregistre(1L, "Germinal", "Émile Zola");
+        index.enregistre(2L, "Germaine", "Anne Dupont");
+        // Même poids : ordre alphabétique
+        assertThat(textes("germ")).containsExactly("Germaine", "Germinal");
+
+        index.emprunte(1L);
+        assertThat(textes("germ")).containsExactly("Germinal", "Germaine");
+        assertThat(index.suggest("germ", 1).get(0).getEmprunts()).isEqualTo(1);
+
+        // Deux livres portent « Germaine » : 2 contre 1 + 1 emprunt, égalité départagée par l'alphabet
+        index.enregistre(3L, "Germaine", "Anne Dupont");
+        assertThat(textes("germ")).containsExactly("Germaine", "Germinal");
+
+        index.supprime(3L);
+        assertThat(textes("germ")).containsExactly("Germinal", "Germaine");
+        assertThat(index.suggest("germaine", 10).get(0).getLivres()).isEqualTo(1);
+    }
+
+    @Test
+    void auPlusMaxResultsSuggestions() {
+        for (long i = 0; i < 15; i++) {
+            index.enregistre(i, "Livre " + (char) ('a' + i), null);
+        }
+        index.emprunte(14L);
+
+        List<SuggestionResponse> suggestions = index.suggest("livre", 50);
+        assertThat(suggestions).hasSize(LivreSuggestIndex.MAX_RESULTS);
+        assertThat(suggestions.get(0).getTexte()).isEqualTo("Livre o");
+        assertThat(index.suggest("livre", 3)).hasSize(3);
+    }
+
+    @Test
+    void indexPleinPuisPlaceLiberee() {
+        LivreSuggestIndex petit = new LivreSuggestIndex(3);
+        petit.enregistre(1L, "Germinal", "Zola");
+        petit.enregistre(2L, "Nana", "Zola");
+        petit.enregistre(3L, "Thérèse Raquin", "Zola");
+
+        assertThat(petit.taille()).isEqualTo(3);
+        assertThat(petit.suggest("therese", 10)).isEmpty();
+
+        petit.supprime(2L);
+        petit.enregistre(3L, "Thérèse Raquin", "Zola");
+        assertThat(petit.taille()).isEqualTo(3);
+        assertThat(petit.suggest("raquin", 10)).extracting(SuggestionResponse::getTexte)
+                .containsExactly("Thérèse Raquin");
+        assertThat(petit.suggest("zola", 10).get(0).getLivres()).isEqualTo(2);
+    }
+
+    @Test
+    void chargementNeReindexePasUnLivreSupprimeOuModifie() {
+        index.supprime(1L);
+        index.enregistre(2L, "Nouveau titre", "Auteur");
+        index.charge(1L, "Livre supprimé", "Auteur");
+        index.charge(2L, "Ancien titre", "Auteur");
+        index.charge(3L, "Autre livre", "Auteur");
+        index.finChargement();
+
+        assertThat(textes("livre")).containsExactly("Autre livre");
+        assertThat(textes("ancien")).isEmpty();
+        assertThat(textes("nouveau")).containsExactly("Nouveau titre");
+    }
+
+    private List<String> textes(String prefix) {
+        return index.suggest(prefix, LivreSuggestIndex.MAX_RESULTS).stream().map(SuggestionResponse::getTexte).toList();
+    }
+}
@@ -0,0 +1,33 @@
+package ma.mundiapolis.empruntsservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import ma.mundiapolis.empruntsservice.dto.EmpruntChangesResponse;
+import ma.mundiapolis.empruntsservice.dto.EmpruntsActifsResponse;
+import ma.mundiapolis.empruntsservice.service.EmpruntChangeService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Flux des changements d'emprunts, lu par les autres services (pas exposé aux clients par la gateway).
+ */
+@RestController
+@RequestMapping("/internal/loans")
+@RequiredArgsConstructor
+public class EmpruntChangeController {
+
+    private final EmpruntChangeService empruntChangeService;
+
+    @GetMapping("/changes")
+    public ResponseEntity<EmpruntChangesResponse> getChanges(@RequestParam(defaultValue = "0") long after,
+                                                             @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(empruntChangeService.getChanges(after, limit));
+    }
+
+    @GetMapping("/active")
+    public ResponseEntity<EmpruntsActifsResponse> getEmpruntsActifs() {
+        return ResponseEntity.ok(empruntChangeService.getEmpruntsActifs());
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import ma.mundiapolis.empruntsservice.dto.EmpruntRequest;
 import ma.mundiapolis.empruntsservice.dto.EmpruntResponse;
+import ma.mundiapolis.empruntsservice.dto.EmpruntStatsResponse;
 import ma.mundiapolis.empruntsservice.service.IEmpruntService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -48,6 +49,11 @@ public class EmpruntController {
         return ResponseEntity.ok(empruntService.getEmpruntsByBookId(bookId));
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<EmpruntStatsResponse> getStats() {
+        return ResponseEntity.ok(empruntService.getStats());
+    }
+
     @GetMapping("/overdue")
     public ResponseEntity<List<EmpruntResponse>> getOverdueEmprunts() {
         return ResponseEntity.ok(empruntService.getOverdueEmprunts());
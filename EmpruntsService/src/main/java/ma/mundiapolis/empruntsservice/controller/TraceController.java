@@ -0,0 +1,28 @@
+package ma.mundiapolis.empruntsservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import ma.mundiapolis.empruntsservice.dto.SpanResponse;
+import ma.mundiapolis.empruntsservice.tracing.InMemorySpanCollector;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Spans enregistrés par ce service pour une trace (consultés par la gateway, pas exposés aux clients).
+ */
+@RestController
+@RequestMapping("/internal/traces")
+@RequiredArgsConstructor
+public class TraceController {
+
+    private final InMemorySpanCollector collector;
+
+    @GetMapping("/{traceId}")
+    public ResponseEntity<List<SpanResponse>> getTrace(@PathVariable String traceId) {
+        return ResponseEntity.ok(collector.find(traceId));
+    }
+}
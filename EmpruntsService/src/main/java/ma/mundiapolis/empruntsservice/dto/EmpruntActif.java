@@ -0,0 +1,16 @@
+package ma.mundiapolis.empruntsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Livre actuellement emprunté (ACTIF ou EN_RETARD) et l'emprunt correspondant.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntActif {
+    private Long livreId;
+    private Long empruntId;
+}
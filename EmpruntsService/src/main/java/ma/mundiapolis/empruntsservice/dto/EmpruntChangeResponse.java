@@ -0,0 +1,21 @@
+package ma.mundiapolis.empruntsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ma.mundiapolis.empruntsservice.model.TypeChangement;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntChangeResponse {
+    private Long sequence;
+    private Long empruntId;
+    private Long livreId;
+    private TypeChangement type;
+    private LocalDateTime date;
+}
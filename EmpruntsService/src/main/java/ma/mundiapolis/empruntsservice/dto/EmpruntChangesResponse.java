@@ -0,0 +1,18 @@
+package ma.mundiapolis.empruntsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntChangesResponse {
+    private List<EmpruntChangeResponse> changes;
+    // Dernière séquence connue au moment de la lecture
+    private long derniereSequence;
+}
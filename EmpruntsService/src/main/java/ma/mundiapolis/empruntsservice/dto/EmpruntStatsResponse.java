@@ -0,0 +1,22 @@
+package ma.mundiapolis.empruntsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Agrégats des emprunts pour le tableau de bord, calculés en base plutôt que dans le navigateur.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntStatsResponse {
+    private long actifs;
+    private long enRetard;
+    private List<EmpruntsParJour> parJour;
+    private List<LivreEmprunte> plusEmpruntes;
+}
@@ -0,0 +1,18 @@
+package ma.mundiapolis.empruntsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntsActifsResponse {
+    // Séquence du flux de changements à laquelle correspond cet état
+    private long sequence;
+    private List<EmpruntActif> emprunts;
+}
@@ -0,0 +1,18 @@
+package ma.mundiapolis.empruntsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Nombre d'emprunts commencés un jour donné.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntsParJour {
+    private LocalDate date;
+    private Long nombre;
+}
@@ -0,0 +1,16 @@
+package ma.mundiapolis.empruntsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nombre total d'emprunts d'un livre.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivreEmprunte {
+    private Long livreId;
+    private Long nombre;
+}
@@ -0,0 +1,49 @@
+package ma.mundiapolis.empruntsservice.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Journal des changements d'état des emprunts (outbox) : une ligne écrite dans la même transaction que
+ * l'emprunt ou le retour, lue ensuite par les autres services via /internal/loans/changes.
+ * L'ID sert de numéro de séquence.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_emprunt_change_date", columnList = "dateChangement"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpruntChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    private Long empruntId;
+
+    @NotNull
+    private Long livreId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private TypeChangement type;
+
+    @CreationTimestamp
+    private LocalDateTime dateChangement;
+
+    public static EmpruntChange of(Emprunt emprunt, TypeChangement type) {
+        return EmpruntChange.builder()
+                .empruntId(emprunt.getId())
+                .livreId(emprunt.getLivreId())
+                .type(type)
+                .build();
+    }
+}
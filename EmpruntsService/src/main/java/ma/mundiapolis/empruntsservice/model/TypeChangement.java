@@ -0,0 +1,6 @@
+package ma.mundiapolis.empruntsservice.model;
+
+public enum TypeChangement {
+    EMPRUNTE,
+    RETOURNE
+}
@@ -0,0 +1,25 @@
+package ma.mundiapolis.empruntsservice.repository;
+
+import ma.mundiapolis.empruntsservice.model.EmpruntChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmpruntChangeRepository extends JpaRepository<EmpruntChange, Long> {
+    // Lecture du flux à partir d'une séquence, par ordre croissant
+    List<EmpruntChange> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select coalesce(max(c.id), 0) from EmpruntChange c")
+    long findDerniereSequence();
+
+    @Modifying
+    @Query("delete from EmpruntChange c where c.dateChangement < :avant")
+    int deleteAnterieurs(@Param("avant") LocalDateTime avant);
+}
@@ -1,8 +1,14 @@
 package ma.mundiapolis.empruntsservice.repository;
 
+import ma.mundiapolis.empruntsservice.dto.EmpruntActif;
+import ma.mundiapolis.empruntsservice.dto.EmpruntsParJour;
+import ma.mundiapolis.empruntsservice.dto.LivreEmprunte;
 import ma.mundiapolis.empruntsservice.model.Emprunt;
 import ma.mundiapolis.empruntsservice.model.StatutEmprunt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -21,4 +27,22 @@ public interface EmpruntRepository extends JpaRepository<Emprunt, Long> {
     List<Emprunt> findByDateRetourPrevueBeforeAndStatut(LocalDate date, StatutEmprunt statut);
     
     boolean existsByLivreIdAndStatutIn(Long livreId, List<StatutEmprunt> statuts);
+
+    // État complet des livres empruntés, pour la réconciliation des projections des autres services
+    @Query("select new ma.mundiapolis.empruntsservice.dto.EmpruntActif(e.livreId, e.id) "
+            + "from Emprunt e where e.statut in :statuts")
+    List<EmpruntActif> findEmpruntsActifs(@Param("statuts") List<StatutEmprunt> statuts);
+
+    // Agrégats du tableau de bord
+    long countByStatut(StatutEmprunt statut);
+
+    long countByDateRetourPrevueBeforeAndStatut(LocalDate date, StatutEmprunt statut);
+
+    @Query("select new ma.mundiapolis.empruntsservice.dto.EmpruntsParJour(e.dateEmprunt, count(e)) "
+            + "from Emprunt e where e.dateEmprunt >= :depuis group by e.dateEmprunt order by e.dateEmprunt")
+    List<EmpruntsParJour> countParJourDepuis(@Param("depuis") LocalDate depuis);
+
+    @Query("select new ma.mundiapolis.empruntsservice.dto.LivreEmprunte(e.livreId, count(e)) "
+            + "from Emprunt e group by e.livreId order by count(e) desc")
+    List<LivreEmprunte> findPlusEmpruntes(Pageable pageable);
 }
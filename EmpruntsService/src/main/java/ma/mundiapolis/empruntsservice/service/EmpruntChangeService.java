@@ -0,0 +1,83 @@
+package ma.mundiapolis.empruntsservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.mundiapolis.empruntsservice.dto.EmpruntChangeResponse;
+import ma.mundiapolis.empruntsservice.dto.EmpruntChangesResponse;
+import ma.mundiapolis.empruntsservice.dto.EmpruntsActifsResponse;
+import ma.mundiapolis.empruntsservice.model.EmpruntChange;
+import ma.mundiapolis.empruntsservice.model.StatutEmprunt;
+import ma.mundiapolis.empruntsservice.repository.EmpruntChangeRepository;
+import ma.mundiapolis.empruntsservice.repository.EmpruntRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Flux des changements d'emprunts pour les autres services (BookService tient ainsi la disponibilité
+ * des livres à jour sans interroger ce service à chaque vérification).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmpruntChangeService {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final EmpruntChangeRepository empruntChangeRepository;
+    private final EmpruntRepository empruntRepository;
+
+    @Value("${emprunt.changes.retention:P7D}")
+    private Duration retention;
+
+    @Transactional(readOnly = true)
+    public EmpruntChangesResponse getChanges(long after, int limit) {
+        List<EmpruntChangeResponse> changes = empruntChangeRepository
+                .findByIdGreaterThanOrderByIdAsc(after, Limit.of(Math.max(1, Math.min(limit, MAX_LIMIT))))
+                .stream()
+                .map(EmpruntChangeService::toResponse)
+                .toList();
+        return EmpruntChangesResponse.builder()
+                .changes(changes)
+                .derniereSequence(empruntChangeRepository.findDerniereSequence())
+                .build();
+    }
+
+    /**
+     * Livres empruntés à une séquence donnée du flux : les deux lectures se font dans le même instantané
+     * (REPEATABLE READ), le consommateur reprend ensuite le flux à partir de cette séquence.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public EmpruntsActifsResponse getEmpruntsActifs() {
+        long sequence = empruntChangeRepository.findDerniereSequence();
+        return EmpruntsActifsResponse.builder()
+                .sequence(sequence)
+                .emprunts(empruntRepository.findEmpruntsActifs(List.of(StatutEmprunt.ACTIF, StatutEmprunt.EN_RETARD)))
+                .build();
+    }
+
+    // Un consommateur en retard de plus que la rétention se resynchronise avec getEmpruntsActifs
+    @Scheduled(cron = "${emprunt.changes.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purge() {
+        int supprimes = empruntChangeRepository.deleteAnterieurs(LocalDateTime.now().minus(retention));
+        log.info("Flux des emprunts : {} changements de plus de {} supprimés", supprimes, retention);
+    }
+
+    private static EmpruntChangeResponse toResponse(EmpruntChange change) {
+        return EmpruntChangeResponse.builder()
+                .sequence(change.getId())
+                .empruntId(change.getEmpruntId())
+                .livreId(change.getLivreId())
+                .type(change.getType())
+                .date(change.getDateChangement())
+                .build();
+    }
+}
@@ -4,13 +4,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ma.mundiapolis.empruntsservice.dto.EmpruntRequest;
 import ma.mundiapolis.empruntsservice.dto.EmpruntResponse;
+import ma.mundiapolis.empruntsservice.dto.EmpruntStatsResponse;
 import ma.mundiapolis.empruntsservice.dto.UserDTO;
 import ma.mundiapolis.empruntsservice.exception.BusinessRuleException;
 import ma.mundiapolis.empruntsservice.exception.ResourceNotFoundException;
 import ma.mundiapolis.empruntsservice.mapper.EmpruntMapper;
 import ma.mundiapolis.empruntsservice.model.Emprunt;
+import ma.mundiapolis.empruntsservice.model.EmpruntChange;
 import ma.mundiapolis.empruntsservice.model.StatutEmprunt;
+import ma.mundiapolis.empruntsservice.model.TypeChangement;
+import ma.mundiapolis.empruntsservice.repository.EmpruntChangeRepository;
 import ma.mundiapolis.empruntsservice.repository.EmpruntRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -25,6 +30,7 @@ import java.util.List;
 public class EmpruntService implements IEmpruntService {
 
     private final EmpruntRepository empruntRepository;
+    private final EmpruntChangeRepository empruntChangeRepository;
     private final EmpruntMapper empruntMapper;
     private final WebClient webClient;
 
@@ -86,6 +92,8 @@ public class EmpruntService implements IEmpruntService {
                 .build();
 
         Emprunt savedEmprunt = empruntRepository.save(emprunt);
+        // Même transaction que l'emprunt : le changement est publié si et seulement si l'emprunt est commité
+        empruntChangeRepository.save(EmpruntChange.of(savedEmprunt, TypeChangement.EMPRUNTE));
         return empruntMapper.toResponse(savedEmprunt);
     }
 
@@ -102,6 +110,7 @@ public class EmpruntService implements IEmpruntService {
         emprunt.setStatut(StatutEmprunt.RETOURNE);
 
         Emprunt updatedEmprunt = empruntRepository.save(emprunt);
+        empruntChangeRepository.save(EmpruntChange.of(updatedEmprunt, TypeChangement.RETOURNE));
         return empruntMapper.toResponse(updatedEmprunt);
     }
 
@@ -140,4 +149,19 @@ public class EmpruntService implements IEmpruntService {
     public List<EmpruntResponse> getAllEmprunts() {
         return empruntMapper.toResponseList(empruntRepository.findAll());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmpruntStatsResponse getStats() {
+        LocalDate today = LocalDate.now();
+        // Même définition du retard que getOverdueEmprunts (ACTIF et date prévue dépassée), plus les EN_RETARD
+        long enRetard = empruntRepository.countByStatut(StatutEmprunt.EN_RETARD)
+                + empruntRepository.countByDateRetourPrevueBeforeAndStatut(today, StatutEmprunt.ACTIF);
+        return EmpruntStatsResponse.builder()
+                .actifs(empruntRepository.countByStatut(StatutEmprunt.ACTIF))
+                .enRetard(enRetard)
+                .parJour(empruntRepository.countParJourDepuis(today.minusDays(6)))
+                .plusEmpruntes(empruntRepository.findPlusEmpruntes(PageRequest.of(0, 6)))
+                .build();
+    }
 }
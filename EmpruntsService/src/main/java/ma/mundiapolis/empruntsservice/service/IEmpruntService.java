@@ -2,6 +2,7 @@ package ma.mundiapolis.empruntsservice.service;
 
 import ma.mundiapolis.empruntsservice.dto.EmpruntRequest;
 import ma.mundiapolis.empruntsservice.dto.EmpruntResponse;
+import ma.mundiapolis.empruntsservice.dto.EmpruntStatsResponse;
 
 import java.util.List;
 
@@ -19,4 +20,6 @@ public interface IEmpruntService {
     List<EmpruntResponse> getOverdueEmprunts();
 
     List<EmpruntResponse> getAllEmprunts();
+
+    EmpruntStatsResponse getStats();
 }
@@ -0,0 +1,92 @@
+package ma.mundiapolis.empruntsservice.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import ma.mundiapolis.empruntsservice.dto.SpanResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Garde en mémoire les spans terminés des dernières traces (pas de Zipkin à déployer) pour les
+ * consulter avec GET /internal/traces/{traceId}. Au-delà de max-traces, les plus anciennes sont oubliées.
+ */
+@Component
+public class InMemorySpanCollector extends SpanHandler {
+
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+
+    private final Map<String, List<SpanResponse>> traces = new ConcurrentHashMap<>();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public InMemorySpanCollector(@Value("${tracing.collector.max-traces:2000}") int maxTraces,
+                                 @Value("${tracing.collector.max-spans-per-trace:200}") int maxSpansPerTrace) {
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        List<SpanResponse> spans = traces.computeIfAbsent(span.traceId(), traceId -> {
+            order.add(traceId);
+            size.incrementAndGet();
+            return new ArrayList<>();
+        });
+        synchronized (spans) {
+            if (spans.size() < maxSpansPerTrace) {
+                spans.add(toResponse(span));
+            }
+        }
+        while (size.get() > maxTraces) {
+            String oldest = order.poll();
+            if (oldest == null) {
+                break;
+            }
+            traces.remove(oldest);
+            size.decrementAndGet();
+        }
+        return true;
+    }
+
+    public List<SpanResponse> find(String traceId) {
+        List<SpanResponse> spans = traces.get(traceId);
+        if (spans == null) {
+            return List.of();
+        }
+        synchronized (spans) {
+            List<SpanResponse> copy = new ArrayList<>(spans);
+            copy.sort(Comparator.comparingLong(SpanResponse::getStartMicros));
+            return copy;
+        }
+    }
+
+    private static SpanResponse toResponse(MutableSpan span) {
+        String error = span.error() != null ? span.error().toString() : span.tag("error");
+        return SpanResponse.builder()
+                .traceId(span.traceId())
+                .spanId(span.id())
+                .parentId(span.parentId())
+                .service(span.localServiceName())
+                .name(span.name())
+                .kind(span.kind() != null ? span.kind().name() : null)
+                .startMicros(span.startTimestamp())
+                .durationMicros(span.finishTimestamp() - span.startTimestamp())
+                .tags(Map.copyOf(span.tags()))
+                .error(error)
+                .build();
+    }
+}
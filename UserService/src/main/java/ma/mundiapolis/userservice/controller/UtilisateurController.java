@@ -108,6 +108,14 @@ public class UtilisateurController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * Résumé des utilisateurs pour le tableau de bord
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<UtilisateurStatsResponse> getStats() {
+        return ResponseEntity.ok(new UtilisateurStatsResponse(utilisateurService.countUsers()));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<UtilisateurResponse> updateUser(@PathVariable Long id,
             @RequestBody ma.mundiapolis.userservice.dto.UpdateUserRequest request) {
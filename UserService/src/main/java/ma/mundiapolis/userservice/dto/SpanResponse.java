@@ -0,0 +1,28 @@
+package ma.mundiapolis.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Span terminé, tel que renvoyé par GET /internal/traces/{traceId}. Les horodatages sont en microsecondes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpanResponse {
+    private String traceId;
+    private String spanId;
+    private String parentId;
+    private String service;
+    private String name;
+    private String kind;
+    private long startMicros;
+    private long durationMicros;
+    private Map<String, String> tags;
+    private String error;
+}
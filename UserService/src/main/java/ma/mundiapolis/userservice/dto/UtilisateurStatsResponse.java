@@ -0,0 +1,15 @@
+package ma.mundiapolis.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résumé des utilisateurs pour le tableau de bord.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilisateurStatsResponse {
+    private long totalUtilisateurs;
+}
@@ -32,6 +32,11 @@ public interface IUtilisateurService {
      */
     List<Utilisateur> findAll();
 
+    /**
+     * Nombre total d'utilisateurs (tableau de bord)
+     */
+    long countUsers();
+
     /**
      * Mettre à jour un utilisateur (ADMIN)
      */
@@ -77,6 +77,12 @@ public class UtilisateurService implements IUtilisateurService {
         return utilisateurRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long countUsers() {
+        return utilisateurRepository.count();
+    }
+
     @Override
     @Transactional
     public Utilisateur updateUser(Long id, ma.mundiapolis.userservice.dto.UpdateUserRequest request) {
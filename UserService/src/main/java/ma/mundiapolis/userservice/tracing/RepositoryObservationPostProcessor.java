@@ -0,0 +1,41 @@
+package ma.mundiapolis.userservice.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ajoute un span (observation "db.repository") autour de chaque appel de repository Spring Data :
+ * dans une trace, on voit ainsi le temps passé en base par requête (ex: UtilisateurRepository.findByEmail).
+ */
+@Component
+public class RepositoryObservationPostProcessor implements BeanPostProcessor {
+
+    // Résolu au premier appel : le registre ne doit pas être créé pendant l'enregistrement des post-processors
+    private final ObjectProvider<ObservationRegistry> registry;
+
+    public RepositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> {
+                        String repository = information.getRepositoryInterface().getSimpleName();
+                        proxyFactory.addAdvice((MethodInterceptor) invocation -> Observation
+                                .createNotStarted("db.repository", registry.getObject())
+                                .contextualName(repository + "." + invocation.getMethod().getName())
+                                .lowCardinalityKeyValue("repository", repository)
+                                .lowCardinalityKeyValue("method", invocation.getMethod().getName())
+                                .observeChecked(invocation::proceed));
+                    }));
+        }
+        return bean;
+    }
+}
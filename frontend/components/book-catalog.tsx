@@ -1,8 +1,8 @@
 "use client"
 
-import React, { useState, useEffect, useMemo } from "react"
+import React, { useState, useEffect } from "react"
 import { useAuth } from "@/contexts/auth-context"
-import { bookService } from "@/lib/services"
+import { bookService, type LivrePageResponse } from "@/lib/services"
 import { Input } from "@/components/ui/input"
 import { Button } from "@/components/ui/button"
 import { Card, CardContent, CardDescription, CardFooter, CardHeader, CardTitle } from "@/components/ui/card"
@@ -21,54 +21,71 @@ interface LivreResponse {
   isbn: string
 }
 
+// Livres par page : 6 rangées de la grille sur grand écran
+const PAGE_SIZE = 24
+
 export default function BookCatalog() {
   const { user } = useAuth()
   const [books, setBooks] = useState<LivreResponse[]>([])
+  const [nextCursor, setNextCursor] = useState<string | null>(null)
   const [search, setSearch] = useState("")
   const [isLoading, setIsLoading] = useState(true)
+  const [isLoadingMore, setIsLoadingMore] = useState(false)
   const { toast } = useToast()
 
-  const fetchBooks = async () => {
-    setIsLoading(true)
+  // Première page (cursor absent) ou page suivante du catalogue, ou de la recherche si un texte est saisi
+  const loadPage = async (cursor: string | null): Promise<LivrePageResponse | undefined> => {
     if (!user?.token) {
       toast({ title: "Erreur", description: "Utilisateur non authentifié.", variant: "destructive" })
-      setIsLoading(false)
-      return
+      return undefined
     }
-
+    const query = search.trim()
     try {
-      const data = await bookService.getAllBooks(user.token)
-      setBooks(data)
+      return query
+        ? await bookService.searchBooks({ query, cursor, size: PAGE_SIZE, token: user.token })
+        : await bookService.getBooksPage({ cursor, size: PAGE_SIZE, token: user.token })
     } catch (error) {
       toast({
         title: "Erreur",
         description: "Impossible de charger le catalogue",
         variant: "destructive",
       })
-    } finally {
-      setIsLoading(false)
+      return undefined
     }
   }
 
+  const fetchBooks = async () => {
+    setIsLoading(true)
+    const page = await loadPage(null)
+    if (page) {
+      setBooks(page.livres)
+      setNextCursor(page.nextCursor)
+    }
+    setIsLoading(false)
+  }
+
+  const fetchMore = async () => {
+    if (!nextCursor) return
+    setIsLoadingMore(true)
+    const page = await loadPage(nextCursor)
+    if (page) {
+      setBooks((current) => [...current, ...page.livres])
+      setNextCursor(page.nextCursor)
+    }
+    setIsLoadingMore(false)
+  }
+
+  // Recherche côté serveur, relancée 300 ms après la dernière frappe
   useEffect(() => {
-    if (user) fetchBooks()
-  }, [user])
+    if (!user) return
+    const timer = setTimeout(() => fetchBooks(), search.trim() ? 300 : 0)
+    return () => clearTimeout(timer)
+  }, [user, search])
 
   const handleSearch = (e: React.FormEvent) => {
     e.preventDefault()
   }
 
-  const filteredBooks = useMemo(() => {
-    const q = search.trim().toLowerCase()
-    if (!q) return books
-    return books.filter(
-      (b) =>
-        b.titre.toLowerCase().includes(q) ||
-        b.auteur.toLowerCase().includes(q) ||
-        (b.categorie || "").toLowerCase().includes(q),
-    )
-  }, [books, search])
-
   return (
     <div className="space-y-6">
       <div className="flex flex-col gap-4 md:flex-row md:items-center md:justify-between">
@@ -85,7 +102,7 @@ export default function BookCatalog() {
             <div className="relative flex-1">
               <Search className="absolute left-3 top-1/2 size-4 -translate-y-1/2 text-muted-foreground" />
               <Input
-                placeholder="Rechercher par titre, auteur ou catégorie..."
+                placeholder="Rechercher par titre, auteur, catégorie ou ISBN..."
                 value={search}
                 onChange={(e) => setSearch(e.target.value)}
                 className="pl-9 rounded-lg border-muted bg-background py-6"
@@ -99,41 +116,51 @@ export default function BookCatalog() {
         <div className="flex h-64 items-center justify-center">
           <Loader2 className="size-8 animate-spin text-primary/50" />
         </div>
-      ) : filteredBooks.length > 0 ? (
-        <div className="grid gap-4 sm:grid-cols-2 lg:grid-cols-3 xl:grid-cols-4">
-          {filteredBooks.map((book) => (
-            <Card
-              key={book.id}
-              className="flex flex-col overflow-hidden transition-all hover:shadow-md border-border/50"
-            >
-              <CardHeader className="bg-primary/5 pb-3 pt-4 px-4">
-                <div className="flex justify-between items-start mb-1.5">
-                  <Badge variant="secondary" className="rounded-full font-medium text-xs">
-                    {book.categorie}
-                  </Badge>
-                  <BookIcon className="size-4 text-primary/40" />
-                </div>
-                <CardTitle className="text-lg line-clamp-1 leading-tight">{book.titre}</CardTitle>
-                <CardDescription className="flex items-center text-xs mt-1">
-                  <User className="mr-1.5 size-3" />
-                  {book.auteur}
-                </CardDescription>
-              </CardHeader>
-              <CardContent className="flex-1 py-3 px-4">
-                <div className="flex items-center text-xs text-muted-foreground">
-                  <Hash className="mr-2 size-3" />
-                  <span className="font-mono text-xs">{book.isbn}</span>
-                </div>
-              </CardContent>
-              <CardFooter className="pt-0 pb-3 px-4 gap-2">
-                {user?.role === "ADMIN" ? (
-                  <LoanFormDialog bookId={book.id} bookTitle={book.titre} onSuccess={() => fetchBooks()} />
-                ) : (
-                  <BookDetailsDialog bookId={book.id} title={book.titre} author={book.auteur} categorie={book.categorie} isbn={book.isbn} onSuccess={() => fetchBooks()} />
-                )}
-              </CardFooter>
-            </Card>
-          ))}
+      ) : books.length > 0 ? (
+        <div className="space-y-6">
+          <div className="grid gap-4 sm:grid-cols-2 lg:grid-cols-3 xl:grid-cols-4">
+            {books.map((book) => (
+              <Card
+                key={book.id}
+                className="flex flex-col overflow-hidden transition-all hover:shadow-md border-border/50"
+              >
+                <CardHeader className="bg-primary/5 pb-3 pt-4 px-4">
+                  <div className="flex justify-between items-start mb-1.5">
+                    <Badge variant="secondary" className="rounded-full font-medium text-xs">
+                      {book.categorie}
+                    </Badge>
+                    <BookIcon className="size-4 text-primary/40" />
+                  </div>
+                  <CardTitle className="text-lg line-clamp-1 leading-tight">{book.titre}</CardTitle>
+                  <CardDescription className="flex items-center text-xs mt-1">
+                    <User className="mr-1.5 size-3" />
+                    {book.auteur}
+                  </CardDescription>
+                </CardHeader>
+                <CardContent className="flex-1 py-3 px-4">
+                  <div className="flex items-center text-xs text-muted-foreground">
+                    <Hash className="mr-2 size-3" />
+                    <span className="font-mono text-xs">{book.isbn}</span>
+                  </div>
+                </CardContent>
+                <CardFooter className="pt-0 pb-3 px-4 gap-2">
+                  {user?.role === "ADMIN" ? (
+                    <LoanFormDialog bookId={book.id} bookTitle={book.titre} onSuccess={() => fetchBooks()} />
+                  ) : (
+                    <BookDetailsDialog bookId={book.id} title={book.titre} author={book.auteur} categorie={book.categorie} isbn={book.isbn} onSuccess={() => fetchBooks()} />
+                  )}
+                </CardFooter>
+              </Card>
+            ))}
+          </div>
+          {nextCursor && (
+            <div className="flex justify-center">
+              <Button variant="outline" onClick={fetchMore} disabled={isLoadingMore}>
+                {isLoadingMore && <Loader2 className="mr-2 size-4 animate-spin" />}
+                Afficher plus de livres
+              </Button>
+            </div>
+          )}
         </div>
       ) : (
         <div className="flex h-64 flex-col items-center justify-center rounded-xl border-2 border-dashed border-muted p-12 text-center">
@@ -4,39 +4,33 @@ import React from "react"
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from "@/components/ui/card"
 import { Loader2 } from "lucide-react"
 import { LineChart, Line, CartesianGrid, XAxis, YAxis, Tooltip, ResponsiveContainer, BarChart, Bar } from "recharts"
-
-interface LivreResponse {
-  id: number
-  titre: string
-  auteur: string
-  categorie: string
-  isbn: string
-}
+import type { DashboardResponse } from "@/lib/services"
 
 interface Props {
-  books: LivreResponse[]
-  loans: any[]
+  dashboard: DashboardResponse | null
+  isAdmin: boolean
   isLoading: boolean
 }
 
-export default function DashboardWidgets({ books, loans, isLoading }: Props) {
-  // Prepare dashboard aggregates
-  const totalBooks = books.length
-  const activeLoansCount = loans.filter((l) => l.statut === "ACTIF").length
-  const overdueCount = loans.filter((l) => l.statut === "EN_RETARD").length
+export default function DashboardWidgets({ dashboard, isAdmin, isLoading }: Props) {
+  // Les agrégats arrivent déjà calculés par la gateway (GET /api/dashboard)
+  const totalBooks = dashboard?.livres?.totalLivres ?? "—"
 
-  // Most borrowed books computation
-  const mostBorrowed = (() => {
-    const counts = new Map<number, number>()
-    loans.forEach((l) => counts.set(l.livreId, (counts.get(l.livreId) || 0) + 1))
-    const arr = Array.from(counts.entries()).map(([livreId, count]) => {
-      const b = books.find((bb) => bb.id === livreId)
-      return { titre: b ? b.titre : `Livre ${livreId}`, count }
-    })
-    return arr.sort((a, b) => b.count - a.count).slice(0, 6)
-  })()
+  // Un administrateur voit les chiffres de la bibliothèque, un utilisateur ses propres emprunts
+  const myLoans = dashboard?.mesEmpruntsActifs
+  const activeLoansCount = isAdmin
+    ? (dashboard?.emprunts?.actifs ?? "—")
+    : (myLoans?.filter((l) => l.statut === "ACTIF").length ?? "—")
+  const overdueCount = isAdmin
+    ? (dashboard?.emprunts?.enRetard ?? "—")
+    : (myLoans?.filter((l) => l.statut === "EN_RETARD" || new Date(l.dateRetourPrevue) < new Date()).length ?? "—")
 
-  // Loans per day for last 7 days
+  const mostBorrowed = (dashboard?.emprunts?.plusEmpruntes ?? []).map((e) => ({
+    titre: e.titre ?? `Livre ${e.livreId}`,
+    count: e.nombre,
+  }))
+
+  // Prêts des 7 derniers jours (les jours sans emprunt ne sont pas renvoyés par le service)
   const loansByDay = (() => {
     const days: Record<string, number> = {}
     for (let i = 6; i >= 0; i--) {
@@ -45,10 +39,9 @@ export default function DashboardWidgets({ books, loans, isLoading }: Props) {
       const key = d.toISOString().slice(0, 10)
       days[key] = 0
     }
-    loans.forEach((l) => {
-      const day = l.dateEmprunt ? l.dateEmprunt.slice(0, 10) : null
-      if (day && day in days) days[day] = days[day] + 1
-    })
+    for (const j of dashboard?.emprunts?.parJour ?? []) {
+      if (j.date in days) days[j.date] = j.nombre
+    }
     return Object.entries(days).map(([date, count]) => ({ date, count }))
   })()
 
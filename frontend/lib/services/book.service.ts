@@ -6,10 +6,23 @@ export interface LivreResponse {
   auteur: string
   categorie: string
   isbn: string
+  isbn13: string
   dateCreation: string
   dateModification: string
 }
 
+// Une page du catalogue : nextCursor est à renvoyer dans cursor pour la page suivante (null sur la dernière)
+export interface LivrePageResponse {
+  livres: LivreResponse[]
+  sort: string
+  size: number
+  nextCursor: string | null
+}
+
+export interface LivreSearchResponse extends LivrePageResponse {
+  total: number
+}
+
 export interface LivreRequest {
   titre: string
   auteur: string
@@ -33,17 +46,46 @@ export interface DeleteLivreParams {
   token: string
 }
 
-export interface SearchBooksParams {
-  titre?: string
-  auteur?: string
+export interface GetBooksPageParams {
+  cursor?: string | null
+  size?: number
   categorie?: string
+  auteur?: string
   token: string
 }
 
+export interface SearchBooksParams extends GetBooksPageParams {
+  query: string
+}
+
+// Taille maximale d'une page côté BookService
+const MAX_PAGE_SIZE = 100
+
+function pageParams({ cursor, size, categorie, auteur }: GetBooksPageParams): URLSearchParams {
+  const params = new URLSearchParams()
+  if (cursor) params.append("cursor", cursor)
+  if (size) params.append("size", String(size))
+  if (categorie) params.append("categorie", categorie)
+  if (auteur) params.append("auteur", auteur)
+  return params
+}
+
 class BookService {
-  // Récupérer tous les livres
+  // Une page du catalogue (tri par titre)
+  async getBooksPage(params: GetBooksPageParams): Promise<LivrePageResponse> {
+    return apiRequest<LivrePageResponse>(`/api/books?${pageParams(params)}`, params.token)
+  }
+
+  // Récupérer tous les livres, page après page
   async getAllBooks(token: string): Promise<LivreResponse[]> {
-    return apiRequest<LivreResponse[]>("/api/books", token)
+    const livres: LivreResponse[] = []
+    let cursor: string | null = null
+    do {
+      const page: LivrePageResponse = await this.getBooksPage({ cursor, size: MAX_PAGE_SIZE, token })
+      livres.push(...page.livres)
+      cursor = page.nextCursor
+    } while (cursor)
+    return livres
   }
 
   // Récupérer un livre par ID
@@ -74,17 +116,11 @@ class BookService {
     })
   }
 
-  // Rechercher des livres
-  async searchBooks({ titre, auteur, categorie, token }: SearchBooksParams): Promise<LivreResponse[]> {
-    const params = new URLSearchParams()
-    if (titre) params.append("titre", titre)
-    if (auteur) params.append("auteur", auteur)
-    if (categorie) params.append("categorie", categorie)
-
-    const queryString = params.toString()
-    const endpoint = queryString ? `/api/books/search?${queryString}` : "/api/books"
-
-    return apiRequest<LivreResponse[]>(endpoint, token)
+  // Recherche plein texte (titre, auteur, catégorie, ISBN) : une page de résultats classés par pertinence
+  async searchBooks(params: SearchBooksParams): Promise<LivreSearchResponse> {
+    const query = pageParams(params)
+    query.append("query", params.query)
+    return apiRequest<LivreSearchResponse>(`/api/books/search?${query}`, params.token)
   }
 
   // Vérifier la disponibilité d'un livre
@@ -0,0 +1,31 @@
+import { apiRequest } from "../api"
+import type { EmpruntResponse } from "./loan.service"
+import type { LivreResponse } from "./book.service"
+
+export interface DashboardResponse {
+  // Sections omises par la gateway (service lent ou indisponible)
+  degrades: string[]
+  livres?: {
+    totalLivres: number
+    derniersAjouts: LivreResponse[]
+  }
+  emprunts?: {
+    actifs: number
+    enRetard: number
+    parJour: { date: string; nombre: number }[]
+    plusEmpruntes: { livreId: number; nombre: number; titre?: string }[]
+  }
+  utilisateurs?: {
+    totalUtilisateurs: number
+  }
+  mesEmpruntsActifs?: EmpruntResponse[]
+}
+
+class DashboardService {
+  // Agrégats du tableau de bord, calculés par la gateway en un seul appel
+  async getDashboard(token: string): Promise<DashboardResponse> {
+    return apiRequest<DashboardResponse>("/api/dashboard", token)
+  }
+}
+
+export const dashboardService = new DashboardService()
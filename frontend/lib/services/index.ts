@@ -1,4 +1,5 @@
 // Index pour exporter tous les services facilement
-export { bookService, type LivreResponse, type LivreRequest } from "./book.service"
+export { bookService, type LivreResponse, type LivreRequest, type LivrePageResponse } from "./book.service"
 export { loanService, type EmpruntResponse, type EmpruntRequest } from "./loan.service"
 export { userService, type UtilisateurResponse, type AuthResponse } from "./user.service"
+export { dashboardService, type DashboardResponse } from "./dashboard.service"
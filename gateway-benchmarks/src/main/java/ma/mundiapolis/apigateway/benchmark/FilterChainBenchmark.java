@@ -0,0 +1,145 @@
+package ma.mundiapolis.apigateway.benchmark;
+
+import ma.mundiapolis.apigateway.security.RouteAccess;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par requête des filtres globaux de la gateway, filtre par filtre puis enchaînés, sur des
+ * échanges simulés (pas de Netty, pas de service derrière).
+ * <ul>
+ *     <li>exchangeOnly : construction de l'échange simulé et fin de chaîne, à soustraire des autres mesures.</li>
+ *     <li>routeValidator, correlationId, authentication, rateLimiting, roleAuthorization : un filtre seul.</li>
+ *     <li>securityChain : CorrelationIdFilter, AuthenticationFilter, RateLimitingFilter puis RoleAuthorizationFilter.</li>
+ * </ul>
+ * Chaque scénario rejoue la même requête : le token valide est donc servi par le cache des claims,
+ * alors qu'un token expiré est re-vérifié à chaque fois. Le profileur GC donne l'allocation par opération
+ * (gc.alloc.rate.norm).
+ * Lancement (module gateway-benchmarks) : {@code java -jar target/benchmarks.jar FilterChainBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    public enum Scenario {
+        // Route publique, sans token
+        PUBLIC(HttpMethod.POST, "/api/users/login", null),
+        // Route sécurisée, token USER valide
+        VALID_TOKEN(HttpMethod.GET, "/api/books/42", Duration.ofDays(1)),
+        // Route sécurisée, token expiré : 401
+        EXPIRED_TOKEN(HttpMethod.GET, "/api/books/42", Duration.ofHours(-1)),
+        // Route sécurisée, sans token : 401
+        MISSING_TOKEN(HttpMethod.GET, "/api/books/42", null),
+        // Route ADMIN avec un token USER : 403
+        ADMIN_ROUTE_AS_USER(HttpMethod.DELETE, "/api/books/42", Duration.ofDays(1));
+
+        private final HttpMethod method;
+        private final String path;
+        private final Duration tokenValidity;
+
+        Scenario(HttpMethod method, String path, Duration tokenValidity) {
+            this.method = method;
+            this.path = path;
+            this.tokenValidity = tokenValidity;
+        }
+    }
+
+    private static final InetSocketAddress CLIENT = new InetSocketAddress("10.0.0.7", 51234);
+
+    @Param
+    private Scenario scenario;
+
+    private GatewayFixtures fixtures;
+    private GatewayFilterChain chain;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        fixtures = new GatewayFixtures();
+        chain = fixtures.securityChain();
+        authorization = scenario.tokenValidity != null
+                ? "Bearer " + GatewayFixtures.token("USER", scenario.tokenValidity)
+                : null;
+    }
+
+    @Benchmark
+    public ServerWebExchange exchangeOnly() {
+        ServerWebExchange exchange = exchange();
+        GatewayFixtures.TERMINAL.filter(exchange).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public RouteAccess routeValidator() {
+        return fixtures.routeValidator.classify(exchange());
+    }
+
+    @Benchmark
+    public ServerWebExchange correlationId() {
+        ServerWebExchange exchange = exchange();
+        fixtures.correlationIdFilter.filter(exchange, GatewayFixtures.TERMINAL).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange authentication() {
+        ServerWebExchange exchange = exchange();
+        fixtures.authenticationFilter.filter(exchange, GatewayFixtures.TERMINAL).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange rateLimiting() {
+        ServerWebExchange exchange = exchange();
+        fixtures.rateLimitingFilter.filter(exchange, GatewayFixtures.TERMINAL).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange roleAuthorization() {
+        ServerWebExchange exchange = exchange();
+        fixtures.roleAuthorizationFilter.filter(exchange, GatewayFixtures.TERMINAL).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange securityChain() {
+        ServerWebExchange exchange = exchange();
+        chain.filter(exchange).block();
+        return exchange;
+    }
+
+    private ServerWebExchange exchange() {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.method(scenario.method, scenario.path)
+                .remoteAddress(CLIENT);
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return GatewayFixtures.exchange(request.build());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FilterChainBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,126 @@
+package ma.mundiapolis.apigateway.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.mundiapolis.apigateway.filter.AuthenticationFilter;
+import ma.mundiapolis.apigateway.filter.CorrelationIdFilter;
+import ma.mundiapolis.apigateway.filter.RateLimitingFilter;
+import ma.mundiapolis.apigateway.filter.RoleAuthorizationFilter;
+import ma.mundiapolis.apigateway.filter.RouteValidator;
+import ma.mundiapolis.apigateway.ratelimit.ConcurrencyLimiter;
+import ma.mundiapolis.apigateway.ratelimit.LocalBucketStore;
+import ma.mundiapolis.apigateway.ratelimit.RateLimitMetrics;
+import ma.mundiapolis.apigateway.ratelimit.RateLimitPolicyResolver;
+import ma.mundiapolis.apigateway.ratelimit.RateLimitProperties;
+import ma.mundiapolis.apigateway.security.RouteSecurityProperties;
+import ma.mundiapolis.apigateway.security.VerifiedClaimsCache;
+import ma.mundiapolis.apigateway.util.JwtUtil;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtres de la gateway construits hors Spring, avec la configuration de application.yml.
+ * Les filtres utilisent l'injection par champ : je renseigne les champs par réflexion.
+ */
+final class GatewayFixtures {
+
+    static final String SECRET =
+            "mySecretKeyForHS512AlgorithmMustBeAtLeast64CharactersLongForSecurityCompliance";
+
+    // Fin de chaîne : rien après les filtres mesurés
+    static final GatewayFilterChain TERMINAL = exchange -> Mono.empty();
+
+    // Partagés comme dans le vrai HttpWebHandlerAdapter. MockServerWebExchange.from(...) recrée les codecs
+    // à chaque échange (~50 Ko, ~100 µs) et noierait le coût des filtres.
+    private static final DefaultWebSessionManager SESSION_MANAGER = new DefaultWebSessionManager();
+    private static final ServerCodecConfigurer CODECS = ServerCodecConfigurer.create();
+    private static final AcceptHeaderLocaleContextResolver LOCALE_RESOLVER = new AcceptHeaderLocaleContextResolver();
+
+    final JwtUtil jwtUtil = new JwtUtil(SECRET);
+    final VerifiedClaimsCache claimsCache = new VerifiedClaimsCache(jwtUtil, 10_000, Duration.ofHours(1));
+    final RouteValidator routeValidator = new RouteValidator(routeSecurity());
+
+    final CorrelationIdFilter correlationIdFilter = new CorrelationIdFilter();
+    final AuthenticationFilter authenticationFilter = new AuthenticationFilter();
+    final RateLimitingFilter rateLimitingFilter = new RateLimitingFilter();
+    final RoleAuthorizationFilter roleAuthorizationFilter = new RoleAuthorizationFilter();
+
+    GatewayFixtures() {
+        ReflectionTestUtils.setField(authenticationFilter, "verifiedClaimsCache", claimsCache);
+        ReflectionTestUtils.setField(authenticationFilter, "routeValidator", routeValidator);
+        ReflectionTestUtils.setField(roleAuthorizationFilter, "routeValidator", routeValidator);
+
+        // Quota très large : on mesure le coût du filtre, pas les rejets 429
+        RateLimitProperties rateLimit = new RateLimitProperties();
+        rateLimit.setCapacity(1_000_000_000L);
+        rateLimit.setRefillPeriod(Duration.ofSeconds(1));
+        RateLimitProperties.RoutePolicy search = new RateLimitProperties.RoutePolicy();
+        search.setPath("/api/books/search");
+        search.setMethods(List.of("GET"));
+        search.setCost(3);
+        rateLimit.setPolicies(List.of(search));
+        RateLimitMetrics metrics = new RateLimitMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimitingFilter, "verifiedClaimsCache", claimsCache);
+        ReflectionTestUtils.setField(rateLimitingFilter, "bucketStore", new LocalBucketStore(rateLimit, metrics));
+        ReflectionTestUtils.setField(rateLimitingFilter, "policyResolver", new RateLimitPolicyResolver(rateLimit));
+        ReflectionTestUtils.setField(rateLimitingFilter, "concurrencyLimiter", new ConcurrencyLimiter(rateLimit));
+        ReflectionTestUtils.setField(rateLimitingFilter, "metrics", metrics);
+    }
+
+    /**
+     * Les quatre filtres globaux dans l'ordre de la gateway (-200, -100, -50, -20).
+     */
+    GatewayFilterChain securityChain() {
+        return chain(List.of(correlationIdFilter, authenticationFilter, rateLimitingFilter, roleAuthorizationFilter), 0);
+    }
+
+    static ServerWebExchange exchange(MockServerHttpRequest request) {
+        return new DefaultServerWebExchange(request, new MockServerHttpResponse(),
+                SESSION_MANAGER, CODECS, LOCALE_RESOLVER);
+    }
+
+    static String token(String role, Duration validity) {
+        return Jwts.builder()
+                .setClaims(Map.of("userId", 42, "email", "user@test.com", "nom", "Jean User", "role", role))
+                .setSubject("user@test.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + validity.toMillis()))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    // Chaîne construite une fois : pas d'allocation de maillons pendant la mesure
+    private static GatewayFilterChain chain(List<GlobalFilter> filters, int index) {
+        if (index == filters.size()) {
+            return TERMINAL;
+        }
+        GlobalFilter filter = filters.get(index);
+        GatewayFilterChain next = chain(filters, index + 1);
+        return exchange -> filter.filter(exchange, next);
+    }
+
+    private static RouteSecurityProperties routeSecurity() {
+        RouteSecurityProperties properties = new RouteSecurityProperties();
+        properties.setAdminRules(List.of(
+                new RouteSecurityProperties.Rule("/api/books/**", List.of("POST", "PUT", "DELETE")),
+                new RouteSecurityProperties.Rule("/api/users/**", List.of("POST", "PUT", "DELETE")),
+                new RouteSecurityProperties.Rule("/internal/**")));
+        return properties;
+    }
+}
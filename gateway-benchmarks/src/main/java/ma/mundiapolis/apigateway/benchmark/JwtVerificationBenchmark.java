@@ -0,0 +1,96 @@
+package ma.mundiapolis.apigateway.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import ma.mundiapolis.apigateway.security.AuthenticatedPrincipal;
+import ma.mundiapolis.apigateway.security.VerifiedClaimsCache;
+import ma.mundiapolis.apigateway.util.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût JWT par requête sécurisée, avant et après le cache des claims vérifiés.
+ * <ul>
+ *     <li>legacyPerRequest : l'ancien chemin (AuthenticationFilter + RateLimitingFilter), soit 5 parsings
+ *     HS512 qui reconstruisent chacun la clé et le parser.</li>
+ *     <li>prebuiltParserCold : un seul parsing avec le parser pré-construit (premier passage d'un token).</li>
+ *     <li>cachedClaims : token déjà vu, lecture du cache.</li>
+ * </ul>
+ * Lancement (module gateway-benchmarks) : {@code java -jar target/benchmarks.jar JwtVerificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET =
+            "mySecretKeyForHS512AlgorithmMustBeAtLeast64CharactersLongForSecurityCompliance";
+
+    private String token;
+    private JwtUtil jwtUtil;
+    private VerifiedClaimsCache cache;
+
+    @Setup
+    public void setup() {
+        token = Jwts.builder()
+                .setClaims(Map.of("userId", 42, "email", "user@test.com", "nom", "Jean User", "role", "USER"))
+                .setSubject("user@test.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 86_400_000L))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+        jwtUtil = new JwtUtil(SECRET);
+        cache = new VerifiedClaimsCache(jwtUtil, 10_000, Duration.ofHours(1));
+        cache.resolve(token);
+    }
+
+    @Benchmark
+    public void legacyPerRequest(Blackhole bh) {
+        // AuthenticationFilter : validateToken + extractUsername + extractRole
+        bh.consume(legacyParse(token).getExpiration().before(new Date()));
+        bh.consume(legacyParse(token).getSubject());
+        bh.consume(legacyParse(token).get("role", String.class));
+        // RateLimitingFilter : validateToken + extractUsername
+        bh.consume(legacyParse(token).getExpiration().before(new Date()));
+        bh.consume(legacyParse(token).getSubject());
+    }
+
+    @Benchmark
+    public Claims prebuiltParserCold() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public AuthenticatedPrincipal cachedClaims() {
+        return cache.resolve(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}